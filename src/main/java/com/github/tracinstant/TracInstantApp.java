@@ -22,8 +22,12 @@ import java.awt.event.WindowEvent;
 import java.io.IOException;
 import java.net.Authenticator;
 import java.net.PasswordAuthentication;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.regex.Pattern;
 
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.UIManager.LookAndFeelInfo;
 
@@ -31,26 +35,80 @@ import com.github.tracinstant.app.data.CachedTicketLoadTask;
 import com.github.tracinstant.app.data.SiteData;
 import com.github.tracinstant.app.data.Ticket;
 import com.github.tracinstant.app.data.TicketLoadTask;
+import com.github.tracinstant.app.data.ViewSnapshot;
 import com.github.tracinstant.app.plugins.AnnotationPanel;
 import com.github.tracinstant.app.plugins.FindInTextPanel;
 import com.github.tracinstant.app.plugins.HistogramPane;
+import com.github.tracinstant.app.plugins.LazyToolPlugin;
 import com.github.tracinstant.app.prefs.SiteSettings;
 import com.github.tracinstant.app.prefs.TracInstantProperties;
 import com.github.tracinstant.app.ui.SlurpAction;
 import com.github.tracinstant.app.ui.TracInstantFrame;
+import com.github.tracinstant.util.StartupTimeline;
+import com.github.tracinstant.util.StartupTimeline.Milestone;
 
 public final class TracInstantApp {
 
+    /**
+     * Classes that starting up loads on the EDT, and that a background thread can load (but not
+     * initialise) meanwhile.
+     */
+    private static final String[] WARM_UP_CLASSES = {
+        "javax.swing.plaf.nimbus.NimbusLookAndFeel",
+        "javax.swing.plaf.nimbus.NimbusDefaults",
+        "javax.swing.plaf.synth.SynthLookAndFeel",
+        "javax.swing.JTable",
+        "javax.swing.table.TableRowSorter",
+        "javax.swing.JSplitPane",
+        "javax.swing.JEditorPane",
+        "javax.swing.text.html.HTMLEditorKit",
+        "javax.swing.text.html.HTMLDocument",
+        "javax.swing.text.html.parser.ParserDelegator",
+        "java.time.format.DateTimeFormatterBuilder",
+        "com.github.tracinstant.app.ui.TracInstantFrame",
+        "com.github.tracinstant.app.data.BinaryTicketCache",
+        "com.github.tracinstant.app.data.CachedTicketLoadTask",
+    };
+
+    /** Quits once started, so that a class-data sharing archive can be made of a startup. */
+    private static final String EXIT_WHEN_STARTED = "--exit-when-started";
+
+    /** The longest a run with {@link #EXIT_WHEN_STARTED} waits for the tickets to load. */
+    private static final int EXIT_WHEN_STARTED_TIMEOUT_MILLIS = 30_000;
+
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new TracInstantApp().startOnEDT());
+        StartupTimeline.reached(Milestone.MAIN);
+        warmUpInBackground();
+        boolean exitWhenStarted = Arrays.asList(args).contains(EXIT_WHEN_STARTED);
+        SwingUtilities.invokeLater(() -> new TracInstantApp().startOnEDT(exitWhenStarted));
+    }
+
+    private static void warmUpInBackground() {
+        Thread thread = new Thread(() -> {
+            ClassLoader loader = TracInstantApp.class.getClassLoader();
+            for (String name : WARM_UP_CLASSES) {
+                try {
+                    Class.forName(name, false, loader);
+                } catch (ClassNotFoundException | LinkageError e) {
+                    // No matter: it is loaded when needed, if it exists
+                }
+            }
+
+            // And the classes that searching uses
+            Pattern.compile("warm|up[^a-z]*$", Pattern.CASE_INSENSITIVE).matcher("Warm up").find();
+        }, "Startup warm-up");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        thread.start();
     }
 
     public TracInstantApp() {
         TracInstantProperties.initialise("bettyluke.net", "TracInstant");
     }
 
-    public void startOnEDT() {
+    public void startOnEDT(boolean exitWhenStarted) {
         setLaF();
+        StartupTimeline.reached(Milestone.LOOK_AND_FEEL);
         final SiteData site = new SiteData();
 
         // In truth this is a HACK that wipes out Trac 1.0 data for in-house users who have
@@ -64,15 +122,22 @@ public final class TracInstantApp {
         }
 
         final TracInstantFrame frame = new TracInstantFrame(site);
+
+        // (Annotations are a user field, so that plugin must be initialised before loading data.)
         frame.installToolPanel(AnnotationPanel.createPlugin());
-        frame.installToolPanel(FindInTextPanel.createPlugin());
-        frame.installToolPanel(HistogramPane.createPlugin());
+        frame.installToolPanel(
+            new LazyToolPlugin("Find tickets in text", FindInTextPanel::createPlugin));
+        frame.installToolPanel(new LazyToolPlugin("Histograms", HistogramPane::createPlugin));
         frame.addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
                 frame.getSlurpAction().cancel();
+                ViewSnapshot snapshot = frame.takeViewSnapshot();
                 frame.dispose();
                 site.saveState();
+                if (snapshot != null) {
+                    site.saveViewSnapshot(snapshot);
+                }
                 saveApplicationState();
             }
         });
@@ -84,9 +149,24 @@ public final class TracInstantApp {
         // data sources, and the cancellation of these tasks.)
 
         frame.getSlurpAction().setEnabled(false);
+        boolean useCache = site.isOkToUseCachedTickets();
+        ViewSnapshot snapshot = useCache ? site.loadViewSnapshot() : null;
+        if (snapshot != null) {
+            frame.showViewSnapshot(snapshot);
+        }
         frame.setVisible(true);
+        StartupTimeline.reached(Milestone.FRAME_VISIBLE);
+        StartupTimeline.whenReached(Milestone.SEARCH_READY, () -> reportStartup(exitWhenStarted));
+        if (exitWhenStarted) {
+            Timer timeout = new Timer(EXIT_WHEN_STARTED_TIMEOUT_MILLIS, e -> {
+                System.err.println("Tickets not loaded in time; exiting anyway");
+                System.exit(0);
+            });
+            timeout.setRepeats(false);
+            timeout.start();
+        }
 
-        if (site.isOkToUseCachedTickets()) {
+        if (useCache) {
             TicketLoadTask loadTask = new CachedTicketLoadTask(site);
             frame.monitorTask(loadTask);
             loadTask.executeWithNotification(() -> loadServerTickets(frame, site));
@@ -110,14 +190,7 @@ public final class TracInstantApp {
                 frame.dispose();
             }
         } else {
-            site.loadUserData();
-            String error = slurper.slurpIncremental();
-            if (error != null) {
-
-                // Allow a one-time full slurp all to cover the possibility that we don't know the
-                // date format (after which incremental slurps will be disabled).
-                slurper.slurpAll();
-            }
+            slurper.slurpIncrementalOrAll();
         }
     }
 
@@ -147,6 +220,21 @@ public final class TracInstantApp {
         }
     }
 
+    private static void reportStartup(boolean exit) {
+        System.out.println(StartupTimeline.format());
+        String file = TracInstantProperties.getStartupTimelineFile();
+        if (!file.isEmpty()) {
+            try {
+                StartupTimeline.exportTo(Paths.get(file));
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        if (exit) {
+            System.exit(0);
+        }
+    }
+
     private static void setLaF() {
         try {
             for (LookAndFeelInfo info : UIManager.getInstalledLookAndFeels()) {
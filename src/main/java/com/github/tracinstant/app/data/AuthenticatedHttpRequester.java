@@ -1,10 +1,14 @@
 package com.github.tracinstant.app.data;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.CookieHandler;
 import java.net.CookieManager;
 import java.net.CookiePolicy;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.security.GeneralSecurityException;
@@ -18,10 +22,26 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 
+import com.github.tracinstant.app.data.RequestGovernor.Permit;
+import com.github.tracinstant.app.data.RequestGovernor.Priority;
 import com.github.tracinstant.app.prefs.SiteSettings;
 
 public final class AuthenticatedHttpRequester {
 
+    /** An error response from the server, with its status code. */
+    public static final class HttpStatusException extends IOException {
+        private final int m_Code;
+
+        HttpStatusException(int code, IOException cause) {
+            super(cause.getMessage(), cause);
+            m_Code = code;
+        }
+
+        public int getCode() {
+            return m_Code;
+        }
+    }
+
     // Some totally INSECURE code from SO to to make HTTPS links work...
     //
     //     http://stackoverflow.com/a/2793153/932359
@@ -67,13 +87,71 @@ public final class AuthenticatedHttpRequester {
     }
 
     public static InputStream getInputStream(SiteSettings settings, URL url) throws IOException {
-        URLConnection uc = url.openConnection();
+        return getInputStream(settings, url, Priority.BACKGROUND);
+    }
+
+    /**
+     * Opens the URL once the {@link RequestGovernor} admits another request to its host. The
+     * request counts as in flight until the returned stream is closed, so callers must close it.
+     */
+    public static InputStream getInputStream(SiteSettings settings, URL url, Priority priority)
+            throws IOException {
 
-        if (!settings.getUsername().isEmpty()) {
-            String userpass = settings.getUsername() + ":" + settings.getPassword();
-            String basicAuth = "Basic " + Base64.getEncoder().encodeToString(userpass.getBytes());
-            uc.setRequestProperty ("Authorization", basicAuth);
+        int port = url.getPort() < 0 ? url.getDefaultPort() : url.getPort();
+        Permit permit = RequestGovernor.getInstance().acquire(url.getHost() + ":" + port, priority);
+        URLConnection uc = null;
+        long t0 = System.nanoTime();
+        try {
+            uc = url.openConnection();
+
+            if (!settings.getUsername().isEmpty()) {
+                String userpass = settings.getUsername() + ":" + settings.getPassword();
+                String basicAuth =
+                    "Basic " + Base64.getEncoder().encodeToString(userpass.getBytes());
+                uc.setRequestProperty ("Authorization", basicAuth);
+            }
+            InputStream in = uc.getInputStream();
+            permit.succeeded(System.nanoTime() - t0);
+            return new FilterInputStream(in) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        permit.release();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            int code = getResponseCode(uc, e);
+            permit.failed(isOverloaded(code, e));
+            if (code >= 400 && e.getClass() == IOException.class) {
+                throw new HttpStatusException(code, (IOException) e);
+            }
+            throw e;
+        }
+    }
+
+    /** @return the status of the failed request, or -1 if there was no response (or no HTTP). */
+    private static int getResponseCode(URLConnection uc, Exception e) {
+        if (e instanceof InterruptedIOException || !(uc instanceof HttpURLConnection)) {
+            return -1;
+        }
+        try {
+            return ((HttpURLConnection) uc).getResponseCode();
+        } catch (IOException ex) {
+            return -1; // No response at all
         }
-        return uc.getInputStream();
+    }
+
+    /**
+     * Whether a failure suggests the server is struggling: a timeout, or a 503 or 429 response.
+     * Not a bad request, nor failing to connect at all (an unknown host, a refused connection,
+     * a TLS problem), which has nothing to do with load.
+     */
+    private static boolean isOverloaded(int code, Exception e) {
+        return e instanceof SocketTimeoutException
+            || code == HttpURLConnection.HTTP_UNAVAILABLE
+            || code == 429;
     }
 }
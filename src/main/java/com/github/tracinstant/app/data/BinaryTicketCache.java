@@ -0,0 +1,777 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The binary format of the local cache, which loads several times faster than tab-delimited
+ * text: there is nothing to tokenize or unescape, and each distinct short value is decoded (and
+ * interned) once rather than once per ticket.
+ * <pre>
+ *   int      MAGIC, VERSION
+ *   int      (version 4) the header's length, then the header: string site URL, varint ticket
+ *            count, string latest change time (or ""), and the field list below; then the
+ *            header's CRC32
+ *   varint   field count, then per field: string name, byte encoding
+ *   varint   ticket count, then per ticket: varint ticket number
+ *   per field, in order:
+ *     DICTIONARY: varint value count, the values as strings, then per ticket a varint code
+ *                 (0 if the ticket lacks the field, otherwise 1 + the value's index)
+ *     TEXT:       per ticket a varint (0 if the ticket lacks the field, otherwise 1 + the length
+ *                 in bytes) followed by that many bytes of UTF-8
+ *     BLOB:       (version 2) per ticket a varint (0 if the ticket lacks the field, otherwise
+ *                 1 + (the length in bytes &lt;&lt; 1 | 1 if the text is ASCII)), then all the
+ *                 tickets' UTF-8 bytes
+ *   int      (version 3) per field, the offset of its column from the start; then the offset of
+ *            these offsets
+ *   int      (version 4) CRC32 of everything after the header
+ *   string = varint length in bytes, then UTF-8
+ * </pre>
+ * Fields whose values mostly repeat (status, owner, milestone...) are dictionary-coded; long
+ * values (descriptions) are stored as blobs; the rest (summaries...) are stored as text.
+ * <p>
+ * A file is read through a memory mapping, and blobs are left there as {@link MappedText}: the
+ * lengths at the start of a blob column are enough to locate each value, so the pages holding
+ * the text itself are only read if the value is.
+ * <p>
+ * A file may instead be compressed ({@link #writeCompressed}), when it starts with
+ * COMPRESSED_MAGIC; files are recognised by their first four bytes, so either kind is read.
+ * <p>
+ * The header says which site's tickets a file holds, and how many, without reading the rest of
+ * it ({@link #readHeader(Path)}); the checksums are verified when the whole file is read.
+ * <p>
+ * The column offsets let large files be loaded in parallel: each column is decoded on its own
+ * thread, then the values are put into the tickets, a range of tickets per thread.
+ */
+final class BinaryTicketCache {
+
+    static final int MAGIC = 0x54494342; // "TICB"
+    static final int VERSION = 4;
+
+    /** Starts a compressed file: then a byte saying how, the data, and its uncompressed length. */
+    static final int COMPRESSED_MAGIC = 0x5449435A; // "TICZ"
+    private static final byte DEFLATE = 1;
+
+    /**
+     * Version 1 files are the same, but without blobs; version 2 lacks the column offsets; version
+     * 3 lacks the header and checksums.
+     */
+    private static final int OLDEST_READABLE_VERSION = 1;
+
+    /** Fewer tickets than this load faster than the threads to load them in parallel start. */
+    private static final int PARALLEL_THRESHOLD = 2000;
+
+    private static final int THREADS = Math.min(8, Runtime.getRuntime().availableProcessors());
+
+    private static final ThreadFactory THREAD_FACTORY = r -> {
+        Thread thread = new Thread(r, "Cache loader");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    private static final byte DICTIONARY = 0;
+    private static final byte TEXT = 1;
+    private static final byte BLOB = 2;
+
+    /** The average length (in chars) of a field's values above which they are stored as blobs. */
+    private static final int MIN_AVERAGE_BLOB_LENGTH = 256;
+
+    /** Far more than the list of any site's fields needs. */
+    private static final int MAX_HEADER_LENGTH = 1 << 20;
+
+    /** What a file holds, as recorded at its start. */
+    static final class Header {
+        final int version;
+
+        /** The site whose tickets these are, or "" if not known (or before version 4). */
+        final String siteUrl;
+
+        /** The number of tickets, or -1 if not known (before version 4). */
+        final int ticketCount;
+
+        /** The latest of the tickets' change times, or "" if not known. */
+        final String latestChangeTime;
+
+        /** The fields (in order), or empty if not known (before version 4). */
+        final List<String> fields;
+
+        private final byte[] encodings;
+
+        private Header(int version, String siteUrl, int ticketCount, String latestChangeTime,
+                String[] fields, byte[] encodings) {
+            this.version = version;
+            this.siteUrl = siteUrl;
+            this.ticketCount = ticketCount;
+            this.latestChangeTime = latestChangeTime;
+            this.fields = Collections.unmodifiableList(Arrays.asList(fields));
+            this.encodings = encodings;
+        }
+    }
+
+    private BinaryTicketCache() {
+    }
+
+    /** Writes tickets without saying where they are from, such as for the journal. */
+    static void write(OutputStream stream, Collection<String> fields, List<Ticket> tickets)
+            throws IOException {
+        write(stream, "", "", fields, tickets);
+    }
+
+    /**
+     * @param siteUrl the site whose tickets these are
+     * @param latestChangeTime the latest of the tickets' change times, or "" if not known
+     */
+    static void write(OutputStream stream, String siteUrl, String latestChangeTime,
+            Collection<String> fields, List<Ticket> tickets) throws IOException {
+        writeData(new BufferedOutputStream(stream, 1 << 16), siteUrl, latestChangeTime, fields,
+            tickets);
+    }
+
+    /**
+     * Writes the data compressed, which for a cache of descriptions is several times smaller, to
+     * suit app data folders on network drives (such as roaming profiles). The file is inflated
+     * into memory outside the Java heap when read, rather than mapped.
+     */
+    static void writeCompressed(OutputStream stream, String siteUrl, String latestChangeTime,
+            Collection<String> fields, List<Ticket> tickets) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        out.writeInt(COMPRESSED_MAGIC);
+        out.writeByte(DEFLATE);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            DeflaterOutputStream compressor = new DeflaterOutputStream(out, deflater, 1 << 16) {
+                @Override
+                public void close() throws IOException {
+                    finish(); // But leave 'out' open, for the trailer
+                }
+            };
+            int length = writeData(new BufferedOutputStream(compressor, 1 << 16), siteUrl,
+                latestChangeTime, fields, tickets);
+            compressor.close();
+            out.writeInt(length);
+            out.flush();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /** @return the number of bytes written */
+    private static int writeData(OutputStream stream, String siteUrl, String latestChangeTime,
+            Collection<String> fields, List<Ticket> tickets) throws IOException {
+        CRC32 checksum = new CRC32();
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(stream, checksum));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        List<CharSequence[]> columns = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            CharSequence[] values = new CharSequence[tickets.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = tickets.get(i).getRawValue(field);
+            }
+            columns.add(values);
+        }
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        writeString(header, siteUrl);
+        writeVarInt(header, tickets.size());
+        writeString(header, latestChangeTime);
+        writeVarInt(header, fields.size());
+        byte[] encodings = new byte[fields.size()];
+        int f = 0;
+        for (String field : fields) {
+            encodings[f] = chooseEncoding(columns.get(f));
+            writeString(header, field);
+            header.writeByte(encodings[f++]);
+        }
+        out.writeInt(headerBytes.size());
+        headerBytes.writeTo(out);
+        checksum.reset();
+        checksum.update(headerBytes.toByteArray());
+        out.writeInt((int) checksum.getValue());
+        checksum.reset();
+
+        writeVarInt(out, tickets.size());
+        for (Ticket ticket : tickets) {
+            writeVarInt(out, ticket.getNumber());
+        }
+
+        int[] offsets = new int[encodings.length];
+        for (f = 0; f < encodings.length; f++) {
+            offsets[f] = out.size();
+            if (encodings[f] == DICTIONARY) {
+                writeDictionaryColumn(out, columns.get(f));
+            } else if (encodings[f] == BLOB) {
+                writeBlobColumn(out, columns.get(f));
+            } else {
+                writeTextColumn(out, columns.get(f));
+            }
+        }
+        int table = out.size();
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        out.writeInt(table);
+        out.writeInt((int) checksum.getValue());
+        out.flush();
+        return out.size();
+    }
+
+    /**
+     * Dictionary-coded if at most half of the values present are distinct, otherwise a blob if
+     * they are long on average.
+     */
+    private static byte chooseEncoding(CharSequence[] values) {
+        Map<String, Boolean> distinct = new HashMap<>();
+        int present = 0;
+        int distinctLong = 0;
+        long totalLength = 0;
+        for (CharSequence value : values) {
+            if (value instanceof MappedText) {
+                // Only long values are mapped (or encoded); no need to decode them to count them.
+                ++present;
+                ++distinctLong;
+                totalLength += ((MappedText) value).getByteLength();
+            } else if (value != null) {
+                ++present;
+                totalLength += value.length();
+                distinct.put(value.toString(), Boolean.TRUE);
+            }
+        }
+        if ((distinct.size() + distinctLong) * 2 <= present) {
+            return DICTIONARY;
+        }
+        return totalLength >= (long) present * MIN_AVERAGE_BLOB_LENGTH ? BLOB : TEXT;
+    }
+
+    private static void writeDictionaryColumn(DataOutputStream out, CharSequence[] values)
+            throws IOException {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] rowCodes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                String value = values[i].toString();
+                Integer code = codes.get(value);
+                if (code == null) {
+                    code = dictionary.size() + 1;
+                    codes.put(value, code);
+                    dictionary.add(value);
+                }
+                rowCodes[i] = code;
+            }
+        }
+        writeVarInt(out, dictionary.size());
+        for (String value : dictionary) {
+            writeString(out, value);
+        }
+        for (int code : rowCodes) {
+            writeVarInt(out, code);
+        }
+    }
+
+    private static void writeTextColumn(DataOutputStream out, CharSequence[] values)
+            throws IOException {
+        for (CharSequence value : values) {
+            if (value == null) {
+                writeVarInt(out, 0);
+            } else {
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length + 1);
+                out.write(bytes);
+            }
+        }
+    }
+
+    /** Mapped values are copied across as bytes, without being decoded. */
+    private static void writeBlobColumn(DataOutputStream out, CharSequence[] values)
+            throws IOException {
+        byte[][] encoded = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            CharSequence value = values[i];
+            if (value == null) {
+                writeVarInt(out, 0);
+            } else if (value instanceof MappedText) {
+                MappedText text = (MappedText) value;
+                writeVarInt(out, 1 + (text.getByteLength() << 1 | (text.isAscii() ? 1 : 0)));
+            } else {
+                encoded[i] = value.toString().getBytes(StandardCharsets.UTF_8);
+                boolean ascii = encoded[i].length == value.length();
+                writeVarInt(out, 1 + (encoded[i].length << 1 | (ascii ? 1 : 0)));
+            }
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (encoded[i] != null) {
+                out.write(encoded[i]);
+            } else if (values[i] != null) {
+                ((MappedText) values[i]).writeTo(out);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Maps the file, rather than reading it, so that blobs can be left in it. NB: the mapping lasts
+     * until the tickets are garbage collected, and until then Windows won't replace the file.
+     * A compressed file is inflated into a direct buffer instead, also outside the Java heap.
+     */
+    static TicketProvider read(Path file) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(5);
+            channel.read(header, 0);
+            if (header.position() == header.capacity() && header.getInt(0) == COMPRESSED_MAGIC) {
+                return read(inflate(channel, header.get(4)));
+            }
+            return read(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static ByteBuffer inflate(FileChannel channel, byte codec)
+            throws IOException, InterruptedException {
+        if (codec != DEFLATE) {
+            throw new IOException("Unsupported compression of binary cache: " + codec);
+        }
+        long compressedLength = channel.size() - 9;
+        ByteBuffer trailer = ByteBuffer.allocate(4);
+        channel.read(trailer, channel.size() - 4);
+        int length = trailer.getInt(0);
+
+        // Deflate can't shrink data more than about 1000 times; anything more is corrupt.
+        if (compressedLength <= 0 || length < 0 || length > compressedLength * 1100) {
+            throw new IOException("Corrupt compressed binary cache");
+        }
+        ByteBuffer result = ByteBuffer.allocateDirect(length);
+        Inflater inflater = new Inflater();
+        try (InputStream in = new InflaterInputStream(
+                Channels.newInputStream(channel.position(5)), inflater, 1 << 16)) {
+            byte[] chunk = new byte[1 << 16];
+            for (int count; (count = in.read(chunk)) > 0; ) {
+                if (count > result.remaining()) {
+                    throw new IOException("Corrupt compressed binary cache: too long");
+                }
+                result.put(chunk, 0, count);
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Corrupt compressed binary cache: truncated", e);
+        } finally {
+            inflater.end();
+        }
+        if (result.hasRemaining()) {
+            throw new IOException("Corrupt compressed binary cache: too short");
+        }
+        result.flip();
+        return result;
+    }
+
+    /** @throws IOException if the data is not in this format (or version), or is truncated. */
+    static TicketProvider read(ByteBuffer in) throws IOException, InterruptedException {
+        return read(in, THREADS);
+    }
+
+    static TicketProvider read(ByteBuffer in, int threads)
+            throws IOException, InterruptedException {
+        in = in.slice(); // Offsets are from the start of the data
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a binary ticket cache");
+            }
+            int version = checkVersion(in.getInt());
+            Header header = readHeader(in, version);
+            String[] fields = header.fields.toArray(new String[0]);
+            byte[] encodings = header.encodings;
+            int fieldCount = fields.length;
+            if (version >= 4) {
+                int end = in.limit() - 4;
+                ByteBuffer data = in.duplicate();
+                data.limit(end);
+                CRC32 checksum = new CRC32();
+                checksum.update(data);
+                if ((int) checksum.getValue() != in.getInt(end)) {
+                    throw new IOException("Corrupt binary cache: bad checksum");
+                }
+                in.limit(end);
+            }
+
+            int ticketCount = readCount(in);
+            if (version >= 4 && ticketCount != header.ticketCount) {
+                throw new IOException("Corrupt binary cache: header says "
+                    + header.ticketCount + " tickets, but there are " + ticketCount);
+            }
+            List<Ticket> tickets = new ArrayList<>(ticketCount);
+            for (int i = 0; i < ticketCount; i++) {
+                tickets.add(new Ticket(readVarInt(in)));
+            }
+
+            CharSequence[][] columns = new CharSequence[fieldCount][];
+            int[] offsets = version >= 3 ? readTrailer(in, fieldCount) : null;
+            if (offsets != null && ticketCount >= PARALLEL_THRESHOLD && threads > 1) {
+                readInParallel(in, offsets, fields, encodings, columns, tickets, threads);
+            } else {
+                for (int f = 0; f < fieldCount; f++) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                    if (offsets != null && offsets[f] != in.position()) {
+                        throw new IOException("Corrupt binary cache: misplaced field " + fields[f]);
+                    }
+                    columns[f] = readColumn(in, fields[f], encodings[f], ticketCount);
+                }
+                putFields(tickets, fields, columns, 0, ticketCount);
+            }
+            return () -> tickets;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt binary cache", e);
+        }
+    }
+
+    /**
+     * Reads just the header (inflating just the start of a compressed file), for checking a file
+     * without reading all of it. Files from before version 4 have no header, so all that is known
+     * of them is their version.
+     *
+     * @throws IOException if the file is not in this format (or version), or the header is corrupt
+     */
+    static Header readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer start = ByteBuffer.allocate(5);
+            channel.read(start, 0);
+            boolean compressed = start.position() == start.capacity()
+                && start.getInt(0) == COMPRESSED_MAGIC;
+            if (compressed && start.get(4) != DEFLATE) {
+                throw new IOException("Unsupported compression of binary cache: " + start.get(4));
+            }
+            Inflater inflater = new Inflater();
+            try {
+                InputStream stream = compressed
+                    ? new InflaterInputStream(Channels.newInputStream(channel.position(5)), inflater)
+                    : Channels.newInputStream(channel.position(0));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 8192));
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Not a binary ticket cache");
+                }
+                int version = checkVersion(in.readInt());
+                if (version < 4) {
+                    return new Header(version, "", -1, "", new String[0], new byte[0]);
+                }
+                int length = in.readInt();
+                if (length < 0 || length > MAX_HEADER_LENGTH) {
+                    throw new IOException("Corrupt binary cache: bad header length " + length);
+                }
+                ByteBuffer header = ByteBuffer.allocate(length + 8);
+                header.putInt(length);
+                in.readFully(header.array(), 4, length + 4);
+                header.rewind();
+                return readHeader(header, version);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Corrupt binary cache header", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    private static int checkVersion(int version) throws IOException {
+        if (version < OLDEST_READABLE_VERSION || version > VERSION) {
+            throw new IOException("Unsupported binary cache version: " + version);
+        }
+        return version;
+    }
+
+    /** Reads the header (or, before version 4, just the field list) that follows the version. */
+    private static Header readHeader(ByteBuffer in, int version) throws IOException {
+        ByteBuffer header = in;
+        String siteUrl = "";
+        int ticketCount = -1;
+        String latestChangeTime = "";
+        if (version >= 4) {
+            int length = in.getInt();
+            if (length < 0 || length > in.remaining() - 4) {
+                throw new IOException("Corrupt binary cache: bad header length " + length);
+            }
+            header = in.slice();
+            header.limit(length);
+            in.position(in.position() + length);
+            CRC32 checksum = new CRC32();
+            checksum.update(header.duplicate());
+            if ((int) checksum.getValue() != in.getInt()) {
+                throw new IOException("Corrupt binary cache: bad header checksum");
+            }
+            siteUrl = readString(header);
+            ticketCount = readVarInt(header);
+            if (ticketCount < 0) {
+                throw new IOException("Corrupt binary cache: bad ticket count " + ticketCount);
+            }
+            latestChangeTime = readString(header);
+        }
+        int fieldCount = readCount(header);
+        String[] fields = new String[fieldCount];
+        byte[] encodings = new byte[fieldCount];
+        for (int f = 0; f < fieldCount; f++) {
+            fields[f] = readString(header).intern();
+            encodings[f] = header.get();
+        }
+        return new Header(version, siteUrl, ticketCount, latestChangeTime, fields, encodings);
+    }
+
+    /**
+     * Decodes the columns on a pool of threads, each from its offset in the trailer, then puts
+     * them into the tickets, each thread taking a range of tickets.
+     */
+    private static void readInParallel(ByteBuffer in, int[] offsets, String[] fields,
+            byte[] encodings, CharSequence[][] columns, List<Ticket> tickets, int threads)
+            throws IOException, InterruptedException {
+        int ticketCount = tickets.size();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, THREAD_FACTORY);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int f = 0; f < fields.length; f++) {
+                int column = f;
+                ByteBuffer columnData = in.duplicate();
+                columnData.position(offsets[f]);
+                futures.add(pool.submit(() -> {
+                    columns[column] =
+                        readColumn(columnData, fields[column], encodings[column], ticketCount);
+                    return null;
+                }));
+            }
+            awaitAll(futures);
+
+            futures.clear();
+            int sliceSize = (ticketCount + threads * 4 - 1) / (threads * 4);
+            for (int from = 0; from < ticketCount; from += sliceSize) {
+                int first = from;
+                int last = Math.min(from + sliceSize, ticketCount);
+                futures.add(pool.submit(() -> putFields(tickets, fields, columns, first, last)));
+            }
+            awaitAll(futures);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static int[] readTrailer(ByteBuffer in, int fieldCount) {
+        int table = in.getInt(in.limit() - 4);
+        if (table < in.position() || table > in.limit() - 4 - fieldCount * 4) {
+            throw new IllegalArgumentException("Bad column table offset: " + table);
+        }
+        int[] offsets = new int[fieldCount];
+        for (int f = 0; f < fieldCount; f++) {
+            offsets[f] = in.getInt(table + f * 4);
+            if (offsets[f] < in.position() || offsets[f] > table) {
+                throw new IllegalArgumentException("Bad column offset: " + offsets[f]);
+            }
+        }
+        return offsets;
+    }
+
+    private static void awaitAll(List<Future<?>> futures)
+            throws IOException, InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof BufferUnderflowException
+                        || cause instanceof IllegalArgumentException) {
+                    throw new IOException("Corrupt binary cache", cause);
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    private static void putFields(List<Ticket> tickets, String[] fields, CharSequence[][] columns,
+            int first, int last) {
+        for (int i = first; i < last; i++) {
+            Ticket ticket = tickets.get(i);
+            for (int f = 0; f < fields.length; f++) {
+                if (columns[f][i] != null) {
+                    ticket.putSharedField(fields[f], columns[f][i]);
+                }
+            }
+        }
+    }
+
+    private static CharSequence[] readColumn(ByteBuffer in, String field, byte encoding,
+            int ticketCount) throws IOException {
+        switch (encoding) {
+        case DICTIONARY:
+            return readDictionaryColumn(in, field, ticketCount);
+        case TEXT:
+            return readTextColumn(in, ticketCount);
+        case BLOB:
+            return readBlobColumn(in, field, ticketCount);
+        default:
+            throw new IOException("Unknown encoding of field " + field);
+        }
+    }
+
+    private static String[] readDictionaryColumn(ByteBuffer in, String field, int ticketCount)
+            throws IOException {
+        String[] dictionary = new String[readCount(in) + 1];
+        for (int i = 1; i < dictionary.length; i++) {
+            dictionary[i] = Ticket.maybeIntern(readString(in));
+        }
+        String[] values = new String[ticketCount];
+        for (int i = 0; i < ticketCount; i++) {
+            int code = readVarInt(in);
+            if (code < 0 || code >= dictionary.length) {
+                throw new IOException("Corrupt binary cache: bad code in field " + field);
+            }
+            values[i] = dictionary[code];
+        }
+        return values;
+    }
+
+    private static String[] readTextColumn(ByteBuffer in, int ticketCount) {
+        String[] values = new String[ticketCount];
+        for (int i = 0; i < ticketCount; i++) {
+            int length = readVarInt(in) - 1;
+            if (length >= 0) {
+                values[i] = readUtf8(in, length);
+            }
+        }
+        return values;
+    }
+
+    private static MappedText[] readBlobColumn(ByteBuffer in, String field, int ticketCount) {
+        int[] codes = new int[ticketCount];
+        long totalLength = 0;
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = readVarInt(in);
+            if (codes[i] < 0) {
+                throw new IllegalArgumentException("Bad blob length in field " + field);
+            }
+            if (codes[i] != 0) {
+                totalLength += (codes[i] - 1) >>> 1;
+            }
+        }
+        if (totalLength > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        MappedText[] values = new MappedText[ticketCount];
+        int offset = in.position();
+        for (int i = 0; i < codes.length; i++) {
+            int code = codes[i] - 1;
+            if (code >= 0) {
+                int length = code >>> 1;
+                values[i] = new MappedText(in, offset, length, (code & 1) != 0);
+                offset += length;
+            }
+        }
+        in.position(offset);
+        return values;
+    }
+
+    private static String readString(ByteBuffer in) {
+        return readUtf8(in, readVarInt(in));
+    }
+
+    private static String readUtf8(ByteBuffer in, int length) {
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String result;
+        if (in.hasArray()) {
+            result = new String(in.array(), in.arrayOffset() + in.position(), length,
+                    StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            result = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    /** A count of items that take at least one byte each, so can't exceed the bytes left. */
+    static int readCount(ByteBuffer in) {
+        int count = readVarInt(in);
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("Bad count: " + count);
+        }
+        return count;
+    }
+
+    static int readVarInt(ByteBuffer in) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+import com.github.tracinstant.app.data.TicketLoadTask.Update;
+
+/**
+ * A write-ahead log of the tickets downloaded (and removed) since the cache files were last
+ * written, so that they are kept even if the application doesn't exit cleanly, and so that
+ * exiting doesn't need to rewrite the whole cache. Loading the cache replays the journal on top
+ * of the cache files; once the journal grows past {@link #COMPACTION_THRESHOLD_BYTES} it is
+ * folded into new cache files in the background.
+ * <p>
+ * Each record is:
+ * <pre>
+ *   int      payload length, CRC32 of the payload
+ *   byte     TICKETS, then the tickets in the {@link BinaryTicketCache} format, or
+ *            REMOVED, then a varint count and that many varint ticket numbers
+ * </pre>
+ * Records are written by a single background thread, and forced to disk at most once every
+ * {@link #SYNC_DELAY_MILLIS}. A record that was only partly written (by a crash) ends the
+ * journal, and is cut off before the next record is appended.
+ * <p>
+ * The journal is memory-mapped to be read. (So on Windows, where a mapped file can't be deleted,
+ * it may outlive a compaction; the records already folded into the cache are then skipped when
+ * compacting again, and replaying them at startup does no harm.)
+ */
+final class CacheJournal {
+
+    static final String FILE_NAME = "SiteCache_Journal.bin";
+
+    static final long COMPACTION_THRESHOLD_BYTES = 8 << 20;
+    private static final long SYNC_DELAY_MILLIS = 1000;
+
+    private static final byte TICKETS = 1;
+    private static final byte REMOVED = 2;
+
+    /**
+     * Folds the journal into the cache files; called on the journal's thread, with the hidden
+     * fields as they were (on the event dispatch thread) when last appended or compacted.
+     */
+    interface Compactor {
+        void compact(List<Update> journal, Set<String> hiddenFields)
+            throws IOException, InterruptedException;
+    }
+
+    private final Path file;
+    private final long compactionThreshold;
+    private final Compactor compactor;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        r -> {
+            Thread thread = new Thread(r, "Cache journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    /** The hidden fields for a compaction that is queued, if any. */
+    private final AtomicReference<Set<String>> pendingCompaction = new AtomicReference<>();
+
+    // These are only used on the executor's thread.
+    private FileChannel channel = null;
+    private boolean syncScheduled = false;
+    private Set<String> hiddenFields = Collections.emptySet();
+
+    /** How much of the file is already in the cache files, if it couldn't then be deleted. */
+    private long compactedLength = 0;
+
+    CacheJournal(Path file, Compactor compactor) {
+        this(file, COMPACTION_THRESHOLD_BYTES, compactor);
+    }
+
+    CacheJournal(Path file, long compactionThreshold, Compactor compactor) {
+        this.file = file;
+        this.compactionThreshold = compactionThreshold;
+        this.compactor = compactor;
+    }
+
+    /**
+     * Queues the tickets or removals of an update (and ignores status messages). The tickets are
+     * encoded in the background, so must not be modified afterwards. (The table model merges
+     * copies of them.)
+     *
+     * @param hiddenFields the fields to save in the hidden-fields cache file, which the caller
+     *     must not modify afterwards
+     */
+    void append(Update update, Set<String> hiddenFields) {
+        if (update.ticketProvider != null) {
+            List<Ticket> tickets = update.ticketProvider.getTickets();
+            executor.execute(() -> {
+                this.hiddenFields = hiddenFields;
+                write(encodeTickets(tickets));
+            });
+        } else if (update.removedTicketIds != null) {
+            Set<Integer> removed = update.removedTicketIds;
+            executor.execute(() -> {
+                this.hiddenFields = hiddenFields;
+                write(encodeRemoved(removed));
+            });
+        }
+    }
+
+    /**
+     * Queues folding the journal into new cache files, even if it is short (or empty, which
+     * rewrites the cache files in the format now chosen). Asking again before it runs just
+     * updates the hidden fields to use.
+     */
+    void compact(Set<String> hiddenFields) {
+        if (pendingCompaction.getAndSet(hiddenFields) == null) {
+            executor.execute(() -> {
+                this.hiddenFields = pendingCompaction.getAndSet(null);
+                compact();
+            });
+        }
+    }
+
+    /** Runs an action on the journal's thread, once the records queued before it are written. */
+    void afterQueued(Runnable action) {
+        executor.execute(action);
+    }
+
+    /** Writes any queued records and forces them to disk. */
+    void flush() {
+        runAndWait(this::sync);
+    }
+
+    /** Discards the journal, having stopped using it (such as because the cache was deleted). */
+    void delete() {
+        runAndWait(() -> {
+            closeChannel();
+            deleteFile();
+        });
+    }
+
+    /** Flushes the journal, after which it can't be used. */
+    void close() {
+        runAndWait(() -> {
+            sync();
+            closeChannel();
+        });
+        executor.shutdown();
+    }
+
+    private void runAndWait(Runnable runnable) {
+        try {
+            executor.submit(runnable).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static byte[] encodeTickets(List<Ticket> tickets) {
+        Set<String> fields = new TreeSet<>();
+        for (Ticket ticket : tickets) {
+            fields.addAll(ticket.getFieldNames());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            bytes.write(TICKETS);
+            BinaryTicketCache.write(bytes, fields, tickets);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Not from a ByteArrayOutputStream
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeRemoved(Set<Integer> removed) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(REMOVED);
+            BinaryTicketCache.writeVarInt(out, removed.size());
+            for (int id : removed) {
+                BinaryTicketCache.writeVarInt(out, id);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void write(byte[] payload) {
+        try {
+            if (channel == null) {
+                Files.createDirectories(file.getParent());
+                channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.READ);
+                channel.truncate(findValidLength(channel));
+                channel.position(channel.size());
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (!syncScheduled) {
+                syncScheduled = true;
+                executor.schedule(this::sync, SYNC_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            if (channel.size() - compactedLength > compactionThreshold) {
+                compact();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void sync() {
+        syncScheduled = false;
+        try {
+            if (channel != null) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes new cache files and then deletes the journal. (A crash in between leaves the journal
+     * to be replayed again, which does no harm.)
+     */
+    private void compact() {
+        try {
+            long t0 = System.nanoTime();
+            sync();
+            List<Update> journal = read(file, compactedLength);
+            compactor.compact(journal, hiddenFields);
+            long length = channel != null ? channel.size() : 0;
+            closeChannel();
+            compactedLength = deleteFile() ? 0 : Math.max(length, compactedLength);
+            System.out.format("Compacted %d journal records into the cache in %.0f ms%n",
+                journal.size(), (System.nanoTime() - t0) / 1e6);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+    }
+
+    /** @return whether the file is gone */
+    private boolean deleteFile() {
+        try {
+            Files.deleteIfExists(file);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace(); // (Such as on Windows, if it is still mapped)
+            return false;
+        }
+    }
+
+    /**
+     * Reads the journal's records, in order, up to the end or to a record that was not completely
+     * written. Long values of the tickets are left in the mapped file.
+     */
+    static List<Update> read(Path file) throws IOException, InterruptedException {
+        return read(file, 0);
+    }
+
+    /** Reads the records from the given offset, which is the start of a record. */
+    private static List<Update> read(Path file, long start)
+            throws IOException, InterruptedException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = map(channel);
+        } catch (NoSuchFileException e) {
+            return Collections.emptyList();
+        }
+        in.position((int) Math.min(start, in.limit()));
+        List<Update> result = new ArrayList<>();
+        for (ByteBuffer payload; (payload = nextPayload(in)) != null; ) {
+            if (payload.get() == TICKETS) {
+                result.add(new Update(BinaryTicketCache.read(payload)));
+            } else {
+                try {
+                    int count = BinaryTicketCache.readCount(payload);
+                    Set<Integer> removed = new LinkedHashSet<>();
+                    for (int i = 0; i < count; i++) {
+                        removed.add(BinaryTicketCache.readVarInt(payload));
+                    }
+                    result.add(new Update(removed));
+                } catch (RuntimeException e) {
+                    throw new IOException("Corrupt journal record", e);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static ByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal too large to read: " + size + " bytes");
+        }
+        return channel.map(MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * @return the length of the complete records. (Read through a small buffer, rather than
+     *     mapped, since the file may be about to be truncated.)
+     */
+    private static long findValidLength(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        long position = 0;
+        while (size - position >= 8) {
+            buffer.clear().limit(8);
+            readFully(channel, buffer, position);
+            int length = buffer.getInt(0);
+            int checksum = buffer.getInt(4);
+            if (length <= 0 || length > size - position - 8) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            for (long offset = position + 8; offset < position + 8 + length; ) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(),
+                    position + 8 + length - offset));
+                readFully(channel, buffer, offset);
+                offset += buffer.limit();
+                buffer.flip();
+                crc.update(buffer);
+            }
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            position += 8 + length;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Journal ended early");
+            }
+        }
+    }
+
+    /** @return the next complete record's payload, or null (leaving the position unchanged). */
+    private static ByteBuffer nextPayload(ByteBuffer in) {
+        if (in.remaining() < 8) {
+            return null;
+        }
+        int start = in.position();
+        int length = in.getInt(start);
+        int checksum = in.getInt(start + 4);
+        if (length <= 0 || length > in.remaining() - 8) {
+            return null;
+        }
+        ByteBuffer payload = in.duplicate();
+        payload.position(start + 8).limit(start + 8 + length);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        in.position(start + 8 + length);
+        return payload.slice();
+    }
+}
@@ -18,29 +18,155 @@
 package com.github.tracinstant.app.data;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javax.swing.SwingUtilities;
 
 public class CachedTicketLoadTask extends TicketLoadTask {
+
+    /**
+     * Marks the end of the tickets from the cache files, with their search index (if it is up to
+     * date) or what is needed to rebuild it. Handled by this task, not passed on as a status.
+     */
+    private static final class SearchIndexUpdate extends Update {
+        final TrigramIndex index;
+        final List<List<Ticket>> snapshot;
+        final long digest;
+
+        SearchIndexUpdate(TrigramIndex index, List<List<Ticket>> snapshot, long digest) {
+            this.index = index;
+            this.snapshot = snapshot;
+            this.digest = digest;
+        }
+    }
+
     public CachedTicketLoadTask(SiteData site) {
         super(site);
     }
 
     @Override
     protected List<String> doInBackground() throws IOException, InterruptedException {
-        TicketProvider provider;
+        TicketProvider tabular;
+        TicketProvider hidden;
+
+        // Read the descriptions meanwhile, but publish the table data first so it shows sooner.
+        FutureTask<TicketProvider> hiddenFields = new FutureTask<>(
+            () -> site.loadCachedTickets(SiteData.HIDDEN_FIELDS_CACHE_FILE));
+        Thread thread = new Thread(hiddenFields, "Cache loader");
+        thread.setDaemon(true);
+        thread.start();
+
+        try {
+            publish(new Update("Loading from cache...", "Loading table data from local cache."));
+            tabular = site.loadCachedTickets(SiteData.TABULAR_CACHE_FILE);
+            if (tabular != null) {
+                publish(new Update(tabular));
+            }
 
-        publish(new Update("Loading from cache...", "Loading table data from local cache."));
-        provider = SiteData.loadTicketData(SiteData.TABULAR_CACHE_FILE);
-        publish(new Update(provider));
+            publish(new Update("Loading from cache...", "Loading descriptions from local cache."));
+            hidden = hiddenFields.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            hiddenFields.cancel(true);
+        }
+        List<String> modifiedDates = new ArrayList<>();
+        if (hidden != null) {
+            publish(new Update(hidden));
+            modifiedDates.addAll(extractModificationDates(hidden.getTickets()));
+        }
 
-        publish(new Update("Loading from cache...", "Loading descriptions from local cache."));
-        provider = SiteData.loadTicketData(SiteData.HIDDEN_FIELDS_CACHE_FILE);
-        publish(new Update(provider));
+        List<List<Ticket>> snapshot = new ArrayList<>();
+        long digest = 0;
+        for (TicketProvider provider : new TicketProvider[] { tabular, hidden }) {
+            if (provider != null) {
+                snapshot.add(provider.getTickets());
+                digest += TrigramIndex.digest(provider.getTickets(), null);
+            }
+        }
+        publish(new SearchIndexUpdate(site.loadSearchIndex(digest), snapshot, digest));
 
-        List<String> modifiedDates = extractModificationDates(provider.getTickets());
+        // Then the tickets downloaded since the cache files were written.
+        List<Update> journal = site.loadJournal();
+        if (!journal.isEmpty()) {
+            publish(new Update("Loading from cache...", "Loading recent changes from local cache."));
+        }
+        for (Update update : journal) {
+            publish(update);
+            if (update.ticketProvider != null) {
+                modifiedDates.addAll(extractModificationDates(update.ticketProvider.getTickets()));
+            }
+        }
 
         // All data for external consumption has been passed out via the publish/process mechanism.
         // Here we return just the timestamps to update the 'last-modified' record in SiteData.
         return modifiedDates;
     }
+
+    @Override
+    protected void process(List<Update> chunks) {
+        int start = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            if (chunks.get(i) instanceof SearchIndexUpdate) {
+                super.process(chunks.subList(start, i));
+                if (!isCancelled()) {
+                    useSearchIndex((SearchIndexUpdate) chunks.get(i));
+                }
+                start = i + 1;
+            }
+        }
+        super.process(chunks.subList(start, chunks.size()));
+    }
+
+    /**
+     * Called once the cached tickets are in the table model, to use their search index, or to
+     * rebuild it in the background if it is missing or out of date.
+     */
+    private void useSearchIndex(SearchIndexUpdate update) {
+        TicketTableModel model = site.getTableModel();
+        int generation = model.trackChangesForSearchIndex();
+        if (update.index != null) {
+            model.setSearchIndex(update.index, generation);
+        } else if (!update.snapshot.isEmpty()) {
+            Path dir = SiteData.getSiteDataDir(site.getSiteUrl());
+            Thread indexer = new Thread(() -> {
+                try {
+                    TrigramIndex index = buildSearchIndex(dir, update.snapshot, update.digest);
+                    if (index != null) {
+                        SwingUtilities.invokeLater(() -> model.setSearchIndex(index, generation));
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }, "Search indexer");
+            indexer.setDaemon(true);
+            indexer.setPriority(Thread.MIN_PRIORITY);
+            indexer.start();
+        }
+    }
+
+    private static TrigramIndex buildSearchIndex(Path dir, List<List<Ticket>> snapshot,
+            long digest) throws IOException {
+        long t0 = System.nanoTime();
+        Map<Integer, Ticket> tickets = new TreeMap<>();
+        Set<String> fields = new TreeSet<>();
+        for (List<Ticket> list : snapshot) {
+            TicketTableModel.mergeIntoMap(tickets, list, fields);
+        }
+        SiteData.saveSearchIndex(dir, tickets.values(), fields, digest);
+        TrigramIndex index = dir == null ? null
+            : TrigramIndex.read(dir.resolve(TrigramIndex.FILE_NAME), digest);
+        System.out.format("Indexed %d cached tickets for searching in %.0f ms%n",
+            tickets.size(), (System.nanoTime() - t0) / 1e6);
+        return index;
+    }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A long field value (such as a description) left as UTF-8 in the memory-mapped cache file,
+ * so that it only costs heap space while it is being looked at. {@link #toString()} decodes it,
+ * keeping the most recently decoded values in a small cache.
+ * <p>
+ * When the text is pure ASCII (as most HTML is) the characters are read straight from the
+ * mapped bytes, so searching doesn't need to decode it at all.
+ * <p>
+ * Long values set on tickets otherwise (such as when downloaded) are {@link #encode encoded}
+ * the same way into byte arrays, on Java 8, which would store them as twice as many bytes.
+ */
+final class MappedText implements CharSequence {
+
+    private static final int DECODED_CACHE_SIZE = 64;
+
+    /** Before Java 9's "compact strings", every String stores two bytes per character. */
+    static final boolean STRINGS_ARE_UTF16 =
+        System.getProperty("java.specification.version", "").startsWith("1.");
+
+    // @GuardedBy("s_Decoded")
+    private static final Map<MappedText, String> s_Decoded =
+        new LinkedHashMap<MappedText, String>(DECODED_CACHE_SIZE * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MappedText, String> eldest) {
+                return size() > DECODED_CACHE_SIZE;
+            }
+        };
+
+    /** Shared between all values from one file, so must only be read with absolute gets. */
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int byteLength;
+    private final boolean ascii;
+
+    MappedText(ByteBuffer buffer, int offset, int byteLength, boolean ascii) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.byteLength = byteLength;
+        this.ascii = ascii;
+    }
+
+    /** @return the text as UTF-8, in a byte array of its own rather than in a file. */
+    static MappedText encode(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        boolean ascii = bytes.length == text.length();
+        return new MappedText(ByteBuffer.wrap(bytes), 0, bytes.length, ascii);
+    }
+
+    /** The region the bytes are in, to tell which file they are from; never read relatively. */
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    int getByteLength() {
+        return byteLength;
+    }
+
+    /** Whether the bytes are on the heap (having been encoded), rather than in a file. */
+    boolean isOnHeap() {
+        return !buffer.isDirect();
+    }
+
+    boolean isAscii() {
+        return ascii;
+    }
+
+    /**
+     * The text for reading through once: this, if the characters can be read from the mapped
+     * bytes, otherwise a decoded copy that (unlike {@link #toString()}) bypasses the cache, so
+     * that scanning every ticket doesn't evict the values being displayed.
+     */
+    CharSequence forScanning() {
+        if (ascii) {
+            return this;
+        }
+        String decoded;
+        synchronized (s_Decoded) {
+            decoded = s_Decoded.get(this);
+        }
+        return decoded != null ? decoded : decode();
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        byte[] chunk = new byte[Math.min(byteLength, 8192)];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        for (int remaining = byteLength; remaining > 0; remaining -= chunk.length) {
+            int count = Math.min(remaining, chunk.length);
+            source.get(chunk, 0, count);
+            out.write(chunk, 0, count);
+        }
+    }
+
+    byte[] getBytes() {
+        byte[] bytes = new byte[byteLength];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        source.get(bytes);
+        return bytes;
+    }
+
+    /** Adds the bytes to the CRC, without copying them out of the file. */
+    void addTo(CRC32 crc) {
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        source.limit(offset + byteLength);
+        crc.update(source);
+    }
+
+    private String decode() {
+        return new String(getBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        synchronized (s_Decoded) {
+            String decoded = s_Decoded.get(this);
+            if (decoded != null) {
+                return decoded;
+            }
+        }
+        String decoded = decode();
+        synchronized (s_Decoded) {
+            s_Decoded.put(this, decoded);
+        }
+        return decoded;
+    }
+
+    @Override
+    public int length() {
+        return ascii ? byteLength : toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (!ascii) {
+            return toString().charAt(index);
+        }
+        if (index < 0 || index >= byteLength) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + byteLength);
+        }
+        return (char) buffer.get(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (!ascii) {
+            return toString().subSequence(start, end);
+        }
+        if (start < 0 || end > byteLength || start > end) {
+            throw new IndexOutOfBoundsException(start + ".." + end + " of " + byteLength);
+        }
+        return new MappedText(buffer, offset + start, end - start, true);
+    }
+}
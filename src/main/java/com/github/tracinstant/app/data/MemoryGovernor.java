@@ -0,0 +1,389 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
+/**
+ * Keeps the long field values (descriptions, mostly) held on the heap within a budget, by moving
+ * the coldest to a temporary file: first those of closed tickets, then those of the tickets least
+ * recently viewed. A moved value becomes a {@link MappedText} of the file, as the descriptions of
+ * the binary cache are, so it is read back whenever it is displayed or searched.
+ * <p>
+ * Values loaded from a binary cache are mapped already, so this mainly concerns tickets
+ * downloaded since, or loaded from a tab-delimited cache (whether still Strings, or
+ * {@link MappedText#encode encoded} on the heap). The model is checked a couple of
+ * seconds after it last changed, and the file is written on a background thread.
+ * <p>
+ * Values are appended to one temporary file at a time. One that the tickets no longer use is
+ * deleted, as are all of them when the model is cleared. Once one is mostly unused, the values
+ * still in it are moved to a new file, so that it can be deleted too. (A file still mapped can't
+ * be deleted on Windows, so deleting is tried again each time another file is deleted.)
+ */
+final class MemoryGovernor implements TableModelListener {
+
+    /** Shorter values aren't worth moving: little is saved, and they are more often displayed. */
+    static final int MIN_SPILLED_LENGTH = 256;
+
+    /** The most (estimated heap) bytes moved at once; a later check moves any more. */
+    private static final long MAX_BYTES_PER_SPILL = 256 << 20;
+
+    private static final int CHECK_DELAY_MILLIS = 2000;
+
+    /** A file that is mostly unused is only rewritten once it is at least this long. */
+    private static final long MIN_COMPACTED_LENGTH = 4 << 20;
+
+    /** A value to move, identified by its ticket and field. */
+    static final class Spill {
+        final Ticket ticket;
+        final String field;
+        final CharSequence value;
+
+        Spill(Ticket ticket, String field, CharSequence value) {
+            this.ticket = ticket;
+            this.field = field;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A temporary file that values are moved to. It is created, written and deleted on the
+     * executor's thread, while its batches (each region mapped at once) are tracked on the EDT.
+     */
+    static final class SpillFile {
+        private Path path = null;
+        private FileChannel channel = null;
+        private long length = 0;
+    }
+
+    /** The values moved at once, in one mapped region of a spill file. */
+    static final class Batch {
+        final ByteBuffer mapped;
+        final List<MappedText> values;
+
+        Batch(ByteBuffer mapped, List<MappedText> values) {
+            this.mapped = mapped;
+            this.values = values;
+        }
+    }
+
+    private final TicketTableModel model;
+    private final long budgetBytes;
+    private final Timer timer;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Text spiller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // These are only used on the EDT.
+    private final List<SpillFile> spillFiles = new ArrayList<>();
+    private final Map<ByteBuffer, SpillFile> spillFileOfBatch = new IdentityHashMap<>();
+    private SpillFile currentFile = null;
+    private boolean spilling = false;
+
+    /** Files that couldn't be deleted yet; only used on the executor's thread. */
+    private final List<Path> undeletedFiles = new ArrayList<>();
+
+    /** @param budgetBytes the heap the long values may use; zero for no limit */
+    MemoryGovernor(TicketTableModel model, long budgetBytes) {
+        this.model = model;
+        this.budgetBytes = budgetBytes;
+        timer = new Timer(CHECK_DELAY_MILLIS, e -> check());
+        timer.setRepeats(false);
+    }
+
+    @Override
+    public void tableChanged(TableModelEvent e) {
+        if (model.getRowCount() == 0) {
+            discardSpillFiles();
+        }
+        if (budgetBytes > 0) {
+            timer.restart();
+        }
+    }
+
+    /** Deletes all the spill files, as there are no tickets left to use them. */
+    private void discardSpillFiles() {
+        for (SpillFile file : spillFiles) {
+            delete(file);
+        }
+        spillFiles.clear();
+        currentFile = null;
+    }
+
+    private void check() {
+        if (spilling) {
+            timer.restart();
+            return;
+        }
+        Ticket[] tickets = model.getTickets();
+        List<Spill> spills = new ArrayList<>(
+            chooseSpills(tickets, model.getViewedTicketNumbers(), budgetBytes));
+        spills.addAll(compactSpillFiles(tickets));
+        if (spills.isEmpty()) {
+            return;
+        }
+        if (currentFile == null) {
+            currentFile = new SpillFile();
+            spillFiles.add(currentFile);
+        }
+        SpillFile file = currentFile;
+        spilling = true;
+        executor.execute(() -> {
+            Batch moved = null;
+            try {
+                moved = spill(spills, file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            Batch result = moved;
+            SwingUtilities.invokeLater(() -> replaceValues(spills, file, result));
+        });
+    }
+
+    private void replaceValues(List<Spill> spills, SpillFile file, Batch moved) {
+        spilling = false;
+        if (moved == null) {
+            if (file == currentFile) {
+                currentFile = null; // Try another file next time
+            }
+            return;
+        }
+        if (!spillFiles.contains(file)) {
+            return; // Discarded meanwhile, with the tickets
+        }
+        spillFileOfBatch.put(moved.mapped, file);
+        file.length += moved.mapped.capacity();
+        for (int i = 0; i < spills.size(); i++) {
+            Spill spill = spills.get(i);
+
+            // Unless the ticket has been updated meanwhile
+            if (spill.ticket.getRawValue(spill.field) == spill.value) {
+                spill.ticket.replaceStorage(spill.field, moved.values.get(i));
+            }
+        }
+        timer.restart(); // In case there is more to move
+    }
+
+    /**
+     * Deletes the spill files that the tickets no longer use, and chooses the values to move out
+     * of those that they mostly don't, so that those can be deleted next time.
+     */
+    private List<Spill> compactSpillFiles(Ticket[] tickets) {
+        if (spillFiles.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<SpillFile, Long> usedBytes = new HashMap<>();
+        for (Ticket ticket : tickets) {
+            for (String field : ticket.getFieldNames()) {
+                CharSequence value = ticket.getRawValue(field);
+                SpillFile file = findSpillFile(value);
+                if (file != null) {
+                    usedBytes.merge(file, (long) ((MappedText) value).getByteLength(), Long::sum);
+                }
+            }
+        }
+
+        Set<SpillFile> compacted = new HashSet<>();
+        for (Iterator<SpillFile> it = spillFiles.iterator(); it.hasNext(); ) {
+            SpillFile file = it.next();
+            long used = usedBytes.getOrDefault(file, 0L);
+            if (used == 0 && (file != currentFile || file.length > 0)) {
+                it.remove();
+                delete(file);
+            } else if (file.length >= MIN_COMPACTED_LENGTH && used * 4 < file.length) {
+                compacted.add(file);
+            }
+        }
+        if (!spillFiles.contains(currentFile) || compacted.contains(currentFile)) {
+            currentFile = null;
+        }
+        if (compacted.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Spill> result = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            for (String field : ticket.getFieldNames()) {
+                CharSequence value = ticket.getRawValue(field);
+                if (compacted.contains(findSpillFile(value))) {
+                    result.add(new Spill(ticket, field, value));
+                }
+            }
+        }
+        return result;
+    }
+
+    private SpillFile findSpillFile(CharSequence value) {
+        if (!(value instanceof MappedText) || ((MappedText) value).isOnHeap()) {
+            return null;
+        }
+        return spillFileOfBatch.get(((MappedText) value).getBuffer());
+    }
+
+    /** Forgets the file's batches, then closes and deletes it in the background. */
+    private void delete(SpillFile file) {
+        spillFileOfBatch.values().removeIf(f -> f == file);
+        executor.execute(() -> {
+            if (file.channel != null) {
+                try {
+                    file.channel.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            if (file.path != null) {
+                undeletedFiles.add(file.path);
+            }
+            undeletedFiles.removeIf(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                    return true;
+                } catch (IOException e) {
+                    return false; // Still mapped, on Windows
+                }
+            });
+        });
+    }
+
+    /**
+     * Chooses the values to move so that those left on the heap use three quarters of the
+     * budget, or none if they are within it.
+     */
+    static List<Spill> chooseSpills(Ticket[] tickets, List<Integer> viewedTicketNumbers,
+            long budgetBytes) {
+        long resident = 0;
+        List<Ticket> candidates = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            long bytes = 0;
+            for (String field : ticket.getFieldNames()) {
+                bytes += estimateHeapBytes(ticket.getRawValue(field));
+            }
+            if (bytes > 0) {
+                candidates.add(ticket);
+                resident += bytes;
+            }
+        }
+        if (resident <= budgetBytes) {
+            return Collections.emptyList();
+        }
+
+        Map<Integer, Integer> viewOrder = new HashMap<>();
+        for (int i = 0; i < viewedTicketNumbers.size(); i++) {
+            viewOrder.put(viewedTicketNumbers.get(i), i);
+        }
+        candidates.sort(Comparator.comparing((Ticket t) -> !"closed".equals(t.getValue("status")))
+            .thenComparing(t -> viewOrder.getOrDefault(t.getNumber(), -1)));
+
+        long target = budgetBytes * 3 / 4;
+        long moved = 0;
+        List<Spill> result = new ArrayList<>();
+        for (Ticket ticket : candidates) {
+            if (resident - moved <= target || moved >= MAX_BYTES_PER_SPILL) {
+                break;
+            }
+            for (String field : ticket.getFieldNames()) {
+                CharSequence value = ticket.getRawValue(field);
+                long bytes = estimateHeapBytes(value);
+                if (bytes > 0) {
+                    result.add(new Spill(ticket, field, value));
+                    moved += bytes;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** @return the heap used by the value, if it is long enough to move, otherwise zero */
+    private static long estimateHeapBytes(CharSequence value) {
+        if (value instanceof MappedText) {
+            MappedText text = (MappedText) value;
+            return text.isOnHeap() && text.getByteLength() >= MIN_SPILLED_LENGTH
+                ? 100 + text.getByteLength() : 0;
+        }
+        if (value == null || value.length() < MIN_SPILLED_LENGTH) {
+            return 0;
+        }
+        return 40 + (MappedText.STRINGS_ARE_UTF16 ? 2L : 1L) * value.length();
+    }
+
+    /** Appends the values to the file, creating it if need be, and maps them. */
+    Batch spill(List<Spill> spills, SpillFile file) throws IOException {
+        if (file.channel == null) {
+            file.path = Files.createTempFile("TracInstant", ".spill");
+            file.path.toFile().deleteOnExit(); // (Not on Windows, while mapped)
+            file.channel =
+                FileChannel.open(file.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        FileChannel spillFile = file.channel;
+        long start = spillFile.size();
+        int[] lengths = new int[spills.size()];
+        boolean[] ascii = new boolean[spills.size()];
+        spillFile.position(start);
+        for (int i = 0; i < spills.size(); i++) {
+            CharSequence value = spills.get(i).value;
+            byte[] encoded;
+            if (value instanceof MappedText) {
+                encoded = ((MappedText) value).getBytes();
+                ascii[i] = ((MappedText) value).isAscii();
+            } else {
+                encoded = value.toString().getBytes(StandardCharsets.UTF_8);
+                ascii[i] = encoded.length == value.length();
+            }
+            lengths[i] = encoded.length;
+            ByteBuffer bytes = ByteBuffer.wrap(encoded);
+            while (bytes.hasRemaining()) {
+                spillFile.write(bytes);
+            }
+        }
+
+        ByteBuffer mapped = spillFile.map(MapMode.READ_ONLY, start, spillFile.size() - start);
+        List<MappedText> result = new ArrayList<>(spills.size());
+        int offset = 0;
+        for (int i = 0; i < spills.size(); i++) {
+            result.add(new MappedText(mapped, offset, lengths[i], ascii[i]));
+            offset += lengths[i];
+        }
+        return new Batch(mapped, result);
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the requests in flight to each Trac server, so that the background slurp, attachment
+ * counting and downloads do not gang up on it. The limit adapts to the server, AIMD-style: it
+ * creeps up while responses stay quick, and is cut back when they slow down or fail. Waiting
+ * requests are admitted by {@link Priority}, and one slot is always kept clear of background
+ * work, so that browsing stays responsive during a long slurp.
+ * <p>
+ * Latency is judged against a baseline for each priority, since (say) a page of a slurp takes
+ * far longer than listing a ticket's attachments. The limit is cut at most once per window of
+ * requests: only those admitted since the last cut can bring about another.
+ */
+public final class RequestGovernor {
+
+    public enum Priority {
+        /** Requests the user is waiting on, such as the attachments of the selected tickets. */
+        INTERACTIVE,
+        /** Downloads of files the user asked for. */
+        TRANSFER,
+        /** Bulk work, such as slurping pages of tickets. */
+        BACKGROUND
+    }
+
+    /** An admitted request. Call exactly one of the methods, once the outcome is known. */
+    public interface Permit {
+        /** The server responded normally, after the given time. */
+        void succeeded(long latencyNanos);
+
+        /** The request failed. Overload failures (timeouts, 503s...) reduce the limit. */
+        void failed(boolean overloaded);
+
+        /** The request is over, having already reported its outcome. Harmless to repeat. */
+        void release();
+    }
+
+    static final int INITIAL_LIMIT = 4;
+    /** One slot for background work, and one kept for interactive requests. */
+    static final int MIN_LIMIT = 2;
+    static final int MAX_LIMIT = 16;
+
+    /** Responses slower than this multiple of the baseline latency count as congestion. */
+    static final double LATENCY_TOLERANCE = 3.0;
+
+    private static final RequestGovernor s_Instance = new RequestGovernor();
+
+    private final Map<String, Host> m_Hosts = new HashMap<>();
+
+    RequestGovernor() {
+    }
+
+    public static RequestGovernor getInstance() {
+        return s_Instance;
+    }
+
+    /**
+     * Blocks until the host can take another request of the given priority.
+     *
+     * @throws InterruptedIOException if interrupted while waiting (as a cancelled slurp is).
+     */
+    public Permit acquire(String host, Priority priority) throws InterruptedIOException {
+        Host state;
+        synchronized (m_Hosts) {
+            state = m_Hosts.computeIfAbsent(host, h -> new Host());
+        }
+        return state.acquire(priority);
+    }
+
+    /** The current limit for the host, for tests and diagnostics. */
+    int getLimit(String host) {
+        synchronized (m_Hosts) {
+            Host state = m_Hosts.get(host);
+            return state == null ? INITIAL_LIMIT : state.getLimit();
+        }
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        final Priority priority;
+        final long sequence;
+
+        Waiter(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int cmp = priority.compareTo(other.priority);
+            return cmp != 0 ? cmp : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class Host {
+        private final PriorityQueue<Waiter> m_Waiting = new PriorityQueue<>();
+        private long m_NextSequence = 0;
+        private double m_Limit = INITIAL_LIMIT;
+        private int m_InFlight = 0;
+
+        /**
+         * Per priority, roughly the fastest recent response; drifts up slowly if the server gets
+         * slower.
+         */
+        private final long[] m_BaselineNanos = new long[Priority.values().length];
+
+        /** Counts the cuts to the limit; a permit from before the latest can't cut it again. */
+        private long m_Window = 0;
+
+        synchronized Permit acquire(Priority priority) throws InterruptedIOException {
+            Waiter waiter = new Waiter(priority, m_NextSequence++);
+            m_Waiting.add(waiter);
+            try {
+                while (m_Waiting.peek() != waiter || !hasRoomFor(priority)) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                m_Waiting.remove(waiter);
+                notifyAll();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting to send a request");
+            }
+            m_Waiting.remove();
+            ++m_InFlight;
+
+            // The next in line may fit too (say, if the limit has grown).
+            notifyAll();
+            return new HostPermit(priority, m_Window);
+        }
+
+        private boolean hasRoomFor(Priority priority) {
+            return m_InFlight < getLimitFor(priority);
+        }
+
+        /** The limit less the slot kept for interactive requests, unless this is one. */
+        private int getLimitFor(Priority priority) {
+            int limit = getLimit();
+            return priority == Priority.INTERACTIVE ? limit : limit - 1;
+        }
+
+        synchronized int getLimit() {
+            return (int) m_Limit;
+        }
+
+        synchronized void onSuccess(Priority priority, long window, long latencyNanos) {
+            int i = priority.ordinal();
+            if (m_BaselineNanos[i] == 0 || latencyNanos < m_BaselineNanos[i]) {
+                m_BaselineNanos[i] = latencyNanos;
+            } else {
+                m_BaselineNanos[i] += (latencyNanos - m_BaselineNanos[i]) / 64;
+            }
+            if (latencyNanos > LATENCY_TOLERANCE * m_BaselineNanos[i]
+                    && latencyNanos > TimeUnit.MILLISECONDS.toNanos(50)) {
+                decrease(window, 0.9);
+            } else if (m_InFlight >= getLimitFor(priority)) {
+                // Only grow while the limit (as far as this request could use it) is actually
+                // being used, by about one per round trip.
+                m_Limit = Math.min(MAX_LIMIT, m_Limit + 1.0 / m_Limit);
+            }
+        }
+
+        synchronized void onFailure(long window, boolean overloaded) {
+            if (overloaded) {
+                decrease(window, 0.5);
+            }
+        }
+
+        /** Cuts the limit, unless it has already been cut since the request was admitted. */
+        private void decrease(long window, double factor) {
+            if (window == m_Window) {
+                m_Limit = Math.max(MIN_LIMIT, m_Limit * factor);
+                ++m_Window;
+            }
+        }
+
+        synchronized void release() {
+            --m_InFlight;
+            notifyAll();
+        }
+
+        private final class HostPermit implements Permit {
+            private final Priority m_Priority;
+            private final long m_AdmittedWindow;
+            private boolean m_Reported = false;
+            private boolean m_Released = false;
+
+            HostPermit(Priority priority, long window) {
+                m_Priority = priority;
+                m_AdmittedWindow = window;
+            }
+
+            @Override
+            public void succeeded(long latencyNanos) {
+                synchronized (Host.this) {
+                    if (!m_Reported) {
+                        m_Reported = true;
+                        onSuccess(m_Priority, m_AdmittedWindow, latencyNanos);
+                    }
+                }
+            }
+
+            @Override
+            public void failed(boolean overloaded) {
+                synchronized (Host.this) {
+                    if (!m_Reported) {
+                        m_Reported = true;
+                        onFailure(m_AdmittedWindow, overloaded);
+                    }
+                    release();
+                }
+            }
+
+            @Override
+            public void release() {
+                synchronized (Host.this) {
+                    if (!m_Released) {
+                        m_Released = true;
+                        Host.this.release();
+                    }
+                }
+            }
+        }
+    }
+}
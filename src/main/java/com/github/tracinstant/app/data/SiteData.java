@@ -18,61 +18,379 @@
 package com.github.tracinstant.app.data;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
 
+import com.github.tracinstant.app.data.TicketLoadTask.Update;
 import com.github.tracinstant.app.prefs.TracInstantProperties;
 
+/**
+ * The tickets of the current site, and the files they are cached in. Each site has its own
+ * folder of cached data (under {@link #SITES_FOLDER} in the app data directory), so switching
+ * between sites keeps each one's tickets, date format and last-modified time.
+ */
 public class SiteData {
 
+    // The cache files, named for their tab-delimited form. Each may instead have a binary twin.
     static final String TABULAR_CACHE_FILE = "SiteCache_Tabular.txt";
     static final String HIDDEN_FIELDS_CACHE_FILE = "SiteCache_Hidden.txt";
+    private static final String BINARY_EXTENSION = ".bin";
+    private static final String PENDING_SUFFIX = ".pending";
+    static final String SITES_FOLDER = "Sites";
+
+    private static final String DATE_FORMAT_KEY = "SiteDateFormat";
 
     private final TicketTableModel m_TableModel = new TicketTableModel();
+    private String siteUrl;
     private String dateTimeFormatString = null;
-    private List<DateTimeFormatter> dateTimeFormats = new ArrayList<>();
+    /** Replaced (not modified) so that the cache's journal thread can use it too. */
+    private volatile List<DateTimeFormatter> dateTimeFormats = Collections.emptyList();
     private String lastModifiedTicketTime;
     private boolean hasConnected = false;
+    private CacheJournal journal;
 
     public SiteData() {
-        setDateFormat(TracInstantProperties.get().getValue("SiteDateFormat"));
+        siteUrl = TracInstantProperties.getURL();
+        moveLegacyCacheFiles();
+        setDateFormat(TracInstantProperties.get().getValue(makeDateFormatKey()));
+        journal = openJournal(siteUrl);
+        m_TableModel.addTableModelListener(new MemoryGovernor(m_TableModel,
+            (long) TracInstantProperties.getResidentTextBudgetMB() << 20));
     }
 
+    /**
+     * Switches to the site now selected in the preferences, with no tickets: call
+     * {@link #saveState()} beforehand to keep the current site's cache, and load the new site's
+     * cache (if {@link #isOkToUseCachedTickets()}) with a {@link CachedTicketLoadTask}.
+     */
+    public void switchToSelectedSite() {
+        if (journal != null) {
+            journal.close();
+        }
+        siteUrl = TracInstantProperties.getURL();
+        journal = openJournal(siteUrl);
+        m_TableModel.clear();
+        lastModifiedTicketTime = null;
+        hasConnected = false;
+        setDateFormat(TracInstantProperties.get().getValue(makeDateFormatKey()));
+    }
+
+    /** The URL of the site whose tickets these are. */
+    public String getSiteUrl() {
+        return siteUrl;
+    }
+
+    /**
+     * Saves the user's own fields and the site's settings, and folds the journal of downloaded
+     * tickets into the cache files (so that the next startup needn't replay it).
+     */
     public void saveState() {
         SortedSet<String> userFields = m_TableModel.getUserFields();
-        saveTicketData(makeUserFieldsFileName(), userFields);
+        saveTicketData(getAppDataDir(), makeUserFieldsFileName(), userFields,
+            m_TableModel.getTicketsWithAnyField(userFields));
 
         if (dateTimeFormatString != null) {
-            TracInstantProperties.get().putString("SiteDateFormat", dateTimeFormatString);
+            TracInstantProperties.get().putString(makeDateFormatKey(), dateTimeFormatString);
+        }
+
+        if (journal != null) {
+            if (TracInstantProperties.getUseCache() && isCompactionDue()) {
+                journal.compact(getHiddenFieldsSnapshot());
+            }
+            journal.flush();
         }
+    }
 
-        if (TracInstantProperties.getUseCache()) {
-            SortedSet<String> fields = new TreeSet<>(m_TableModel.getAllFields());
-            fields.removeAll(m_TableModel.getExcludedFields());
-            fields.removeAll(userFields);
-            saveTicketData(TABULAR_CACHE_FILE, fields);
+    /**
+     * Records downloaded tickets (or removals) in the cache's journal, if caching, and writes the
+     * cache files straight away if there are none in the chosen format yet.
+     */
+    void journal(Update update) {
+        if (journal != null && TracInstantProperties.getUseCache()) {
+            Set<String> hiddenFields = getHiddenFieldsSnapshot();
+            journal.append(update, hiddenFields);
+            if (update.ticketProvider != null && !hasCacheFilesInChosenFormat()) {
+                journal.compact(hiddenFields);
+            }
+        }
+    }
+
+    /**
+     * Runs an action once the updates already journalled are written, such as recording a
+     * slurp's progress: on the journal's thread, or straight away if not caching.
+     */
+    void afterJournal(Runnable action) {
+        if (journal != null && TracInstantProperties.getUseCache()) {
+            journal.afterQueued(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /** Folds the journal into new cache files in the background, such as after a full slurp. */
+    public void compactCache() {
+        if (journal != null && TracInstantProperties.getUseCache()) {
+            journal.compact(getHiddenFieldsSnapshot());
+        }
+    }
+
+    /** A copy of the excluded fields, for the journal's thread to use while the model changes. */
+    private Set<String> getHiddenFieldsSnapshot() {
+        return Collections.unmodifiableSet(new TreeSet<>(m_TableModel.getExcludedFields()));
+    }
+
+    /** Whether there is a journal, or cache files that are only in the other format. */
+    private boolean isCompactionDue() {
+        Path dir = getSiteDataDir(siteUrl);
+        if (dir == null) {
+            return false;
+        }
+        boolean anyCacheFiles = isCacheFileReadable(dir, TABULAR_CACHE_FILE)
+            || isCacheFileReadable(dir, HIDDEN_FIELDS_CACHE_FILE);
+        return Files.exists(dir.resolve(CacheJournal.FILE_NAME))
+            || (anyCacheFiles && !hasCacheFilesInChosenFormat());
+    }
+
+    private boolean hasCacheFilesInChosenFormat() {
+        Path dir = getSiteDataDir(siteUrl);
+        if (dir == null) {
+            return false;
+        }
+        boolean binary = TracInstantProperties.getUseBinaryCache();
+        for (String fileName : new String[] { TABULAR_CACHE_FILE, HIDDEN_FIELDS_CACHE_FILE }) {
+            if (!Files.isReadable(dir.resolve(binary ? toBinaryName(fileName) : fileName))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Rewrites the whole cache from the table model, leaving the journal empty. */
+    void saveCache() {
+        if (journal != null) {
+            journal.delete();
+        }
+        Path dir = getSiteDataDir(siteUrl);
+        SortedSet<String> userFields = m_TableModel.getUserFields();
+        SortedSet<String> fields = new TreeSet<>(m_TableModel.getAllFields());
+        fields.removeAll(m_TableModel.getExcludedFields());
+        fields.removeAll(userFields);
+        List<Ticket> tabular = m_TableModel.getTicketsWithAnyField(fields);
+        String latest = findLatestChangeTime(Arrays.asList(m_TableModel.getTickets()));
+        saveCachedTickets(dir, TABULAR_CACHE_FILE, siteUrl, latest, fields, tabular);
+        long digest = TrigramIndex.digest(tabular, fields);
+
+        SortedSet<String> hiddenFields = new TreeSet<>(m_TableModel.getExcludedFields());
+        hiddenFields.removeAll(userFields);
+        List<Ticket> hidden = m_TableModel.getTicketsWithAnyField(hiddenFields);
+        saveCachedTickets(dir, HIDDEN_FIELDS_CACHE_FILE, siteUrl, latest, hiddenFields, hidden);
+        digest += TrigramIndex.digest(hidden, hiddenFields);
+
+        fields.addAll(hiddenFields);
+        saveSearchIndex(dir, m_TableModel.getTicketsWithAnyField(fields), fields, digest);
+    }
+
+    private CacheJournal openJournal(String url) {
+        Path dir = getSiteDataDir(url);
+        if (dir == null) {
+            return null;
+        }
+        return new CacheJournal(dir.resolve(CacheJournal.FILE_NAME),
+            (records, hiddenFields) -> compactCache(dir, url, records, hiddenFields));
+    }
+
+    /**
+     * Folds the journal's records into new cache files. Called on the journal's thread, so this
+     * works from the files alone (and a snapshot of the hidden fields), not from the table model.
+     */
+    private void compactCache(Path dir, String url, List<Update> records,
+            Set<String> excludedFields) throws InterruptedException {
+        Map<Integer, Ticket> tickets = new TreeMap<>();
+        Set<String> fields = new TreeSet<>();
+        for (String fileName : new String[] { TABULAR_CACHE_FILE, HIDDEN_FIELDS_CACHE_FILE }) {
+            TicketProvider provider = loadCachedTickets(dir, fileName);
+            if (provider != null) {
+                TicketTableModel.mergeIntoMap(tickets, provider.getTickets(), fields);
+            }
+        }
+        for (Update record : records) {
+            if (record.ticketProvider != null) {
+                TicketTableModel.mergeIntoMap(tickets, record.ticketProvider.getTickets(),
+                    fields);
+            } else {
+                tickets.keySet().removeAll(record.removedTicketIds);
+            }
+        }
+        Set<String> allFields = new TreeSet<>(fields);
+        Set<String> hiddenFields = new TreeSet<>(excludedFields);
+        hiddenFields.retainAll(fields);
+        fields.removeAll(hiddenFields);
+        String latest = findLatestChangeTime(tickets.values());
+        List<Ticket> tabular = getTicketsWithAnyField(tickets.values(), fields);
+        saveCachedTickets(dir, TABULAR_CACHE_FILE, url, latest, fields, tabular);
+        List<Ticket> hidden = getTicketsWithAnyField(tickets.values(), hiddenFields);
+        saveCachedTickets(dir, HIDDEN_FIELDS_CACHE_FILE, url, latest, hiddenFields, hidden);
+        saveSearchIndex(dir, tickets.values(), allFields,
+            TrigramIndex.digest(tabular, fields) + TrigramIndex.digest(hidden, hiddenFields));
+    }
+
+    private static List<Ticket> getTicketsWithAnyField(Collection<Ticket> tickets,
+            Set<String> fields) {
+        List<Ticket> result = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            if (!Collections.disjoint(ticket.getFieldNames(), fields)) {
+                result.add(ticket);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Saves a search index of the tickets (as merged from the cache files) for the digest of the
+     * cache files' contents. If it can't replace the old index (such as on Windows, while that
+     * is mapped) it is left pending, to be used instead of the old one; if it can't be written at
+     * all, the old index is deleted.
+     */
+    static void saveSearchIndex(Path dir, Collection<Ticket> tickets, Collection<String> fields,
+            long digest) {
+        if (dir == null) {
+            return;
+        }
+        Path file = dir.resolve(TrigramIndex.FILE_NAME);
+        Path pending = dir.resolve(TrigramIndex.FILE_NAME + PENDING_SUFFIX);
+        try {
+            Files.createDirectories(dir);
+            try (OutputStream out = Files.newOutputStream(pending)) {
+                TrigramIndex.write(out, tickets, fields, digest);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            deleteQuietly(pending);
+            deleteQuietly(file);
+            return;
+        }
+        promotePendingSearchIndex(dir);
+    }
+
+    private static void promotePendingSearchIndex(Path dir) {
+        try {
+            Files.move(dir.resolve(TrigramIndex.FILE_NAME + PENDING_SUFFIX),
+                dir.resolve(TrigramIndex.FILE_NAME),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Left pending, until the old index is no longer mapped.
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** @return the current site's search index, if it is of the cache with this digest. */
+    TrigramIndex loadSearchIndex(long digest) {
+        Path dir = getSiteDataDir(siteUrl);
+        if (dir == null) {
+            return null;
+        }
+        Path pending = dir.resolve(TrigramIndex.FILE_NAME + PENDING_SUFFIX);
+        if (Files.exists(pending)) {
+            promotePendingSearchIndex(dir);
+        }
+        for (Path file : new Path[] { pending, dir.resolve(TrigramIndex.FILE_NAME) }) {
+            if (Files.isReadable(file)) {
+                try {
+                    return TrigramIndex.read(file, digest);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** @return the view shown when the current site was last used, or null if not saved. */
+    public ViewSnapshot loadViewSnapshot() {
+        Path dir = getSiteDataDir(siteUrl);
+        Path file = dir == null ? null : dir.resolve(ViewSnapshot.FILE_NAME);
+        if (file == null || !Files.isReadable(file)) {
+            return null;
+        }
+        try {
+            return ViewSnapshot.read(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /** Saves the view to show while the current site's cache loads, next time (if caching). */
+    public void saveViewSnapshot(ViewSnapshot snapshot) {
+        Path dir = getSiteDataDir(siteUrl);
+        if (!TracInstantProperties.getUseCache() || dir == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            Path tempFile = Files.createTempFile(dir, ViewSnapshot.FILE_NAME, ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(tempFile)) {
+                    snapshot.write(out);
+                }
+                Files.move(tempFile, dir.resolve(ViewSnapshot.FILE_NAME),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-            fields = new TreeSet<>(m_TableModel.getExcludedFields());
-            fields.removeAll(userFields);
-            saveTicketData(HIDDEN_FIELDS_CACHE_FILE, fields);
+    /** The records written to the journal since the cache files were last written. */
+    List<Update> loadJournal() throws InterruptedException {
+        Path dir = getSiteDataDir(siteUrl);
+        if (dir == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return CacheJournal.read(dir.resolve(CacheJournal.FILE_NAME));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Collections.emptyList();
         }
     }
 
     public void loadUserData() {
         try {
-            TicketProvider tp = loadTicketData(makeUserFieldsFileName());
+            TicketProvider tp = loadTicketData(getAppDataDir(), makeUserFieldsFileName());
             if (tp != null) {
                 m_TableModel.mergeTicketsAsHidden(tp.getTickets());
             }
@@ -81,28 +399,171 @@ public class SiteData {
         }
     }
 
+    /**
+     * Whether there is a cache to load, judging binary cache files by their headers alone. Cache
+     * files that are corrupt, from another site, or not saved together (and not brought up to date
+     * by the journal) are deleted, so that just this site's tickets are downloaded again.
+     */
     public boolean isOkToUseCachedTickets() {
-        try {
-            return TracInstantProperties.getUseCache()
-                && TracInstantProperties.getURL() != null
-                && Files.isReadable(getAppDataDir().resolve(TABULAR_CACHE_FILE))
-                && Files.isReadable(getAppDataDir().resolve(HIDDEN_FIELDS_CACHE_FILE));
-        } catch (IOException e) {
-            e.printStackTrace();
+        Path dir = getSiteDataDir(siteUrl);
+        if (!TracInstantProperties.getUseCache() || dir == null) {
+            return false;
+        }
+        boolean journalled = Files.isReadable(dir.resolve(CacheJournal.FILE_NAME));
+        if (!journalled && !(isCacheFileReadable(dir, TABULAR_CACHE_FILE)
+                && isCacheFileReadable(dir, HIDDEN_FIELDS_CACHE_FILE))) {
+            return false;
+        }
+        String problem = findCacheProblem(dir, journalled);
+        if (problem != null) {
+            System.err.println("Discarding the cache of " + siteUrl + ": " + problem);
+            if (journal != null) {
+                journal.delete();
+            }
+            deleteCachedDataFiles();
             return false;
         }
+        return true;
+    }
+
+    /** @return what is wrong with the binary cache files' headers, or null if nothing. */
+    private String findCacheProblem(Path dir, boolean journalled) {
+        String latestChangeTime = null;
+        for (String fileName : new String[] { TABULAR_CACHE_FILE, HIDDEN_FIELDS_CACHE_FILE }) {
+            String binaryName = toBinaryName(fileName);
+            Path file = getFileForReading(dir, toPendingName(binaryName));
+            if (file == null) {
+                file = getFileForReading(dir, binaryName);
+            }
+            if (file == null) {
+                continue; // Tab-delimited, if anything
+            }
+            BinaryTicketCache.Header header;
+            try {
+                header = BinaryTicketCache.readHeader(file);
+            } catch (IOException e) {
+                return file.getFileName() + ": " + e.getMessage();
+            }
+            if (header.version < 4) {
+                continue; // No header to check
+            }
+            if (!header.siteUrl.equals(siteUrl)) {
+                return file.getFileName() + " is of " + header.siteUrl;
+            }
+            if (latestChangeTime != null && !latestChangeTime.equals(header.latestChangeTime)
+                    && !journalled) {
+                return "the cache files were not saved together";
+            }
+            latestChangeTime = header.latestChangeTime;
+        }
+        return null;
+    }
+
+    private static boolean isCacheFileReadable(Path dir, String fileName) {
+        return Files.isReadable(dir.resolve(fileName))
+            || Files.isReadable(dir.resolve(toBinaryName(fileName)));
+    }
+
+    private static String toBinaryName(String fileName) {
+        return fileName.replaceFirst("\\.txt$", BINARY_EXTENSION);
     }
 
     public TicketTableModel getTableModel() {
         return m_TableModel;
     }
 
+    /**
+     * Loads one of the current site's cache files, preferring the binary form if there is one,
+     * or returns null if neither exists.
+     */
+    TicketProvider loadCachedTickets(String fileName) throws InterruptedException {
+        return loadCachedTickets(getSiteDataDir(siteUrl), fileName);
+    }
+
+    private static TicketProvider loadCachedTickets(Path dir, String fileName)
+            throws InterruptedException {
+        Path pendingFile = getFileForReading(dir, toPendingName(toBinaryName(fileName)));
+        Path binaryFile = pendingFile != null
+            ? replaceWithPending(dir.resolve(toBinaryName(fileName)), pendingFile)
+            : getFileForReading(dir, toBinaryName(fileName));
+        if (binaryFile != null) {
+            try {
+                return BinaryTicketCache.read(binaryFile);
+            } catch (IOException e) {
+                System.err.println("Cannot read " + binaryFile + ", trying tab-delimited: " + e);
+            }
+        }
+        return loadTicketData(dir, fileName);
+    }
+
+    /**
+     * Saves one of the cache files in the format chosen in the properties, deleting any copy in
+     * the other format (which would otherwise be stale). A binary file's header records the site
+     * and the latest change time, which is the same for both files saved together.
+     */
+    private static void saveCachedTickets(Path dir, String fileName, String siteUrl,
+            String latestChangeTime, Set<String> fields, List<Ticket> tickets) {
+        if (!TracInstantProperties.getUseBinaryCache()) {
+            saveTicketData(dir, fileName, fields, tickets);
+            deleteFile(dir, toBinaryName(fileName));
+            return;
+        }
+        try {
+            if (dir == null) {
+                throw new IOException("No directory to save " + fileName);
+            }
+            Files.createDirectories(dir);
+            Path dataFile = dir.resolve(toBinaryName(fileName));
+            Path tempFile = dir.resolve(dataFile.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                if (TracInstantProperties.getCompressCache()) {
+                    BinaryTicketCache.writeCompressed(out, siteUrl, latestChangeTime, fields,
+                        tickets);
+                } else {
+                    BinaryTicketCache.write(out, siteUrl, latestChangeTime, fields, tickets);
+                }
+            }
+            try {
+                Files.move(tempFile, dataFile,
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                deleteFile(dir, toPendingName(dataFile.getFileName().toString()));
+            } catch (FileSystemException e) {
+                // Windows won't replace a file that is still mapped (by the tickets loaded from
+                // it) so leave this one to replace it next time it is loaded.
+                Files.move(tempFile, dir.resolve(toPendingName(dataFile.getFileName().toString())),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            deleteFile(dir, fileName);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String toPendingName(String binaryName) {
+        return binaryName + ".pending";
+    }
+
+    /**
+     * Moves a binary cache file that couldn't be saved (over one that was mapped) into place,
+     * returning the file to read: the pending one itself if the old one is still mapped.
+     */
+    private static Path replaceWithPending(Path binaryFile, Path pendingFile) {
+        try {
+            Files.move(pendingFile, binaryFile,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return binaryFile;
+        } catch (IOException e) {
+            return pendingFile;
+        }
+    }
+
     // NB: Gets called from a worker thread as well as foreground thread.
     // TODO: Separate loading/building out from data structures. Move into a TicketLoader
     // class to sequence/coordinate loading all the various bits (see main TODO document).
-    static TicketProvider loadTicketData(String fileName) throws InterruptedException {
+    private static TicketProvider loadTicketData(Path dataDir, String fileName)
+            throws InterruptedException {
         try {
-            Path file = getAppFileForReading(fileName);
+            Path file = getFileForReading(dataDir, fileName);
             if (file != null) {
                 try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
                     return TracTabTicketParser.parse(reader);
@@ -114,9 +575,8 @@ public class SiteData {
         return null;
     }
 
-    private static Path getAppFileForReading(String simpleFileName) throws IOException {
-        Path dataDir = getAppDataDir();
-        if (!Files.isDirectory(dataDir)) {
+    private static Path getFileForReading(Path dataDir, String simpleFileName) {
+        if (dataDir == null || !Files.isDirectory(dataDir)) {
             return null;
         }
         Path file = dataDir.resolve(simpleFileName);
@@ -126,26 +586,83 @@ public class SiteData {
         return file;
     }
 
-    private static Path getAppDataDir() throws IOException {
-        return TracInstantProperties.get().getAppDataDirectory();
+    /** @return null (having logged why) if the directory can't be determined. */
+    private static Path getAppDataDir() {
+        try {
+            return TracInstantProperties.get().getAppDataDirectory();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * The folder of cached data for the given site. (It may not exist yet.)
+     *
+     * @return null (having logged why) if the app data directory can't be determined.
+     */
+    static Path getSiteDataDir(String url) {
+        Path appDataDir = getAppDataDir();
+        if (appDataDir == null) {
+            return null;
+        }
+        return appDataDir.resolve(SITES_FOLDER).resolve(makeSiteKey(url));
+    }
+
+    /**
+     * Moves the cache files of older versions, which supported only one site at a time, into
+     * the current site's folder.
+     */
+    private void moveLegacyCacheFiles() {
+        Path appDataDir = getAppDataDir();
+        Path siteDir = getSiteDataDir(siteUrl);
+        if (appDataDir == null || !Files.isReadable(appDataDir.resolve(TABULAR_CACHE_FILE))
+                || Files.exists(siteDir)) {
+            return;
+        }
+        try {
+            Files.createDirectories(siteDir);
+            for (String name : new String[] {
+                    TABULAR_CACHE_FILE, HIDDEN_FIELDS_CACHE_FILE, SlurpCheckpoint.FILE_NAME }) {
+                Path file = appDataDir.resolve(name);
+                if (Files.exists(file)) {
+                    Files.move(file, siteDir.resolve(name));
+                }
+            }
+            String dateFormat = TracInstantProperties.get().getValue(DATE_FORMAT_KEY);
+            if (dateFormat != null) {
+                TracInstantProperties.get().putString(makeDateFormatKey(), dateFormat);
+            }
+            System.out.println("Moved cached tickets into " + siteDir);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
-    private void saveTicketData(String fileName, Set<String> fields) {
+    private static void saveTicketData(Path dataDir, String fileName, Set<String> fields,
+            List<Ticket> tickets) {
         try {
-            Path dataDir = getAppDataDir();
+            if (dataDir == null) {
+                throw new IOException("No directory to save " + fileName);
+            }
             if (!Files.isDirectory(dataDir) && !dataDir.toFile().mkdirs()) {
                 throw new IOException("Directory could not be created: " + dataDir);
             }
             Path dataFile = dataDir.resolve(fileName);
-            List<Ticket> tickets = m_TableModel.getTicketsWithAnyField(fields);
+            Path tempFile = dataDir.resolve(fileName + ".tmp");
             TabTicketWriter.write(
-                    Files.newBufferedWriter(dataFile, StandardCharsets.UTF_8), fields, tickets);
+                    Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8), fields, tickets);
+            Files.move(tempFile, dataFile,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     public void reset() {
+        if (journal != null) {
+            journal.delete();
+        }
         deleteCachedDataFiles();
         m_TableModel.clear();
         lastModifiedTicketTime = null;
@@ -155,20 +672,40 @@ public class SiteData {
     private void deleteCachedDataFiles() {
         deleteAppFile(TABULAR_CACHE_FILE);
         deleteAppFile(HIDDEN_FIELDS_CACHE_FILE);
+        deleteAppFile(toBinaryName(TABULAR_CACHE_FILE));
+        deleteAppFile(toBinaryName(HIDDEN_FIELDS_CACHE_FILE));
+        deleteAppFile(toPendingName(toBinaryName(TABULAR_CACHE_FILE)));
+        deleteAppFile(toPendingName(toBinaryName(HIDDEN_FIELDS_CACHE_FILE)));
+        deleteAppFile(CacheJournal.FILE_NAME);
+        deleteAppFile(TrigramIndex.FILE_NAME);
+        deleteAppFile(ViewSnapshot.FILE_NAME);
+        deleteAppFile(SlurpCheckpoint.FILE_NAME);
     }
 
     private void deleteAppFile(String name) {
+        deleteFile(getSiteDataDir(siteUrl), name);
+    }
+
+    private static void deleteFile(Path dir, String name) {
         try {
-            Path file = getAppDataDir().resolve(name);
-            Files.deleteIfExists(file);
+            if (dir != null) {
+                Files.deleteIfExists(dir.resolve(name));
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private static String makeUserFieldsFileName() {
-        String url = TracInstantProperties.getURL();
-        return extractAsciiCharacters(url) + "__LocalFields.txt";
+    private String makeUserFieldsFileName() {
+        return makeSiteKey(siteUrl) + "__LocalFields.txt";
+    }
+
+    private String makeDateFormatKey() {
+        return DATE_FORMAT_KEY + "." + makeSiteKey(siteUrl);
+    }
+
+    private static String makeSiteKey(String url) {
+        return url.isEmpty() ? "_" : extractAsciiCharacters(url);
     }
 
     private static String extractAsciiCharacters(String url) {
@@ -187,7 +724,7 @@ public class SiteData {
 
     public void setDateFormat(String dateFormat) {
         dateTimeFormatString = dateFormat;
-        dateTimeFormats.clear();
+        List<DateTimeFormatter> dateTimeFormats = new ArrayList<>();
         if (dateFormat != null) {
             String timeFormat12 = "[','][';'][' '][['t']h:m[:s][ ]a]";
             String timeFormat24 = "[','][';'][' '][['t']HH:mm[:ss]]";
@@ -202,6 +739,7 @@ public class SiteData {
             dateTimeFormats.add(dateTimeBuilder(dateFormat, timeFormat12).toFormatter(Locale.UK));
             dateTimeFormats.add(dateTimeBuilder(dateFormat, timeFormat24).toFormatter(Locale.UK));
         }
+        this.dateTimeFormats = Collections.unmodifiableList(dateTimeFormats);
     }
 
     private static DateTimeFormatterBuilder dateTimeBuilder(String dateFormat, String timeFormat) {
@@ -246,8 +784,25 @@ public class SiteData {
 
     public void setLastModifiedTicketTime(List<String> dateTimeStrings) {
         hasConnected = true;
+        String latestString = findLatest(dateTimeStrings);
+
+        // HACK: not checking if greater, because in current usage it always will be
+        if (latestString != null) {
+            System.out.println("Last modified update: " + lastModifiedTicketTime + " -> " + latestString);
+            lastModifiedTicketTime = latestString;
+        }
+    }
+
+    /** @return the latest of the tickets' change times, or "" if none can be parsed. */
+    private String findLatestChangeTime(Collection<Ticket> tickets) {
+        String latest = findLatest(TicketLoadTask.extractModificationDates(tickets));
+        return latest == null ? "" : latest;
+    }
+
+    /** @return null if no date-format is known, or if no (parseable) times were found. */
+    private String findLatest(Collection<String> dateTimeStrings) {
         if (dateTimeFormats.isEmpty()) {
-            return;
+            return null;
         }
 
         LocalDateTime latest = null;
@@ -265,12 +820,7 @@ public class SiteData {
                 }
             }
         }
-
-        // HACK: not checking if greater, because in current usage it always will be
-        if (latestString != null) {
-            System.out.println("Last modified update: " + lastModifiedTicketTime + " -> " + latestString);
-            lastModifiedTicketTime = latestString;
-        }
+        return latestString;
     }
 
     public static void main(String[] args) {
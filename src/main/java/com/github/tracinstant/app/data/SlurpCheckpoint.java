@@ -0,0 +1,223 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import com.github.tracinstant.app.prefs.SiteSettings;
+
+/**
+ * Progress through a full slurp, saved in the site's data folder as each stage (and each page
+ * of descriptions) completes, so that an interrupted slurp can carry on where it left off. The
+ * tickets themselves are not saved here: they are in the table model, and from there in the
+ * cache. A checkpoint is therefore only resumed if the model holds at least the tickets it
+ * claims were downloaded, and is only advanced once those tickets have been journalled.
+ * <p>
+ * The slurp's thread and the thread recording its progress may both update a checkpoint.
+ */
+public final class SlurpCheckpoint {
+
+    static final String FILE_NAME = "SlurpCheckpoint.properties";
+
+    private final String m_URL;
+    private final String m_Key;
+    private final boolean m_Resumed;
+
+    /** The most recent change time when the slurp began; later edits need catching up. */
+    private String m_SnapshotTime = null;
+    private boolean m_FieldsDone = false;
+    private String m_DescriptionQuery = "";
+    private int m_NextPage = 1;
+    private int m_DescriptionsFound = 0;
+    private boolean m_Finished = false;
+
+    private SlurpCheckpoint(String url, String key, boolean resumed) {
+        m_URL = url;
+        m_Key = key;
+        m_Resumed = resumed;
+    }
+
+    /** Whether a full slurp of the current site was interrupted, and should be resumed. */
+    public static boolean isPending(SiteSettings settings) {
+        Properties props = load(settings.getURL());
+        return props != null && makeKey(settings).equals(props.getProperty("key"));
+    }
+
+    /**
+     * @param localTickets the number of tickets in the model, as counted on the EDT
+     * @param localDescriptions how many of those have descriptions
+     * @return the checkpoint of an interrupted slurp of the same site and tickets, if the model
+     *     is consistent with it, otherwise a new checkpoint.
+     */
+    static SlurpCheckpoint startOrResume(
+            SiteSettings settings, int localTickets, int localDescriptions) {
+        String url = settings.getURL();
+        String key = makeKey(settings);
+        Properties props = load(url);
+        if (props == null || !key.equals(props.getProperty("key"))) {
+            return new SlurpCheckpoint(url, key, false);
+        }
+        SlurpCheckpoint checkpoint = new SlurpCheckpoint(url, key, true);
+        try {
+            checkpoint.m_SnapshotTime = props.getProperty("snapshotTime");
+            checkpoint.m_FieldsDone = Boolean.parseBoolean(props.getProperty("fieldsDone"));
+            checkpoint.m_DescriptionQuery = props.getProperty("descriptionQuery", "");
+            checkpoint.m_NextPage = Integer.parseInt(props.getProperty("nextPage", "1"));
+            checkpoint.m_DescriptionsFound =
+                Integer.parseInt(props.getProperty("descriptionsFound", "0"));
+        } catch (NumberFormatException e) {
+            return new SlurpCheckpoint(url, key, false);
+        }
+        if (!checkpoint.isConsistentWith(localTickets, localDescriptions)) {
+            System.out.println("Slurp checkpoint does not match the cached tickets; ignoring it");
+            return new SlurpCheckpoint(url, key, false);
+        }
+        System.out.println("Resuming slurp: descriptions from page " + checkpoint.m_NextPage);
+        return checkpoint;
+    }
+
+    private boolean isConsistentWith(int localTickets, int localDescriptions) {
+        if (m_SnapshotTime == null) {
+            return false;
+        }
+        return localDescriptions >= m_DescriptionsFound && (!m_FieldsDone || localTickets > 0);
+    }
+
+    private static String makeKey(SiteSettings settings) {
+        return settings.getURL() + (settings.isFetchOnlyActiveTickets() ? " (active)" : " (all)");
+    }
+
+    boolean isResumed() {
+        return m_Resumed;
+    }
+
+    String getSnapshotTime() {
+        return m_SnapshotTime;
+    }
+
+    /** Records the most recent change time as the slurp begins, unless resuming. */
+    synchronized void begin(String snapshotTime) {
+        if (!m_Resumed) {
+            m_SnapshotTime = snapshotTime;
+            save();
+        }
+    }
+
+    synchronized boolean isFieldsDone() {
+        return m_FieldsDone;
+    }
+
+    synchronized void fieldsDone() {
+        m_FieldsDone = true;
+        save();
+    }
+
+    /**
+     * @return the page to continue from, with the given query. (Any progress made with a
+     *     different query, such as before falling back from wiki text to RSS, is discarded.)
+     */
+    synchronized int startDescriptions(String query) {
+        if (!query.equals(m_DescriptionQuery)) {
+            m_DescriptionQuery = query;
+            m_NextPage = 1;
+            m_DescriptionsFound = 0;
+            save();
+        }
+        return m_NextPage;
+    }
+
+    synchronized int getDescriptionsFound() {
+        return m_DescriptionsFound;
+    }
+
+    /** Ignored if the slurp has since moved on to another query, or finished. */
+    synchronized void pageDone(String query, int nextPage, int descriptionsFound) {
+        if (query.equals(m_DescriptionQuery)) {
+            m_NextPage = nextPage;
+            m_DescriptionsFound = descriptionsFound;
+            save();
+        }
+    }
+
+    /** The slurp is complete: deletes the checkpoint, and ignores any progress still to come. */
+    synchronized void finish() {
+        m_Finished = true;
+        delete(m_URL);
+    }
+
+    /** The slurp of the given site is complete, so there is nothing to resume. */
+    static void delete(String url) {
+        try {
+            Files.deleteIfExists(getFile(url));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void save() {
+        if (m_Finished) {
+            return;
+        }
+        Properties props = new Properties();
+        props.setProperty("key", m_Key);
+        if (m_SnapshotTime != null) {
+            props.setProperty("snapshotTime", m_SnapshotTime);
+        }
+        props.setProperty("fieldsDone", Boolean.toString(m_FieldsDone));
+        props.setProperty("descriptionQuery", m_DescriptionQuery);
+        props.setProperty("nextPage", Integer.toString(m_NextPage));
+        props.setProperty("descriptionsFound", Integer.toString(m_DescriptionsFound));
+        try {
+            Path file = getFile(m_URL);
+            Files.createDirectories(file.getParent());
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                props.store(out, "Progress of an unfinished slurp");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Properties load(String url) {
+        try (Reader in = Files.newBufferedReader(getFile(url), StandardCharsets.UTF_8)) {
+            Properties props = new Properties();
+            props.load(in);
+            return props;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static Path getFile(String url) throws IOException {
+        Path dir = SiteData.getSiteDataDir(url);
+        if (dir == null) {
+            throw new IOException("No data folder for " + url);
+        }
+        return dir.resolve(FILE_NAME);
+    }
+}
@@ -18,24 +18,40 @@
 package com.github.tracinstant.app.data;
 
 import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
+import java.net.ProtocolException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
+import com.github.tracinstant.app.data.AuthenticatedHttpRequester.HttpStatusException;
+import com.github.tracinstant.app.data.RequestGovernor.Priority;
 import com.github.tracinstant.app.prefs.SiteSettings;
+import com.github.tracinstant.app.prefs.TracInstantProperties;
 import com.github.tracinstant.util.XML10FilterReader;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -44,12 +60,26 @@ public class SlurpTask extends TicketLoadTask {
 
     private static final String STATUS_PLACEHOLDER = "<<STATUS>>";
 
-    private static final String FIELDS_QUERY =
-        "query?format=tab&status=" + STATUS_PLACEHOLDER +
+    private static final String FIELD_COLUMNS =
         "&col=id&col=summary&col=cc&col=status&col=type" +
         "&col=keywords&col=reporter&col=component&col=priority" +
         "&col=owner&col=milestone&col=severity" +
-        "&col=resolution&col=version&order=id";
+        "&col=resolution&col=version";
+
+    private static final String FIELDS_QUERY =
+        "query?format=tab&status=" + STATUS_PLACEHOLDER + FIELD_COLUMNS + "&order=id";
+
+    // For incremental updates: all fields of the modified tickets, in a single round trip.
+    private static final String MODIFIED_FIELDS_QUERY =
+        "query?format=tab&status=" + STATUS_PLACEHOLDER + FIELD_COLUMNS +
+        "&col=changetime&order=changetime";
+
+    // Limits the length of the URL when requesting descriptions for a list of ticket ids.
+    private static final int ID_BATCH_SIZE = 100;
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
 
     private static final int RESULTS_PER_PAGE = 200;
 
@@ -58,6 +88,13 @@ public class SlurpTask extends TicketLoadTask {
     private static final String RSS_QUERY =
         "query?format=rss&status=" + STATUS_PLACEHOLDER + "&order=id" + "&max=" + RESULTS_PER_PAGE;
 
+    private static final int WIKI_RESULTS_PER_PAGE = 1000;
+
+    // Raw wiki text is several times smaller than the HTML in the RSS, and much faster to parse.
+    private static final String WIKI_QUERY =
+        "query?format=tab&status=" + STATUS_PLACEHOLDER +
+        "&col=id&col=summary&col=description&order=id&max=" + WIKI_RESULTS_PER_PAGE;
+
 
     // Note: ordering by changetime is required by the heuristics in DateFormatDetector
     private static final String MODIFIED_TIME_QUERY =
@@ -77,13 +114,77 @@ public class SlurpTask extends TicketLoadTask {
      */
     DateTimeFormatter urlDateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
+    private final boolean useStreamingParser = TracInstantProperties.getUseStreamingRssParser();
+
     private Exception fault = null;
 
+    /** Progress through a full slurp, or null during an incremental one. */
+    private SlurpCheckpoint checkpoint = null;
+
+    /** Whether to compare all tickets with the server after an incremental update. */
+    private boolean checkForDrift = false;
+
+    /** Tickets fetched by this task's incremental update, known to be up to date. */
+    private final Set<Integer> freshTicketIds = new HashSet<>();
+
+    /**
+     * The ids and change times of the tickets in the model when the task was created, as the
+     * model itself may only be read on the EDT.
+     */
+    private final Map<Integer, String> localChangetimes = new HashMap<>();
+
+    /** How many of those tickets had descriptions, for judging whether to resume a slurp. */
+    private final int localDescriptionCount;
+
+    /**
+     * Progress through a full slurp, published after the tickets it covers, so that the
+     * checkpoint only records them once they are merged and journalled. It is not passed on to
+     * listeners.
+     */
+    private static final class Progress extends Update {
+        final Runnable record;
+
+        Progress(Runnable record) {
+            this.record = record;
+        }
+    }
+
+    /** The interface each page of descriptions is downloaded and published through. */
+    private interface PageSlurper {
+        int slurp(URL url) throws IOException, SAXException, InterruptedException;
+    }
+
+    /** A request, including the processing of its response, which may be retried. */
+    private interface Request<T> {
+        T run() throws IOException, SAXException, InterruptedException;
+    }
+
+    /** Must be created on the EDT, where the local tickets it compares with are read. */
     public SlurpTask(SiteData site, SiteSettings siteSettings, String since, Future<?> attachmentScanFuture) {
         super(site);
         this.siteSettings = siteSettings;
         this.sinceDateTime = since;
         this.attachmentScanFuture = attachmentScanFuture;
+        int described = 0;
+        for (Ticket ticket : site.getTableModel().getTickets()) {
+            localChangetimes.put(ticket.getNumber(), ticket.getValue("changetime"));
+            if (ticket.getValue("description") != null) {
+                ++described;
+            }
+        }
+        localDescriptionCount = described;
+    }
+
+    /**
+     * Have an incremental update also find tickets that it can't see: those deleted from the
+     * server or (when fetching only active tickets) closed, and any edits that were missed.
+     */
+    public void setCheckForDrift(boolean check) {
+        checkForDrift = check;
+    }
+
+    public boolean isCheckingForDrift() {
+        return checkForDrift;
     }
 
     public boolean isIncremental() {
@@ -94,6 +195,25 @@ public class SlurpTask extends TicketLoadTask {
         return fault;
     }
 
+    /**
+     * Journals the downloaded tickets into the cache as they are merged into the model, and
+     * records progress once the tickets before it are journalled.
+     */
+    @Override
+    protected void process(List<Update> chunks) {
+        for (Update update : chunks) {
+            if (isCancelled()) {
+                return;
+            }
+            if (update instanceof Progress) {
+                site.afterJournal(((Progress) update).record);
+            } else {
+                site.journal(update);
+                super.process(Collections.singletonList(update));
+            }
+        }
+    }
+
     @Override
     protected List<String> doInBackground() throws Exception {
         try {
@@ -105,6 +225,28 @@ public class SlurpTask extends TicketLoadTask {
     }
 
     protected List<String> doInternal() throws IOException, SAXException, InterruptedException {
+        boolean filtered = isIncremental() && !makeModifiedFilter(sinceDateTime).isEmpty();
+        List<String> dateTimeStrings = filtered ? slurpModified(sinceDateTime) : slurpAll();
+        if (filtered && checkForDrift) {
+            repairDrift();
+        }
+
+        // Monitor the completion of attachment folder scanning. (It is hacked in here
+        // so that status updates are more-simple: they are issued from only one source.)
+        if (!siteSettings.getAttachmentsDir().trim().isEmpty()) {
+            publish(new Update("Scanning Attachments Folder... ",
+                    "Scanning: " + siteSettings.getAttachmentsDir()));
+            awaitCompletionNoExceptions(attachmentScanFuture, 10, TimeUnit.SECONDS);
+        }
+
+        // All data for external consumption has been passed out via the publish/process mechanism.
+        // Here we return just the timestamps to update the 'last-modified' record in SiteData.
+        return dateTimeStrings;
+    }
+
+    private List<String> slurpAll() throws IOException, SAXException, InterruptedException {
+        checkpoint = SlurpCheckpoint.startOrResume(
+            siteSettings, localChangetimes.size(), localDescriptionCount);
 
         // Slurp timestamps prior to all other data.
         TicketProvider changetimeProvider = slurpChangetimes();
@@ -116,29 +258,161 @@ public class SlurpTask extends TicketLoadTask {
             updateDateFormat(dateTimeStrings);
         }
 
-        if (isTicketModified(tickets)) {
+        if (checkpoint.isResumed() || isTicketModified(tickets)) {
             System.out.println("" + tickets.size() + " tickets require field updates");
+            checkpoint.begin(dateTimeStrings.isEmpty()
+                ? null : dateTimeStrings.get(dateTimeStrings.size() - 1));
 
-            slurpFields(FIELDS_QUERY);
-            slurpDescriptions(tickets.size());
+            if (!checkpoint.isFieldsDone()) {
+                slurpFields(FIELDS_QUERY);
+                publish(new Progress(checkpoint::fieldsDone));
+            }
+            slurpDescriptions(tickets.size(), null);
+
+            // Tickets edited after an interrupted slurp began may be stale in the pages and
+            // fields it completed. Catch up with those before the timestamps go in.
+            if (checkpoint.isResumed() && checkpoint.getSnapshotTime() != null) {
+                dateTimeStrings.addAll(slurpModified(checkpoint.getSnapshotTime()));
+            }
 
             // Finally publish timestamps AFTER slurping all other data.
             publish(new Update(changetimeProvider));
         }
 
-        // Monitor the completion of attachment folder scanning. (It is hacked in here
-        // so that status updates are more-simple: they are issued from only one source.)
-        if (!siteSettings.getAttachmentsDir().trim().isEmpty()) {
-            publish(new Update("Scanning Attachments Folder... ",
-                    "Scanning: " + siteSettings.getAttachmentsDir()));
-            awaitCompletionNoExceptions(attachmentScanFuture, 10, TimeUnit.SECONDS);
-        }
+        // Only tickets from before the listing can be judged by it (not any added since).
+        Set<Integer> listed = tickets.stream().map(Ticket::getNumber).collect(Collectors.toSet());
+        Set<Integer> removed = localChangetimes.keySet().stream()
+                .filter(id -> !listed.contains(id))
+                .collect(Collectors.toSet());
+        publishRemoved(removed, localChangetimes.size());
 
-        // All data for external consumption has been passed out via the publish/process mechanism.
-        // Here we return just the timestamps to update the 'last-modified' record in SiteData.
+        checkpoint.finish();
+        return dateTimeStrings;
+    }
+
+    /**
+     * Fetches the fields and timestamps of modified tickets in one request, then the
+     * descriptions of only those tickets.
+     */
+    private List<String> slurpModified(String since)
+            throws IOException, SAXException, InterruptedException {
+        URL url = new URL(
+            makeUnfilteredQueryURL(MODIFIED_FIELDS_QUERY) + makeModifiedFilter(since));
+        publish(new Update("Checking for modified tickets...", "Querying: " + url));
+        TicketProvider fieldProvider = withRetries(() -> slurpTabDelimited(url));
+        List<Ticket> tickets = fieldProvider.getTickets();
+        List<String> dateTimeStrings = extractModificationDates(tickets);
+        tickets.forEach(t -> freshTicketIds.add(t.getNumber()));
+
+        if (isTicketModified(tickets)) {
+            System.out.println("" + tickets.size() + " tickets require field updates");
+
+            TicketProvider changetimeProvider = separateChangetimes(tickets);
+            publish(new Update(fieldProvider));
+            slurpDescriptions(tickets.size(), tickets);
+
+            // As for a full slurp, timestamps are published only once all other data is in.
+            publish(new Update(changetimeProvider));
+        }
         return dateTimeStrings;
     }
 
+    /**
+     * Compares the server's list of tickets and change times with the local model, by
+     * {@link TicketDigests}, then removes the tickets that have gone and fetches those that are
+     * missing or out of date, in the ranges that differ. The tickets just fetched by the
+     * incremental update are left out: they may not have reached the model yet.
+     */
+    private void repairDrift() throws IOException, SAXException, InterruptedException {
+        URL url = new URL(makeUnfilteredQueryURL(MODIFIED_TIME_QUERY));
+        publish(new Update("Checking for deleted tickets...", "Querying: " + url));
+        List<Ticket> listing = withRetries(() -> slurpTabDelimited(url)).getTickets();
+
+        Set<Integer> divergent = TicketDigests.of(listing, freshTicketIds)
+                .findDivergentRanges(TicketDigests.of(localChangetimes, freshTicketIds));
+        if (divergent.isEmpty()) {
+            return;
+        }
+
+        // Gather the server's tickets in those ranges, then strike off those that match.
+        Map<Integer, String> outOfDate = new TreeMap<>();
+        for (Ticket ticket : listing) {
+            int id = ticket.getNumber();
+            if (divergent.contains(TicketDigests.getRange(id)) && !freshTicketIds.contains(id)) {
+                outOfDate.put(id, ticket.getValue("changetime"));
+            }
+        }
+        Set<Integer> removed = new HashSet<>();
+        for (Map.Entry<Integer, String> entry : localChangetimes.entrySet()) {
+            int id = entry.getKey();
+            if (divergent.contains(TicketDigests.getRange(id)) && !freshTicketIds.contains(id)) {
+                String serverTime = outOfDate.get(id);
+                if (serverTime == null) {
+                    removed.add(id);
+                } else if (serverTime.equals(entry.getValue())) {
+                    outOfDate.remove(id);
+                }
+            }
+        }
+        System.out.println("Drift in " + divergent.size() + " ranges of tickets: " +
+            removed.size() + " gone, " + outOfDate.size() + " missing or out of date");
+        publishRemoved(removed, localChangetimes.size());
+
+        if (!outOfDate.isEmpty()) {
+            List<Ticket> tickets = slurpFieldsOf(new ArrayList<>(outOfDate.keySet()));
+            TicketProvider changetimeProvider = separateChangetimes(tickets);
+            publish(new Update(() -> tickets));
+            slurpDescriptions(tickets.size(), tickets);
+            publish(new Update(changetimeProvider));
+        }
+    }
+
+    /**
+     * Removes tickets, unless it would be most of them: that suggests a truncated or otherwise
+     * bad listing, rather than a mass deletion.
+     */
+    private void publishRemoved(Set<Integer> removed, int localCount) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        if (removed.size() > localCount / 2) {
+            System.err.println("Not removing " + removed.size() + " of " + localCount +
+                " tickets missing from the server's listing");
+            return;
+        }
+        System.out.println("Removing " + removed.size() + " tickets missing from the server");
+        publish(new Update(removed));
+    }
+
+    /** Fetches the fields and timestamps of the given tickets, in batches. */
+    private List<Ticket> slurpFieldsOf(List<Integer> ids)
+            throws IOException, SAXException, InterruptedException {
+        String basicFieldsURL = makeUnfilteredQueryURL(MODIFIED_FIELDS_QUERY);
+        List<Ticket> result = new ArrayList<>(ids.size());
+        for (int start = 0; start < ids.size(); start += ID_BATCH_SIZE) {
+            List<Integer> batch = ids.subList(start, Math.min(start + ID_BATCH_SIZE, ids.size()));
+            URL url = new URL(basicFieldsURL + "&id=" + batch.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+            publish(new Update("Downloading ticket fields...", "Querying: " + url));
+            result.addAll(withRetries(() -> slurpTabDelimited(url)).getTickets());
+        }
+        return result;
+    }
+
+    /** Moves the timestamps out of the given tickets, into new ones. */
+    private static TicketProvider separateChangetimes(List<Ticket> tickets) {
+        List<Ticket> result = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            Ticket changetime = new Ticket(ticket.getNumber());
+            changetime.putField("changetime", ticket.getValue("changetime"));
+            ticket.remove("changetime");
+            ticket.remove("Modified");
+            result.add(changetime);
+        }
+        return () -> result;
+    }
+
     private void updateDateFormat(List<String> dateTimeStrings) {
         String format = DateFormatDetector.detectFormat(dateTimeStrings);
         if (format != null) {
@@ -155,26 +429,27 @@ public class SlurpTask extends TicketLoadTask {
         return streamChangeTimes(tickets).anyMatch(ct -> !ct.equals(mostRecentlyModifiedTime));
     }
 
-    private TicketProvider slurpChangetimes() throws IOException, InterruptedException {
+    private TicketProvider slurpChangetimes()
+            throws IOException, SAXException, InterruptedException {
         URL url = new URL(makeQueryURL(MODIFIED_TIME_QUERY));
         publish(new Update("Checking ticket timestamps...", "Querying: " + url));
-        return slurpTabDelimited(url);
+        return withRetries(() -> slurpTabDelimited(url));
     }
 
-    private int slurpFields(String query) throws IOException, InterruptedException {
+    private int slurpFields(String query) throws IOException, SAXException, InterruptedException {
         URL url = new URL(makeQueryURL(query));
         publish(new Update("Downloading ticket fields...", "Querying: " + url));
-        TicketProvider tabData = slurpTabDelimited(url);
+        TicketProvider tabData = withRetries(() -> slurpTabDelimited(url));
         publish(new Update(tabData));
         return tabData.getTickets().size();
     }
 
-    private String makeModifiedFilter() {
-        if (sinceDateTime != null && site.isDateFormatSet()) {
+    private String makeModifiedFilter(String since) {
+        if (since != null && site.isDateFormatSet()) {
             try {
                 String reformatted =
                         urlDateFormat.format(
-                                site.parseDateTime(sinceDateTime));
+                                site.parseDateTime(since));
                 return "&changetime=" + URLEncoder.encode(reformatted, "UTF-8") + "..";
             } catch (UnsupportedEncodingException | DateTimeParseException e) {
                 e.printStackTrace();
@@ -183,23 +458,82 @@ public class SlurpTask extends TicketLoadTask {
         return "";
     }
 
+    /**
+     * Slurps descriptions as wiki text when requested, falling back to (Trac-rendered) RSS if
+     * that fails; for example if an old server doesn't support the query.
+     *
+     * @param onlyTickets if not null, just the descriptions of these tickets are requested.
+     */
+    private void slurpDescriptions(int expectedCount, List<Ticket> onlyTickets)
+            throws IOException, SAXException, InterruptedException {
+        if (siteSettings.isRenderWikiLocally()) {
+            try {
+                slurpDescriptions(WIKI_QUERY, WIKI_RESULTS_PER_PAGE, expectedCount, onlyTickets,
+                        this::slurpWikiFormat);
+                return;
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                System.err.println("Failed to download wiki text, falling back to RSS: " + e);
+            }
+        }
+        slurpDescriptions(RSS_QUERY, RESULTS_PER_PAGE, expectedCount, onlyTickets,
+                this::slurpXmlFormat);
+    }
+
+    private void slurpDescriptions(String query, int pageSize, int expectedCount,
+            List<Ticket> onlyTickets, PageSlurper slurper)
+            throws IOException, SAXException, InterruptedException {
+        if (onlyTickets == null) {
+            slurpPages(query, pageSize, expectedCount, slurper);
+        } else {
+            slurpBatches(query, Math.min(pageSize, ID_BATCH_SIZE), onlyTickets, slurper);
+        }
+    }
+
+    /**
+     * Slurps descriptions using "id=" lists rather than the modified-time filter, so the
+     * server needn't re-evaluate which tickets have changed (and can't add more).
+     */
+    private void slurpBatches(String query, int batchSize, List<Ticket> tickets,
+            PageSlurper slurper) throws IOException, SAXException, InterruptedException {
+        String basicDescriptionURL = makeUnfilteredQueryURL(query);
+        for (int start = 0; start < tickets.size(); start += batchSize) {
+            int end = Math.min(start + batchSize, tickets.size());
+            List<Ticket> batch = tickets.subList(start, end);
+            URL url = new URL(basicDescriptionURL + "&id=" + batch.stream()
+                    .map(t -> String.valueOf(t.getNumber()))
+                    .collect(Collectors.joining(",")));
+            publish(new Update("Downloading ticket descriptions (" +
+            (start*100/tickets.size()) + "%)...", "Querying: " + url));
+            int found = withRetries(() -> slurper.slurp(url));
+            if (found < batch.size()) {
+                System.err.println("Found " + found + " of " + batch.size() + " descriptions");
+            }
+        }
+    }
+
     /**
      * Attempts to slurp descriptions a page at a time, with fall-back support for
      * Trac 0.10, whereby we must slurp all descriptions in one go.
      */
-    private void slurpDescriptions(int expectedCount) throws IOException, SAXException {
-        String basicDescriptionURL = makeQueryURL(RSS_QUERY);
-        String pageSuffix = "";
+    private void slurpPages(String query, int pageSize, int expectedCount, PageSlurper slurper)
+            throws IOException, SAXException, InterruptedException {
+        String basicDescriptionURL = makeQueryURL(query);
+        int page = checkpoint.startDescriptions(query);
+        int found = checkpoint.getDescriptionsFound();
+        String pageSuffix = (page == 1) ? "" : "&page=" + page;
 
-        int found = 0;
-        int page = 1;
         while (found < expectedCount) {
             URL url = new URL(basicDescriptionURL + pageSuffix);
             publish(new Update("Downloading ticket descriptions (" +
             (found*100/expectedCount) + "%)...", "Querying: " + url));
-            int foundNew = slurpXmlFormat(url);
+            int foundNew = withRetries(() -> slurper.slurp(url));
             found += foundNew;
-            if (found < expectedCount && foundNew < RESULTS_PER_PAGE) {
+            int nextPage = page + 1;
+            int foundSoFar = found;
+            publish(new Progress(() -> checkpoint.pageDone(query, nextPage, foundSoFar)));
+            if (found < expectedCount && foundNew < pageSize) {
                 System.err.println("Number of results found");
                 break;
             }
@@ -225,14 +559,66 @@ public class SlurpTask extends TicketLoadTask {
     }
 
     private String makeQueryURL(String queryFormat) {
+        return makeUnfilteredQueryURL(queryFormat) + makeModifiedFilter(sinceDateTime);
+    }
+
+    /**
+     * Makes a request, retrying with exponential backoff if it fails in a way that might be
+     * temporary (for example, a dropped connection or an overloaded server).
+     */
+    private <T> T withRetries(Request<T> request)
+            throws IOException, SAXException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return request.run();
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS || !isRetryable(e)) {
+                    throw e;
+                }
+                long delay = getBackoffMillis(attempt);
+                publish(new Update("Connection problem, retrying...", "Attempt " + attempt +
+                    " failed, retrying in " + delay + " ms: " + e));
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Doubles with each attempt, up to a limit, with a random part so that many clients
+     * (or requests) failing together don't all retry together.
+     */
+    static long getBackoffMillis(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << (attempt - 1));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    /**
+     * Failures that retrying might fix: not an interrupt, a bad password, a missing page or any
+     * other error response that isn't temporary. (Nor unparseable data, which isn't an
+     * IOException.)
+     */
+    private static boolean isRetryable(IOException e) {
+        if (e instanceof HttpStatusException) {
+            int code = ((HttpStatusException) e).getCode();
+            return code == HttpURLConnection.HTTP_CLIENT_TIMEOUT
+                || code == 429
+                || code == HttpURLConnection.HTTP_BAD_GATEWAY
+                || code == HttpURLConnection.HTTP_UNAVAILABLE
+                || code == HttpURLConnection.HTTP_GATEWAY_TIMEOUT;
+        }
+        return !(e instanceof InterruptedIOException
+            || e instanceof ProtocolException
+            || e instanceof FileNotFoundException);
+    }
+
+    private String makeUnfilteredQueryURL(String queryFormat) {
         return siteSettings.getURL() + '/' + queryFormat.replaceAll(
             STATUS_PLACEHOLDER,
-            siteSettings.isFetchOnlyActiveTickets() ? "!closed" : "!dummy") +
-            makeModifiedFilter();
+            siteSettings.isFetchOnlyActiveTickets() ? "!closed" : "!dummy");
     }
 
     private InputStream authenticateAndGetStream(URL url) throws IOException {
-        return AuthenticatedHttpRequester.getInputStream(siteSettings, url);
+        return AuthenticatedHttpRequester.getInputStream(siteSettings, url, Priority.BACKGROUND);
     }
 
     private int slurpXmlFormat(URL url) throws IOException, SAXException {
@@ -241,9 +627,16 @@ public class SlurpTask extends TicketLoadTask {
             // Parse, filtering-out duff chars. Note one proposal of converting the
             // header to the more lenient XML 1.1 <?xml version="1.1"?> still failed
             // to handle some crap spewed out by one test server.
-            TicketProvider xmlData = TracXmlTicketParser.parse(
-                new InputSource(new XML10FilterReader(new InputStreamReader(
-                    new BufferedInputStream(in), "UTF-8"))));
+            TicketProvider xmlData = useStreamingParser
+                ? TracXmlStreamParser.parse(in)
+                : TracXmlTicketParser.parse(
+                    new InputSource(new XML10FilterReader(new InputStreamReader(
+                        new BufferedInputStream(in), "UTF-8"))));
+            if (siteSettings.isRenderWikiLocally()) {
+
+                // Falling back: don't let stale wiki text take precedence over this.
+                xmlData.getTickets().forEach(t -> t.putField(Ticket.WIKI_DESCRIPTION, ""));
+            }
             publish(new Update(xmlData));
             int count = xmlData.getTickets().size();
             xmlData = null;
@@ -251,11 +644,27 @@ public class SlurpTask extends TicketLoadTask {
         }
     }
 
+    /**
+     * Reads a page of raw descriptions, which are moved aside so that "description" only ever
+     * holds HTML. The title is made up to match the one in Trac's RSS.
+     */
+    private int slurpWikiFormat(URL url) throws IOException, InterruptedException {
+        TicketProvider tabData = slurpTabDelimited(url);
+        for (Ticket ticket : tabData.getTickets()) {
+            String wiki = ticket.getValue("description");
+            ticket.putField(Ticket.WIKI_DESCRIPTION, wiki == null ? "" : wiki);
+            ticket.putField("description", "");
+            ticket.putField("title", "#" + ticket.getNumber() + ": " + ticket.getValue("summary"));
+            ticket.remove("summary");
+        }
+        publish(new Update(tabData));
+        return tabData.getTickets().size();
+    }
+
     private TicketProvider slurpTabDelimited(URL url)
             throws MalformedURLException, IOException, InterruptedException {
         try (InputStream in = authenticateAndGetStream(url)) {
-            return TracTabTicketParser.parse(
-                new InputStreamReader(new BufferedInputStream(in), "UTF-8"));
+            return TracTabTicketParser.parse(in);
         }
     }
 }
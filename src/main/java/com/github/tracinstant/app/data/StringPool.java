@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+/**
+ * Interns character slices without first creating a String for them. Ticket fields are highly
+ * repetitive (status, owner, milestone...) so while loading, most fields are found here and cost
+ * no allocation at all. The Strings returned are also {@link String#intern() interned}, to be
+ * shared with the rest of the application.
+ * <p>
+ * Not thread-safe: use one per parsing job, and let it be garbage collected afterwards.
+ */
+final class StringPool {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Open-addressed hash table, with a power-of-two length. */
+    private String[] m_Table = new String[INITIAL_CAPACITY];
+    private int m_Size = 0;
+
+    String get(char[] chars, int start, int length) {
+        int hash = hash(chars, start, length);
+        int mask = m_Table.length - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String s = m_Table[i];
+            if (s == null) {
+                s = new String(chars, start, length).intern();
+                m_Table[i] = s;
+                if (++m_Size * 2 > m_Table.length) {
+                    rehash();
+                }
+                return s;
+            }
+            if (s.hashCode() == hash && regionEquals(s, chars, start, length)) {
+                return s;
+            }
+        }
+    }
+
+    int size() {
+        return m_Size;
+    }
+
+    /** The same as String.hashCode(), so that the String's cached hash can be compared. */
+    private static int hash(char[] chars, int start, int length) {
+        int h = 0;
+        for (int i = start, end = start + length; i < end; i++) {
+            h = 31 * h + chars[i];
+        }
+        return h;
+    }
+
+    /** Mixes the high bits in, since only the low bits index the table. */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean regionEquals(String s, char[] chars, int start, int length) {
+        if (s.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        String[] old = m_Table;
+        m_Table = new String[old.length * 2];
+        int mask = m_Table.length - 1;
+        for (String s : old) {
+            if (s != null) {
+                int i = spread(s.hashCode()) & mask;
+                while (m_Table[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                m_Table[i] = s;
+            }
+        }
+    }
+}
@@ -25,10 +25,19 @@ import java.util.TreeMap;
 
 public class Ticket {
 
-    private Map<String, String> m_Fields = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    /**
+     * The raw wiki text of the description, present only when descriptions are downloaded for
+     * formatting locally. ("description" itself always holds HTML, as delivered by Trac.)
+     */
+    public static final String WIKI_DESCRIPTION = "description_wiki";
+
+    /** Holds Strings, or {@link MappedText} for long values loaded from the binary cache. */
+    private Map<String, CharSequence> m_Fields = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
     private final int m_Number;
 
+    private int m_Version = 0;
+
     public Ticket(int Number) {
         m_Number = Number;
     }
@@ -44,55 +53,103 @@ public class Ticket {
             System.err.println("Ticket numbers don't match");
         }
 
-        for (Entry<String, String> field : ticket.m_Fields.entrySet()) {
+        for (Entry<String, CharSequence> field : ticket.m_Fields.entrySet()) {
             m_Fields.put(field.getKey(), field.getValue()); // String from Ticket already interned
         }
+        ++m_Version;
     }
 
     public int getNumber() {
         return m_Number;
     }
 
+    /** Changes whenever any field does, so that what is derived from the ticket can be cached. */
+    public int getVersion() {
+        return m_Version;
+    }
+
     @Override
     public String toString() {
         return "Ticket " + m_Number + ", " + super.toString();
     }
 
     public void putField(String fieldName, String value) {
+        ++m_Version;
         if (value == null) {
             m_Fields.remove(fieldName);
         } else {
-            m_Fields.put(fieldName, maybeIntern(value));
+            m_Fields.put(fieldName, compact(value));
         }
     }
 
+    /**
+     * As {@link #putField}, for a value that is already interned if short enough to be (or that
+     * is shared between tickets some other way).
+     */
+    void putSharedField(String fieldName, CharSequence value) {
+        ++m_Version;
+        m_Fields.put(fieldName, value);
+    }
+
+    /**
+     * Replaces a value with the same text stored elsewhere (such as in a spill file), keeping
+     * the version so that what has been derived from the text is still used.
+     */
+    void replaceStorage(String fieldName, CharSequence sameText) {
+        m_Fields.put(fieldName, sameText);
+    }
+
     public void remove(String fieldName) {
+        ++m_Version;
         m_Fields.remove(fieldName);
     }
 
     public final void setOrMergeField(String fieldName, String value) {
-        String existing = m_Fields.get(fieldName);
+        ++m_Version;
+        String existing = toString(m_Fields.get(fieldName));
         if (existing != null && !existing.equals(value)) {
 
             System.out.println("WARNING: field " + fieldName + " in ticket " + m_Number +
                     " is already set. Data will be merged.");
             value = existing + "\n" + value;
         }
-        m_Fields.put(fieldName, maybeIntern(value));
+        m_Fields.put(fieldName, compact(value));
     }
 
-    private static String maybeIntern(String value) {
+    static String maybeIntern(String value) {
         return value.length() < 200 ? value.intern() : value;
     }
 
+    /** Short values are interned, being often repeated; long ones are kept as UTF-8 on Java 8. */
+    private static CharSequence compact(String value) {
+        if (value.length() < 200) {
+            return value.intern();
+        }
+        return MappedText.STRINGS_ARE_UTF16 ? MappedText.encode(value) : value;
+    }
+
     public Collection<String> getFieldNames() {
         return Collections.unmodifiableSet(m_Fields.keySet());
     }
 
     public String getValue(String fieldName) {
-        String result = m_Fields.get(fieldName);
-        if (result == null || result.isEmpty()) {
-            String newResult = tryAliases(fieldName);
+        return toString(getRawValue(fieldName));
+    }
+
+    /**
+     * The value, without decoding it if it is still in the memory-mapped cache; for reading
+     * through once (as when searching) rather than keeping.
+     */
+    public CharSequence getTextForScanning(String fieldName) {
+        CharSequence result = getRawValue(fieldName);
+        return result instanceof MappedText ? ((MappedText) result).forScanning() : result;
+    }
+
+    /** As {@link #getValue} but may return a {@link MappedText}, to copy without decoding. */
+    CharSequence getRawValue(String fieldName) {
+        CharSequence result = m_Fields.get(fieldName);
+        if (result == null || isEmpty(result)) {
+            CharSequence newResult = tryAliases(fieldName);
             if (newResult != null) {
                 return newResult;
             }
@@ -100,14 +157,26 @@ public class Ticket {
         return result;
     }
 
+    /** (Without decoding a {@link MappedText} to find its length.) */
+    private static boolean isEmpty(CharSequence value) {
+        if (value instanceof MappedText) {
+            return ((MappedText) value).getByteLength() == 0;
+        }
+        return value.length() == 0;
+    }
+
+    private static String toString(CharSequence value) {
+        return value == null ? null : value.toString();
+    }
+
     /**
      * Backwards compatibility support for Trac 1.0 -> 1.2.  Trac v1.2 itself seems to construct
      * queries using the traditional 'changetime' but then reports the results using 'Modified'.
      * (It feels a bit sloppy to implement this here, but at least it seems to fix it centrally.)
      */
-    private String tryAliases(String fieldName) {
+    private CharSequence tryAliases(String fieldName) {
         for (String alias : getAliases(fieldName)) {
-            String result = m_Fields.get(alias);
+            CharSequence result = m_Fields.get(alias);
             if (result != null) {
                 return result;
             }
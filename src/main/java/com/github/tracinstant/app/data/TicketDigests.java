@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A digest of the ids and change times of the tickets in each range of {@link #RANGE_SIZE}
+ * ids. Comparing the digests of the server's listing with those of the local model narrows
+ * down where they differ (deleted tickets, tickets that left the filter, missed edits) without
+ * comparing every ticket. The digests are order-independent sums, so can be built in any order.
+ */
+final class TicketDigests {
+
+    static final int RANGE_SIZE = 256;
+
+    private final Map<Integer, Long> m_Digests = new HashMap<>();
+
+    /**
+     * @param ignoredIds tickets to leave out of the digests (on both sides of a comparison).
+     */
+    static TicketDigests of(Collection<Ticket> tickets, Set<Integer> ignoredIds) {
+        TicketDigests digests = new TicketDigests();
+        for (Ticket ticket : tickets) {
+            if (!ignoredIds.contains(ticket.getNumber())) {
+                digests.add(ticket.getNumber(), ticket.getValue("changetime"));
+            }
+        }
+        return digests;
+    }
+
+    /** As {@link #of(Collection, Set)}, for a map of ticket ids to change times. */
+    static TicketDigests of(Map<Integer, String> changetimes, Set<Integer> ignoredIds) {
+        TicketDigests digests = new TicketDigests();
+        for (Map.Entry<Integer, String> entry : changetimes.entrySet()) {
+            if (!ignoredIds.contains(entry.getKey())) {
+                digests.add(entry.getKey(), entry.getValue());
+            }
+        }
+        return digests;
+    }
+
+    void add(int id, String changetime) {
+        long h = id * 0x9E3779B97F4A7C15L + Objects.hashCode(changetime);
+        m_Digests.merge(getRange(id), mix(h), Long::sum);
+    }
+
+    /** The splitmix64 finalizer, so that similar ids and times give unrelated digests. */
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    static int getRange(int id) {
+        return id / RANGE_SIZE;
+    }
+
+    /** @return the ranges whose digests differ, including those only one side has. */
+    Set<Integer> findDivergentRanges(TicketDigests other) {
+        Set<Integer> result = new HashSet<>();
+        for (Map.Entry<Integer, Long> entry : m_Digests.entrySet()) {
+            if (!entry.getValue().equals(other.m_Digests.get(entry.getKey()))) {
+                result.add(entry.getKey());
+            }
+        }
+        for (Integer range : other.m_Digests.keySet()) {
+            if (!m_Digests.containsKey(range)) {
+                result.add(range);
+            }
+        }
+        return result;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
@@ -42,11 +43,12 @@ public abstract class TicketLoadTask extends SwingWorker<List<String>, Update> {
      * generated ticket data from the publish() method (on background thread) to
      * the process() method (on the EDT).
      * <p>
-     * If (ticketProvider != null) then extract the tickets from it, otherwise process the
-     * status messages.
+     * If (ticketProvider != null) then extract the tickets from it, if (removedTicketIds != null)
+     * then remove those tickets, otherwise process the status messages.
      */
     public static class Update {
         public final TicketProvider ticketProvider;
+        public final Set<Integer> removedTicketIds;
         public final String summaryMessage;
         public final String detailMessage;
 
@@ -54,12 +56,22 @@ public abstract class TicketLoadTask extends SwingWorker<List<String>, Update> {
             this.detailMessage = null;
             this.summaryMessage = null;
             this.ticketProvider = tp;
+            this.removedTicketIds = null;
+        }
+
+        /** Tickets no longer on the server (or no longer matching the site's filter). */
+        public Update(Set<Integer> removedTicketIds) {
+            this.detailMessage = null;
+            this.summaryMessage = null;
+            this.ticketProvider = null;
+            this.removedTicketIds = removedTicketIds;
         }
 
         public Update(String summaryMessage, String detailMessage) {
             this.detailMessage = detailMessage;
             this.summaryMessage = summaryMessage;
             this.ticketProvider = null;
+            this.removedTicketIds = null;
         }
 
         /** A special update meaning "job complete" */
@@ -67,11 +79,12 @@ public abstract class TicketLoadTask extends SwingWorker<List<String>, Update> {
             this.detailMessage = null;
             this.summaryMessage = null;
             this.ticketProvider = null;
+            this.removedTicketIds = null;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(detailMessage, summaryMessage, ticketProvider);
+            return Objects.hash(detailMessage, summaryMessage, ticketProvider, removedTicketIds);
         }
 
         @Override
@@ -84,6 +97,7 @@ public abstract class TicketLoadTask extends SwingWorker<List<String>, Update> {
             }
             Update other = (Update) obj;
             return Objects.equals(ticketProvider, other.ticketProvider)
+                    && Objects.equals(removedTicketIds, other.removedTicketIds)
                     && Objects.equals(summaryMessage, other.summaryMessage)
                     && Objects.equals(detailMessage, other.detailMessage);
         }
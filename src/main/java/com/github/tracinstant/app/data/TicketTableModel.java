@@ -19,8 +19,10 @@ package com.github.tracinstant.app.data;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -39,7 +41,8 @@ public class TicketTableModel extends AbstractTableModel {
     // NOTE: "changetime" and "Modified" are aliases, depending on the Trac server version
     // TODO: Remove "title" at the parsing level? e.g. for memory and search speed?
     private final Set<String> excludedFields = new TreeSet<>(
-            Arrays.asList("description", "link", "title", "changetime", "Modified"));
+            Arrays.asList("description", Ticket.WIKI_DESCRIPTION, "link", "title", "changetime",
+                    "Modified"));
 
     private static final int TICKET_NUMBER_COLUMN = 0;
 
@@ -54,6 +57,20 @@ public class TicketTableModel extends AbstractTableModel {
     /** Columns currently in use. */
     private String[] shownColumns = new String[0];
 
+    /** An index of the tickets loaded from the cache, if there is one. */
+    private TrigramIndex searchIndex = null;
+
+    /** Tickets the search index may not describe: merged since the cache, or user data. */
+    private final BitSet changedSinceIndexed = new BitSet();
+
+    private boolean trackingChanges = false;
+
+    /** Identifies the tickets since the model was last cleared. */
+    private int generation = 0;
+
+    /** The numbers of the tickets that have been viewed, least recently viewed first. */
+    private final Map<Integer, Boolean> viewed = new LinkedHashMap<>(16, 0.75f, true);
+
     public SortedSet<String> getUserFields() {
         return Collections.unmodifiableSortedSet(userFields);
     }
@@ -66,25 +83,26 @@ public class TicketTableModel extends AbstractTableModel {
         return Collections.unmodifiableSet(excludedFields);
     }
 
+    /**
+     * The tickets (not copies) with any of the fields, for writing just those fields. NB: the
+     * tickets are only safe to read on the EDT.
+     */
     public List<Ticket> getTicketsWithAnyField(Collection<String> fields) {
         List<Ticket> result = new ArrayList<>(tickets.length);
         for (Ticket t : tickets) {
-            Ticket copy = new Ticket(t.getNumber());
             for (String f : fields) {
-                String value = t.getValue(f);
-                if (value != null) {
-                    copy.putField(f, value);
+                if (t.getRawValue(f) != null) {
+                    result.add(t);
+                    break;
                 }
             }
-            if (!copy.getFieldNames().isEmpty()) {
-                result.add(copy);
-            }
         }
         return result;
     }
 
     public void mergeTicketsAsHidden(Collection<Ticket> newTickets) {
         mergeTicketFieldsInto(newTickets, excludedFields);
+        markChanged(newTickets); // (Never indexed)
         mergeTickets(newTickets);
     }
 
@@ -92,6 +110,9 @@ public class TicketTableModel extends AbstractTableModel {
         if (newTickets.isEmpty()) {
             return;
         }
+        if (trackingChanges) {
+            markChanged(newTickets);
+        }
 
         int oldRowCount = getRowCount();
 
@@ -118,6 +139,74 @@ public class TicketTableModel extends AbstractTableModel {
         }
     }
 
+    private void markChanged(Collection<Ticket> newTickets) {
+        for (Ticket ticket : newTickets) {
+            changedSinceIndexed.set(ticket.getNumber());
+        }
+    }
+
+    /**
+     * Sets a field of one of the tickets, such as user data from a plugin, noting that the search
+     * index no longer describes it.
+     */
+    public void setTicketField(Ticket ticket, String field, String value) {
+        ticket.putField(field, value);
+        changedSinceIndexed.set(ticket.getNumber());
+    }
+
+    /**
+     * Called once the tickets from the cache have been merged, so that those merged afterwards
+     * are always searched, not looked up in the cache's search index.
+     *
+     * @return the generation to pass to {@link #setSearchIndex}
+     */
+    int trackChangesForSearchIndex() {
+        trackingChanges = true;
+        return generation;
+    }
+
+    /** Uses the index of the cache, unless the model has been cleared since it was loaded. */
+    void setSearchIndex(TrigramIndex index, int generationWhenLoaded) {
+        if (generationWhenLoaded == generation) {
+            searchIndex = index;
+        }
+    }
+
+    /**
+     * @return the numbers of the tickets that may contain the text (ignoring ASCII case) in any
+     *     of their fields or their number, or null if all tickets may.
+     */
+    public BitSet findTicketsThatMayContain(String text) {
+        if (searchIndex == null) {
+            return null;
+        }
+        BitSet result = searchIndex.findTicketsThatMayContain(text);
+        if (result != null) {
+            result.or(changedSinceIndexed);
+        }
+        return result;
+    }
+
+    /** Notes that the ticket is being viewed, so its text is kept in memory for longest. */
+    public void ticketViewed(Ticket ticket) {
+        viewed.put(ticket.getNumber(), Boolean.TRUE);
+    }
+
+    /** @return the numbers of the tickets viewed, least recently viewed first. */
+    List<Integer> getViewedTicketNumbers() {
+        return new ArrayList<>(viewed.keySet());
+    }
+
+    public void removeTickets(Set<Integer> ids) {
+        Ticket[] remaining = Arrays.stream(tickets)
+                .filter(t -> !ids.contains(t.getNumber()))
+                .toArray(Ticket[]::new);
+        if (remaining.length != tickets.length) {
+            tickets = remaining;
+            fireTableDataChanged();
+        }
+    }
+
     private Map<Integer, Ticket> getTicketsAsMap() {
         Map<Integer, Ticket> ticketMap = new TreeMap<>();
         for (Ticket ticket : tickets) {
@@ -126,6 +215,15 @@ public class TicketTableModel extends AbstractTableModel {
         return ticketMap;
     }
 
+    /** Merges tickets into a map, in the same way as the model, noting their fields. */
+    static void mergeIntoMap(Map<Integer, Ticket> ticketMap, Collection<Ticket> newTickets,
+            Set<String> fields) {
+        for (Ticket newTicket : newTickets) {
+            mergeIntoMap(ticketMap, newTicket);
+        }
+        mergeTicketFieldsInto(newTickets, fields);
+    }
+
     private static void mergeIntoMap(Map<Integer, Ticket> ticketMap, Ticket t) {
         int id = t.getNumber();
         Ticket existing = ticketMap.get(id);
@@ -136,7 +234,7 @@ public class TicketTableModel extends AbstractTableModel {
         }
     }
 
-    private void mergeTicketFieldsInto(Collection<Ticket> newTickets, Set<String> set) {
+    private static void mergeTicketFieldsInto(Collection<Ticket> newTickets, Set<String> set) {
         for (Ticket ticket : newTickets) {
             set.addAll(ticket.getFieldNames());
         }
@@ -205,6 +303,11 @@ public class TicketTableModel extends AbstractTableModel {
     }
 
     public void clear() {
+        searchIndex = null;
+        changedSinceIndexed.clear();
+        trackingChanges = false;
+        ++generation;
+        viewed.clear();
         knownFields.clear();
         shownColumns = new String[0];
         fireTableStructureChanged();
@@ -41,16 +41,19 @@ public class TracTabResult implements TicketProvider {
     }
 
     public void addTicketFromFields(String[] values) {
-        int len = values.length;
+        addTicketFromFields(values, values.length);
+    }
+
+    /**
+     * @param values The array may be reused by the caller after this returns.
+     * @param len The number of values used.
+     */
+    public void addTicketFromFields(String[] values, int len) {
         if (len > m_Headings.length) {
             System.out.println("Mismatched line (stray Tab characters?): " +
-                Arrays.toString(values));
+                Arrays.toString(Arrays.copyOf(values, len)));
             return;
         }
-        if (len < m_Headings.length) {
-            values = Arrays.copyOf(values, m_Headings.length);
-            Arrays.fill(values, values.length, m_Headings.length, "");
-        }
 
         try {
             Ticket ticket = new Ticket(Integer.parseInt(values[0]));
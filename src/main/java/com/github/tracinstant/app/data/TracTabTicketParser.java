@@ -17,15 +17,38 @@
 
 package com.github.tracinstant.app.data;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
-import au.com.bytecode.opencsv.CSVReader;
-
+/**
+ * Parses Trac's tab-delimited format (also used for our local caches) into tickets.
+ * <p>
+ * Performance matters here: this parses both cache files at startup and every slurp. Fields are
+ * tokenized in-place by {@link TracTabTokenizer} and the short (repetitive) values looked up in
+ * a {@link StringPool}, so most fields never exist as a separate String at all.
+ */
 public class TracTabTicketParser {
 
-    private final BufferedReader reader;
+    /** Values at least this long are not interned. (See Ticket.) */
+    private static final int MAX_POOLED_LENGTH = 200;
+
+    private final TracTabTokenizer tokenizer;
+    private final StringPool pool = new StringPool();
+
+    /** The values of the record being parsed. */
+    private String[] values = new String[16];
+    private int valueCount = 0;
+
+    public static TicketProvider parse(InputStream in) throws IOException, InterruptedException {
+        return parse(new InputStreamReader(new BufferedInputStream(in), StandardCharsets.UTF_8));
+    }
 
     public static TicketProvider parse(Reader reader) throws IOException, InterruptedException {
         TracTabTicketParser parser = new TracTabTicketParser(reader);
@@ -33,36 +56,39 @@ public class TracTabTicketParser {
     }
 
     private TracTabTicketParser(Reader reader) {
-        this.reader = new BufferedReader(reader);
+        this.tokenizer = new TracTabTokenizer(reader);
     }
 
     private TicketProvider parseFile() throws IOException, InterruptedException {
+        List<String> headingList = new ArrayList<>();
+        if (tokenizer.nextRecord((buf, start, len) ->
+                headingList.add(new String(buf, start, len))) < 0) {
+            throw new IOException("Empty input given");
+        }
 
-        // Tab delimited reader with no un-escaping of '\' characters.
-        CSVReader csvReader = new CSVReader(reader, '\t', '"', '\0');
+        final TracTabResult result;
         try {
-            String[] headings = csvReader.readNext();
-            if (headings == null) {
-                throw new IOException("Empty input given");
-            }
+            result = new TracTabResult(headingList.toArray(new String[0]));
+        } catch (RuntimeException ex) {
+            throw new IOException(ex);
+        }
 
-            final TracTabResult result;
-            try {
-                result = new TracTabResult(headings);
-            } catch (RuntimeException ex) {
-                throw new IOException(ex);
+        while (tokenizer.nextRecord(this::addValue) >= 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
             }
+            result.addTicketFromFields(values, valueCount);
+            valueCount = 0;
+        }
+        return result;
+    }
 
-            String[] fields;
-            while ((fields = csvReader.readNext()) != null) {
-                if (Thread.currentThread().isInterrupted()) {
-                    throw new InterruptedException();
-                }
-                result.addTicketFromFields(fields);
-            }
-            return result;
-        } finally {
-            csvReader.close();
+    private void addValue(char[] buf, int start, int length) {
+        if (valueCount == values.length) {
+            values = Arrays.copyOf(values, valueCount * 2);
         }
+        values[valueCount++] = (length < MAX_POOLED_LENGTH)
+                ? pool.get(buf, start, length)
+                : new String(buf, start, length);
     }
 }
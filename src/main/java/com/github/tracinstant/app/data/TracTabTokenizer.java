@@ -0,0 +1,190 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits Trac's tab-delimited format into fields, working in-place on one large character buffer.
+ * Each field is handed to a {@link FieldSink} as a slice of that buffer, so that no String needs
+ * to be created for values which are already known (see {@link StringPool}).
+ * <p>
+ * Quoting follows what Trac (Python's csv module) and our own cache writer produce: a field
+ * starting with <code>"</code> is quoted, within which <code>""</code> is a literal quote and
+ * tabs and line breaks are data. As with the BufferedReader-based parser this replaces, line
+ * breaks inside quoted fields are normalised to <code>\n</code>.
+ */
+final class TracTabTokenizer {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Receives the fields of a record. The slice is only valid for the duration of the call. */
+    interface FieldSink {
+        void field(char[] buffer, int start, int length);
+    }
+
+    private final Reader m_Reader;
+    private char[] m_Buffer;
+
+    /** The next character to read. */
+    private int m_Pos = 0;
+
+    /** End of the valid data in the buffer. */
+    private int m_Limit = 0;
+
+    /** Start of the field in progress, which must be retained when the buffer is refilled. */
+    private int m_FieldStart = 0;
+
+    /** Where the next character of the field in progress is written (un-escaping shrinks it). */
+    private int m_Out = 0;
+
+    private enum Terminator { TAB, END_OF_LINE, END_OF_INPUT }
+
+    TracTabTokenizer(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    TracTabTokenizer(Reader reader, int bufferSize) {
+        m_Reader = reader;
+        m_Buffer = new char[bufferSize];
+    }
+
+    /**
+     * Reads the next record, passing each of its fields to the sink in turn. Blank lines are
+     * skipped.
+     *
+     * @return the number of fields in the record, or -1 at the end of the input.
+     */
+    int nextRecord(FieldSink sink) throws IOException {
+        while (true) {
+            m_FieldStart = m_Pos;
+            if (m_Pos == m_Limit && !fill()) {
+                return -1;
+            }
+            if (isBlankLine()) {
+                continue;
+            }
+            int count = 0;
+            Terminator terminator;
+            do {
+                terminator = readField();
+                sink.field(m_Buffer, m_FieldStart, m_Out - m_FieldStart);
+                ++count;
+            } while (terminator == Terminator.TAB);
+            return count;
+        }
+    }
+
+    /** Consumes a line break at the current position, if there is one. */
+    private boolean isBlankLine() throws IOException {
+        char c = m_Buffer[m_Pos];
+        if (c == '\n') {
+            ++m_Pos;
+            return true;
+        }
+        if (c == '\r') {
+            ++m_Pos;
+            skipLineFeed();
+            return true;
+        }
+        return false;
+    }
+
+    private Terminator readField() throws IOException {
+        m_FieldStart = m_Pos;
+        m_Out = m_Pos;
+        if (m_Pos == m_Limit && !fill()) {
+            return Terminator.END_OF_INPUT;
+        }
+        boolean quoted = m_Buffer[m_Pos] == '"';
+        if (quoted) {
+            ++m_Pos;
+        }
+        while (true) {
+            if (m_Pos == m_Limit && !fill()) {
+                return Terminator.END_OF_INPUT;
+            }
+            char c = m_Buffer[m_Pos++];
+            if (quoted) {
+                if (c == '"') {
+                    if (m_Pos == m_Limit && !fill()) {
+                        return Terminator.END_OF_INPUT;
+                    }
+                    if (m_Buffer[m_Pos] == '"') {
+                        m_Buffer[m_Out++] = '"';
+                        ++m_Pos;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '\r') {
+                    skipLineFeed();
+                    m_Buffer[m_Out++] = '\n';
+                } else {
+                    m_Buffer[m_Out++] = c;
+                }
+            } else if (c == '\t') {
+                return Terminator.TAB;
+            } else if (c == '\n') {
+                return Terminator.END_OF_LINE;
+            } else if (c == '\r') {
+                skipLineFeed();
+                return Terminator.END_OF_LINE;
+            } else {
+                m_Buffer[m_Out++] = c;
+            }
+        }
+    }
+
+    /** Completes a "\r\n" pair, having just read the '\r'. */
+    private void skipLineFeed() throws IOException {
+        if ((m_Pos < m_Limit || fill()) && m_Buffer[m_Pos] == '\n') {
+            ++m_Pos;
+        }
+    }
+
+    /**
+     * Reads more data, first moving the field in progress to the start of the buffer (growing
+     * the buffer only when a single field fills it).
+     *
+     * @return false at the end of the input.
+     */
+    private boolean fill() throws IOException {
+        if (m_FieldStart > 0) {
+            int shift = m_FieldStart;
+            System.arraycopy(m_Buffer, shift, m_Buffer, 0, m_Limit - shift);
+            m_Limit -= shift;
+            m_Pos -= shift;
+            m_Out -= shift;
+            m_FieldStart = 0;
+        }
+        if (m_Limit == m_Buffer.length) {
+            m_Buffer = Arrays.copyOf(m_Buffer, m_Buffer.length * 2);
+        }
+        int read;
+        do {
+            read = m_Reader.read(m_Buffer, m_Limit, m_Buffer.length - m_Limit);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        m_Limit += read;
+        return true;
+    }
+}
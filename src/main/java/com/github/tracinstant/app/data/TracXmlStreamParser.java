@@ -0,0 +1,186 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.github.tracinstant.util.XML10FilterReader;
+
+/**
+ * A pull-parser (StAX) alternative to {@link TracXmlTicketParser}. Rather than building a DOM of
+ * the whole RSS page (which for long HTML descriptions is many times the size of the payload)
+ * only the few elements we use are pulled out, straight into the Ticket fields.
+ */
+public class TracXmlStreamParser {
+
+    /**
+     * Configured once. Creating readers from a factory that is no longer being configured is
+     * thread-safe in the JDK implementation.
+     */
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    /** Never constructed */
+    private TracXmlStreamParser() {}
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Parses UTF-8 encoded RSS, filtering-out characters that are not valid in XML 1.0 on the
+     * way through. (Some servers spew out control characters pasted into ticket descriptions.)
+     */
+    public static TracXmlResult parse(InputStream in) throws IOException {
+        return parse(new XML10FilterReader(new InputStreamReader(
+                new BufferedInputStream(in), StandardCharsets.UTF_8)));
+    }
+
+    public static TracXmlResult parse(Reader reader) throws IOException {
+        XMLStreamReader xml = null;
+        try {
+            xml = FACTORY.createXMLStreamReader(reader);
+            return readRSS(xml);
+        } catch (XMLStreamException ex) {
+            throw new IOException("RSS parse error: " + ex.getMessage(), ex);
+        } finally {
+            closeQuietly(xml);
+        }
+    }
+
+    private static TracXmlResult readRSS(XMLStreamReader xml)
+            throws IOException, XMLStreamException {
+        xml.nextTag();
+        String rssTagName = xml.getLocalName();
+        if (!"rss".equals(rssTagName)) {
+            throw new IOException(
+                "Document does not appear to be an RSS document. " +
+                "Expected the XML root to be " +
+                "'rss', but found: " + rssTagName);
+        }
+
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if ("channel".equals(xml.getLocalName())) {
+                return readChannel(xml);
+            }
+            skipElement(xml);
+        }
+        throw new IOException("Expected a single child of 'rss' node named 'channel'.");
+    }
+
+    private static TracXmlResult readChannel(XMLStreamReader xml)
+            throws IOException, XMLStreamException {
+        TracXmlResult data = new TracXmlResult();
+        while (nextChildElement(xml)) {
+            String tag = xml.getLocalName();
+            if ("item".equals(tag)) {
+                data.addTicket(readItem(xml));
+            } else if ("title".equals(tag)) {
+                data.setTitle(xml.getElementText());
+            } else if ("link".equals(tag)) {
+                data.setLink(xml.getElementText());
+            } else if ("description".equals(tag)) {
+                data.setDescription(xml.getElementText());
+            } else {
+                skipElement(xml);
+            }
+        }
+        return data;
+    }
+
+    private static Ticket readItem(XMLStreamReader xml) throws IOException, XMLStreamException {
+        String title = null;
+        String description = null;
+        String link = null;
+        while (nextChildElement(xml)) {
+            String tag = xml.getLocalName();
+            if ("title".equals(tag)) {
+                title = xml.getElementText();
+            } else if ("description".equals(tag)) {
+                description = xml.getElementText();
+            } else if ("link".equals(tag)) {
+                link = xml.getElementText();
+            } else {
+                skipElement(xml);
+            }
+        }
+        if (link == null) {
+            throw new IOException("Invalid Ticket in RSS - no link found");
+        }
+
+        // For now, we just set the Ticket's field name to the XML tag (as the DOM parser does)
+        Ticket ticket = new Ticket(TracXmlTicketParser.extractTicketNumber(link));
+        ticket.putField("title", title);
+        ticket.putField("description", description);
+        return ticket;
+    }
+
+    /**
+     * Advances to the next child of the current element.
+     * @return false when the end of the current element is reached instead.
+     */
+    private static boolean nextChildElement(XMLStreamReader xml) throws XMLStreamException {
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /** Skips past the end of the current element, including all of its content. */
+    private static void skipElement(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                ++depth;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                --depth;
+            }
+        }
+    }
+
+    private static void closeQuietly(XMLStreamReader xml) {
+        if (xml != null) {
+            try {
+                xml.close();
+            } catch (XMLStreamException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
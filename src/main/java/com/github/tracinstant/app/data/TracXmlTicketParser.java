@@ -118,7 +118,10 @@ public class TracXmlTicketParser {
         if (linkElement == null) {
             throw new IOException("Invalid Ticket in RSS - no link found");
         }
-        String link = linkElement.getTextContent();
+        return extractTicketNumber(linkElement.getTextContent());
+    }
+
+    static int extractTicketNumber(String link) throws IOException {
         Matcher m = TICKET_URL_NUMBER_FINDER.matcher(link);
         if (m.matches()) {
             try {
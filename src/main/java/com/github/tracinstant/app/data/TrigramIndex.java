@@ -0,0 +1,306 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Which tickets contain each trigram (three consecutive characters, ignoring ASCII case) of
+ * their fields' text, saved beside the cache files so that it needn't be built at startup.
+ * Searching for a piece of text need then only check the tickets that contain all its
+ * trigrams, rather than every ticket's description.
+ * <p>
+ * Trigrams are hashed to ints, so a lookup may find extra tickets (but never misses any). The
+ * index describes the cache files it was saved with, identified by a {@link #digest} of their
+ * contents; it says nothing about tickets changed since.
+ * <pre>
+ *   int      MAGIC, VERSION
+ *   long     digest of the tickets indexed
+ *   int      trigram count, then per trigram (in order): int hash, int ticket count,
+ *            int offset of its postings from the end of this table
+ *   postings per trigram: ticket numbers in increasing order, as varint differences
+ * </pre>
+ * The file is memory-mapped, and postings are decoded only when looked up.
+ */
+final class TrigramIndex {
+
+    static final String FILE_NAME = "SiteCache_Index.bin";
+
+    private static final int MAGIC = 0x54494458; // "TIDX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final int ENTRY_SIZE = 12;
+
+    /** The rarest trigrams of the text are enough to narrow down the candidates. */
+    private static final int MAX_TRIGRAMS_PER_LOOKUP = 8;
+
+    private final ByteBuffer data;
+    private final int trigramCount;
+    private final int postingsStart;
+
+    private TrigramIndex(ByteBuffer data) {
+        this.data = data;
+        trigramCount = data.getInt(16);
+        postingsStart = HEADER_SIZE + trigramCount * ENTRY_SIZE;
+    }
+
+    /**
+     * @return the numbers of the tickets that may contain the text, or null if the text is too
+     *     short to say.
+     */
+    BitSet findTicketsThatMayContain(String text) {
+        int[] hashes = hashTrigrams(text);
+        if (hashes.length == 0) {
+            return null;
+        }
+        long[] entries = new long[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            int entry = findEntry(hashes[i]);
+            if (entry < 0) {
+                return new BitSet();
+            }
+            int count = data.getInt(HEADER_SIZE + entry * ENTRY_SIZE + 4);
+            entries[i] = (long) count << 32 | entry;
+        }
+        Arrays.sort(entries); // Rarest first
+        try {
+            BitSet result = null;
+            for (int i = 0; i < entries.length && i < MAX_TRIGRAMS_PER_LOOKUP; i++) {
+                BitSet tickets = readPostings((int) entries[i]);
+                if (result == null) {
+                    result = tickets;
+                } else {
+                    result.and(tickets);
+                }
+            }
+            return result;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException
+                | IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private int findEntry(int hash) {
+        int low = 0;
+        int high = trigramCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midHash = data.getInt(HEADER_SIZE + mid * ENTRY_SIZE);
+            if (midHash < hash) {
+                low = mid + 1;
+            } else if (midHash > hash) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private BitSet readPostings(int entry) {
+        int position = HEADER_SIZE + entry * ENTRY_SIZE;
+        int count = data.getInt(position + 4);
+        ByteBuffer in = data.duplicate();
+        in.position(postingsStart + data.getInt(position + 8));
+        BitSet result = new BitSet();
+        int id = 0;
+        for (int i = 0; i < count; i++) {
+            id += BinaryTicketCache.readVarInt(in);
+            result.set(id);
+        }
+        return result;
+    }
+
+    /** @return null if the file is not an index of the tickets with this digest. */
+    static TrigramIndex read(Path file, long digest) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC
+                    || data.getInt(4) != VERSION || data.getLong(8) != digest) {
+                return null;
+            }
+            int trigramCount = data.getInt(16);
+            if (trigramCount < 0
+                    || trigramCount > (data.limit() - HEADER_SIZE) / ENTRY_SIZE) {
+                throw new IOException("Corrupt search index");
+            }
+            return new TrigramIndex(data);
+        }
+    }
+
+    /** Indexes the tickets' values of the fields (and their numbers) for the given digest. */
+    static void write(OutputStream stream, Collection<Ticket> tickets, Collection<String> fields,
+            long digest) throws IOException {
+        List<Ticket> sorted = new ArrayList<>(tickets);
+        sorted.sort((t1, t2) -> Integer.compare(t1.getNumber(), t2.getNumber()));
+
+        Map<Integer, Postings> postings = new HashMap<>();
+        for (Ticket ticket : sorted) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IOException("Interrupted while indexing");
+            }
+            List<CharSequence> texts = new ArrayList<>(fields.size() + 1);
+            texts.add(Integer.toString(ticket.getNumber()));
+            for (String field : fields) {
+                CharSequence text = ticket.getTextForScanning(field);
+                if (text != null) {
+                    texts.add(text);
+                }
+            }
+            for (int hash : hashTrigrams(texts)) {
+                postings.computeIfAbsent(hash, h -> new Postings()).add(ticket.getNumber());
+            }
+        }
+
+        int[] hashes = postings.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(digest);
+        out.writeInt(hashes.length);
+        int offset = 0;
+        for (int hash : hashes) {
+            Postings p = postings.get(hash);
+            out.writeInt(hash);
+            out.writeInt(p.size);
+            out.writeInt(offset);
+            offset += p.encodedLength;
+        }
+        for (int hash : hashes) {
+            postings.get(hash).writeTo(out);
+        }
+        out.flush();
+    }
+
+    /** The ticket numbers containing a trigram, as varint differences. */
+    private static final class Postings {
+        private byte[] encoded = new byte[8];
+        private int encodedLength = 0;
+        private int size = 0;
+        private int last = 0;
+
+        void add(int id) {
+            if (encodedLength + 5 > encoded.length) {
+                encoded = Arrays.copyOf(encoded, encoded.length * 2);
+            }
+            int value = id - last;
+            while ((value & ~0x7F) != 0) {
+                encoded[encodedLength++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            encoded[encodedLength++] = (byte) value;
+            last = id;
+            ++size;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(encoded, 0, encodedLength);
+        }
+    }
+
+    private static int[] hashTrigrams(CharSequence text) {
+        return hashTrigrams(Arrays.asList(text));
+    }
+
+    /** @return the distinct hashes of the trigrams in the texts, in order. */
+    private static int[] hashTrigrams(List<CharSequence> texts) {
+        int count = 0;
+        for (CharSequence text : texts) {
+            count += Math.max(0, text.length() - 2);
+        }
+        int[] hashes = new int[count];
+        int n = 0;
+        for (CharSequence text : texts) {
+            for (int i = 0; i + 2 < text.length(); i++) {
+                long trigram = (long) fold(text.charAt(i)) << 32
+                    | (long) fold(text.charAt(i + 1)) << 16
+                    | fold(text.charAt(i + 2));
+                hashes[n++] = (int) mix(trigram);
+            }
+        }
+        Arrays.sort(hashes);
+        int distinct = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                hashes[distinct++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, distinct);
+    }
+
+    /** As the (non-Unicode) case-insensitive search patterns do: only ASCII letters. */
+    private static int fold(char c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    /** The splitmix64 finalizer. */
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * An order-independent digest of the tickets' fields, from a CRC of each value's UTF-8 bytes
+     * (read straight from the file, for mapped values) so that any edit is noticed.
+     *
+     * @param fields the fields to include, or null for all of each ticket's fields
+     */
+    static long digest(Collection<Ticket> tickets, Collection<String> fields) {
+        long digest = 0;
+        CRC32 crc = new CRC32();
+        for (Ticket ticket : tickets) {
+            for (String field : fields == null ? ticket.getFieldNames() : fields) {
+                CharSequence value = ticket.getRawValue(field);
+                if (value == null || value.length() == 0) {
+                    continue; // (The tab-delimited cache has empty values for null ones)
+                }
+                crc.reset();
+                if (value instanceof MappedText) {
+                    ((MappedText) value).addTo(crc);
+                } else {
+                    crc.update(value.toString().getBytes(StandardCharsets.UTF_8));
+                }
+                long h = ticket.getNumber() * 0x9E3779B97F4A7C15L
+                    + field.toLowerCase().hashCode() * 0xC2B2AE3D27D4EB4FL
+                    + crc.getValue();
+                digest += mix(h);
+            }
+        }
+        return digest;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.swing.SortOrder;
+
+/**
+ * What the ticket table showed when the application last exited: the search, the sort order and
+ * just the rows in view (with only the values of the table's columns). It is shown at startup in
+ * place of the table, until the cache has loaded and been searched.
+ * <pre>
+ *   int      MAGIC, VERSION
+ *   UTF      search text
+ *   int      sort key count, then per key: UTF column name, UTF sort order
+ *   int      pixels of the top row scrolled out of view
+ *   the tickets, in the order shown, in the {@link BinaryTicketCache} format
+ * </pre>
+ */
+public final class ViewSnapshot {
+
+    static final String FILE_NAME = "SiteCache_View.bin";
+
+    private static final int MAGIC = 0x54495653; // "TIVS"
+    private static final int VERSION = 1;
+
+    public final String searchText;
+
+    /** Column names, most significant first. */
+    public final Map<String, SortOrder> sortKeys;
+
+    /** The tickets in the order shown, with just the values of the table's columns. */
+    public final List<Ticket> tickets;
+
+    /** How far the view was scrolled past the top of the first ticket's row. */
+    public final int topRowOffset;
+
+    public ViewSnapshot(String searchText, Map<String, SortOrder> sortKeys, List<Ticket> tickets,
+            int topRowOffset) {
+        this.searchText = searchText;
+        this.sortKeys = Collections.unmodifiableMap(new LinkedHashMap<>(sortKeys));
+        this.tickets = Collections.unmodifiableList(new ArrayList<>(tickets));
+        this.topRowOffset = topRowOffset;
+    }
+
+    void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(searchText);
+        out.writeInt(sortKeys.size());
+        for (Map.Entry<String, SortOrder> key : sortKeys.entrySet()) {
+            out.writeUTF(key.getKey());
+            out.writeUTF(key.getValue().name());
+        }
+        out.writeInt(topRowOffset);
+        Set<String> fields = new TreeSet<>();
+        for (Ticket ticket : tickets) {
+            fields.addAll(ticket.getFieldNames());
+        }
+        BinaryTicketCache.write(out, fields, tickets);
+        out.flush();
+    }
+
+    /** @throws IOException if the file is not a snapshot (of this version), or is truncated. */
+    static ViewSnapshot read(Path file) throws IOException, InterruptedException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteArrayInputStream stream = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a view snapshot (of this version): " + file);
+        }
+        String searchText = in.readUTF();
+        int keyCount = in.readInt();
+        if (keyCount < 0 || keyCount > stream.available()) {
+            throw new IOException("Corrupt view snapshot: " + file);
+        }
+        Map<String, SortOrder> sortKeys = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < keyCount; i++) {
+                sortKeys.put(in.readUTF(), SortOrder.valueOf(in.readUTF()));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt view snapshot: " + file, e);
+        }
+        int topRowOffset = in.readInt();
+        int ticketsStart = bytes.length - stream.available();
+        ByteBuffer tickets = ByteBuffer.wrap(bytes, ticketsStart, bytes.length - ticketsStart);
+        return new ViewSnapshot(searchText, sortKeys,
+            BinaryTicketCache.read(tickets, 1).getTickets(), topRowOffset);
+    }
+}
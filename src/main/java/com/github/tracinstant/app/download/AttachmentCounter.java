@@ -42,6 +42,7 @@ import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
 
 import com.github.tracinstant.app.data.AuthenticatedHttpRequester;
+import com.github.tracinstant.app.data.RequestGovernor.Priority;
 import com.github.tracinstant.app.data.Ticket;
 import com.github.tracinstant.app.download.Downloadable.FileDownloadable;
 import com.github.tracinstant.app.download.Downloadable.TracDownloadable;
@@ -281,7 +282,8 @@ public class AttachmentCounter {
         }
 
         private InputStream getAuthenticatedInputStream(URL url) throws IOException {
-            return AuthenticatedHttpRequester.getInputStream(SiteSettings.getInstance(), url);
+            return AuthenticatedHttpRequester.getInputStream(
+                SiteSettings.getInstance(), url, Priority.INTERACTIVE);
         }
 
         @Override
@@ -20,6 +20,8 @@ package com.github.tracinstant.app.download;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -66,10 +68,10 @@ public class AttachmentDownloader extends SwingWorker<Void, Result> {
             publish(new Result(target, Target.State.STARTED));
             File outFile = model.getAbsolutePath(target).toFile();
             outFile.getParentFile().mkdirs();
-            try {
-                FileUtils.copyAndClose(
-                    target.getSource().createInputStream(),
-                    new FileOutputStream(outFile));
+            // Open the file first: the download holds a request slot until its stream is closed.
+            try (OutputStream out = new FileOutputStream(outFile);
+                    InputStream in = target.getSource().createInputStream()) {
+                FileUtils.copy(in, out);
                 publish(new Result(target, Target.State.ENDED));
             } catch (IOException ex) {
                 target.setErrorMessage(ex.toString());
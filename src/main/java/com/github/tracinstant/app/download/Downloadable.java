@@ -29,6 +29,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import com.github.tracinstant.app.data.AuthenticatedHttpRequester;
+import com.github.tracinstant.app.data.RequestGovernor.Priority;
 import com.github.tracinstant.app.prefs.SiteSettings;
 import com.github.tracinstant.app.prefs.TracInstantProperties;
 
@@ -117,7 +118,8 @@ public abstract class Downloadable {
         public InputStream createInputStream() throws IOException {
             try {
                 URL url = new URL(TracInstantProperties.getURL() + m_URL + "?format=raw");
-                return AuthenticatedHttpRequester.getInputStream(SiteSettings.getInstance(), url);
+                return AuthenticatedHttpRequester.getInputStream(
+                    SiteSettings.getInstance(), url, Priority.TRANSFER);
             } catch (MalformedURLException ex) {
                 throw new IOException(ex.getMessage(), ex);
             }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.plugins;
+
+import java.awt.BorderLayout;
+import java.util.function.Supplier;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+
+import com.github.tracinstant.app.data.Ticket;
+
+/**
+ * Stands in for a plugin until it is first shown, so that plugins the user doesn't select cost
+ * nothing at startup. Only suits plugins that need nothing doing until then: not, for example,
+ * one that identifies a user field, which must be known before the user data is loaded.
+ */
+public class LazyToolPlugin extends ToolPlugin {
+
+    private final String m_DisplayName;
+    private final Supplier<ToolPlugin> m_Factory;
+    private final JPanel m_Holder = new JPanel(new BorderLayout());
+    private TicketUpdater m_Updater;
+    private ToolPlugin m_Plugin = null;
+
+    /** @param displayName must be the same as the plugin's own */
+    public LazyToolPlugin(String displayName, Supplier<ToolPlugin> factory) {
+        m_DisplayName = displayName;
+        m_Factory = factory;
+    }
+
+    @Override
+    public JComponent initialise(TicketUpdater updater) {
+        m_Updater = updater;
+        return m_Holder;
+    }
+
+    @Override
+    public void shown() {
+        if (m_Plugin == null) {
+            m_Plugin = m_Factory.get();
+            m_Holder.add(m_Plugin.initialise(m_Updater));
+        }
+        m_Plugin.shown();
+    }
+
+    @Override
+    public void hidden() {
+        if (m_Plugin != null) {
+            m_Plugin.hidden();
+        }
+    }
+
+    @Override
+    public void ticketViewUpdated(Ticket[] inView, Ticket[] selected) {
+        if (m_Plugin != null) {
+            m_Plugin.ticketViewUpdated(inView, selected);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return m_DisplayName;
+    }
+}
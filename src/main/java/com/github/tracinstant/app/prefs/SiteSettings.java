@@ -25,6 +25,7 @@ public class SiteSettings {
     private String attachmentsDir = "";
     private boolean rememberPassword = false;
     private boolean fetchOnlyActiveTickets = false;
+    private boolean renderWikiLocally = false;
     private boolean cacheData = true;
 
     private static final SiteSettings INSTANCE = fromPreferences();
@@ -59,6 +60,10 @@ public class SiteSettings {
         fetchOnlyActiveTickets = b;
     }
 
+    public void setRenderWikiLocally(boolean b) {
+        renderWikiLocally = b;
+    }
+
     public void setCacheData(boolean b) {
         cacheData = b;
     }
@@ -87,6 +92,10 @@ public class SiteSettings {
         return fetchOnlyActiveTickets;
     }
 
+    public boolean isRenderWikiLocally() {
+        return renderWikiLocally;
+    }
+
     public boolean isCacheData() {
         return cacheData;
     }
@@ -100,6 +109,7 @@ public class SiteSettings {
         ss.attachmentsDir = TracInstantProperties.getAttachmentsDir();
         ss.cacheData = TracInstantProperties.getUseCache();
         ss.fetchOnlyActiveTickets = TracInstantProperties.getActiveTicketsOnly();
+        ss.renderWikiLocally = TracInstantProperties.getRenderWikiLocally();
         return ss;
     }
 
@@ -109,6 +119,7 @@ public class SiteSettings {
         TracInstantProperties.addAttachmentsDir_MRU(getAttachmentsDir());
         TracInstantProperties.setUseCache(isCacheData());
         TracInstantProperties.setActiveTicketsOnly(isFetchOnlyActiveTickets());
+        TracInstantProperties.setRenderWikiLocally(isRenderWikiLocally());
         TracInstantProperties.addRememberPassword(isRememberPassword());
         if (isRememberPassword()) {
             TracInstantProperties.addPassword(getPassword());
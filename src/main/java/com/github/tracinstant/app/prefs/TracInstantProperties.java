@@ -19,6 +19,7 @@ package com.github.tracinstant.app.prefs;
 
 import java.awt.Rectangle;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.security.Key;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
@@ -60,6 +61,12 @@ public final class TracInstantProperties {
         s_SharedInstance.get().loadProperties();
     }
 
+    /** Keeps the preferences, and all other data, in the given directory (for tests). */
+    public static void initialise(Path appDataDirectory, String appName) {
+        s_SharedInstance.set(new AppProperties(appDataDirectory, appName));
+        s_SharedInstance.get().loadProperties();
+    }
+
     public static AppProperties get() {
         return s_SharedInstance.get();
     }
@@ -151,6 +158,49 @@ public final class TracInstantProperties {
         get().putBoolean("CacheSlurpedData", bool);
     }
 
+    /**
+     * Whether the cache is saved in the (faster loading) binary format, rather than as
+     * tab-delimited text. Either format is read. There is no UI for this.
+     */
+    public static boolean getUseBinaryCache() {
+        return get().getBoolean("BinaryCache", true);
+    }
+
+    public static void setUseBinaryCache(boolean b) {
+        get().putBoolean("BinaryCache", b);
+    }
+
+    /**
+     * Whether the binary cache is saved compressed: several times smaller, which suits an app
+     * data folder on a network drive, but inflated into memory when loaded rather than read
+     * from disk as needed. Either is read. There is no UI for this.
+     */
+    public static boolean getCompressCache() {
+        return get().getBoolean("CompressCache", false);
+    }
+
+    public static void setCompressCache(boolean b) {
+        get().putBoolean("CompressCache", b);
+    }
+
+    /**
+     * A CSV file to append each run's startup timeline to, or "" (the default) not to. There is no
+     * UI for this.
+     */
+    public static String getStartupTimelineFile() {
+        return get().getString("StartupTimelineFile", "");
+    }
+
+    /**
+     * Megabytes of long field values (descriptions, mostly) kept on the heap before the coldest
+     * are moved to a temporary file; by default a quarter of the maximum heap. Zero keeps them
+     * all. There is no UI for this.
+     */
+    public static int getResidentTextBudgetMB() {
+        int quarterOfHeap = (int) (Runtime.getRuntime().maxMemory() / 4 >> 20);
+        return get().getBoundedInt("ResidentTextBudgetMB", quarterOfHeap, 0, 1 << 20);
+    }
+
     public static boolean getActiveTicketsOnly() {
         return TracInstantProperties.get().getBoolean("FetchActiveTicketsOnly", false);
     }
@@ -159,6 +209,48 @@ public final class TracInstantProperties {
         TracInstantProperties.get().putBoolean("FetchActiveTicketsOnly", b);
     }
 
+    /**
+     * Whether descriptions are downloaded as raw wiki text (in the tab-delimited format) and
+     * rendered locally, rather than downloaded pre-rendered as HTML in Trac's much larger RSS.
+     */
+    public static boolean getRenderWikiLocally() {
+        return get().getBoolean("RenderWikiLocally", false);
+    }
+
+    public static void setRenderWikiLocally(boolean b) {
+        get().putBoolean("RenderWikiLocally", b);
+    }
+
+    /**
+     * Whether RSS pages are parsed with the streaming (StAX) parser rather than by building a
+     * DOM. There is no UI for this; it is a fall-back in case of server-specific problems.
+     */
+    public static boolean getUseStreamingRssParser() {
+        return get().getBoolean("StreamingRssParser", true);
+    }
+
+    /**
+     * The shortest time between background checks for modified tickets, used while tickets are
+     * changing frequently. Zero disables background checks (leaving only the check made each
+     * time the window is activated). There is no UI for this.
+     */
+    public static int getMinPollIntervalSeconds() {
+        return get().getBoundedInt("MinPollIntervalSeconds", 60, 0, 24 * 60 * 60);
+    }
+
+    /** The longest time between background checks, reached while nothing changes. */
+    public static int getMaxPollIntervalSeconds() {
+        return get().getBoundedInt("MaxPollIntervalSeconds", 15 * 60, 1, 24 * 60 * 60);
+    }
+
+    /**
+     * How often an incremental update also checks for tickets it can't see (deleted, or closed
+     * while fetching only active tickets). Zero disables the check.
+     */
+    public static int getDriftCheckIntervalHours() {
+        return get().getBoundedInt("DriftCheckIntervalHours", 6, 0, 24 * 365);
+    }
+
     public static void addURL_MRU(String urlText) {
         addMRU("TracURL_MRU", urlText);
     }
@@ -17,14 +17,25 @@
 
 package com.github.tracinstant.app.ui;
 
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.swing.JEditorPane;
+import javax.swing.SwingWorker;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkEvent.EventType;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.html.HTMLDocument;
+import javax.swing.text.html.HTMLEditorKit;
+import javax.swing.text.html.StyleSheet;
 
 import com.github.tracinstant.app.data.Ticket;
 import com.github.tracinstant.app.data.TicketTableModel;
@@ -33,10 +44,98 @@ import com.github.tracinstant.util.DesktopUtils;
 
 import javax.swing.event.HyperlinkListener;
 
+/**
+ * Displays the selected tickets' descriptions. The HTML is parsed into a document in the
+ * background, so that only installing it (and laying it out) happens on the event dispatch
+ * thread; a build that is overtaken by another selection is cancelled.
+ */
 public class HtmlDescriptionPane extends JEditorPane {
 
+    private static final URL STYLESHEET_TRAC_RESOURCE =
+        HtmlDescriptionPane.class.getResource("res/trac.css");
+
+    // @GuardedBy("HtmlDescriptionPane.class")
+    private static StyleSheet s_TracStyles = null;
+
+    private final TracEditorKit m_Kit = new TracEditorKit();
+
     private String lastDescriptionText = "";
 
+    private DocumentBuilder m_Builder = null;
+
+    /**
+     * Gives each document the default and Trac styles, parsed once and shared, rather than each
+     * document importing (and so parsing) trac.css again.
+     */
+    static final class TracEditorKit extends HTMLEditorKit {
+        @Override
+        public StyleSheet getStyleSheet() {
+            synchronized (HtmlDescriptionPane.class) {
+                if (s_TracStyles == null) {
+                    StyleSheet styles = new StyleSheet();
+                    styles.addStyleSheet(super.getStyleSheet());
+                    styles.importStyleSheet(STYLESHEET_TRAC_RESOURCE);
+                    s_TracStyles = styles;
+                }
+                return s_TracStyles;
+            }
+        }
+    }
+
+    /** Lets cancelling a build stop the parser, which otherwise reads to the end of the text. */
+    private static final class InterruptibleReader extends FilterReader {
+        InterruptibleReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkInterrupted();
+            return super.read();
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            checkInterrupted();
+            return super.read(cbuf, off, len);
+        }
+
+        private static void checkInterrupted() throws InterruptedIOException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Description no longer wanted");
+            }
+        }
+    }
+
+    private final class DocumentBuilder extends SwingWorker<HTMLDocument, Void> {
+        private final String text;
+
+        DocumentBuilder(String text) {
+            this.text = text;
+        }
+
+        @Override
+        protected HTMLDocument doInBackground() throws IOException, BadLocationException {
+            return buildDocument(m_Kit, text);
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled() || m_Builder != this) {
+                return;
+            }
+            m_Builder = null;
+            try {
+                setDocument(get());
+                setCaretPosition(0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+            }
+        }
+    }
+
     private static final class MyHyperlinkListener implements HyperlinkListener {
 
         private final Pattern TICKET_URL_PATTERN =
@@ -77,7 +176,7 @@ public class HtmlDescriptionPane extends JEditorPane {
     }
 
     public HtmlDescriptionPane(TicketTableModel ticketModel) {
-        super("text/html", "");
+        setEditorKit(m_Kit);
         putClientProperty(JEditorPane.HONOR_DISPLAY_PROPERTIES, true);
         setEditable(false);
         addHyperlinkListener(new MyHyperlinkListener(ticketModel));
@@ -87,11 +186,39 @@ public class HtmlDescriptionPane extends JEditorPane {
     public void updateDescription(String text) {
         if (!text.equals(lastDescriptionText)) {
             lastDescriptionText = text;
-            setText(text);
-            setCaretPosition(0);
+            if (m_Builder != null) {
+                m_Builder.cancel(true);
+            }
+            m_Builder = new DocumentBuilder(text);
+            m_Builder.execute();
+        }
+    }
+
+    /**
+     * Shows the description straight away, parsing it on this thread: for a single ticket's
+     * description, as each cell of a {@link TicketDescriptionList} is, that is quick.
+     */
+    void setDescriptionNow(String text) {
+        if (m_Builder != null) {
+            m_Builder.cancel(true);
+            m_Builder = null;
+        }
+        lastDescriptionText = text;
+        try {
+            setDocument(buildDocument(m_Kit, text));
+        } catch (IOException | BadLocationException e) {
+            e.printStackTrace();
         }
     }
 
+    /** Parses the HTML into a new document, which (not yet being displayed) any thread may do. */
+    static HTMLDocument buildDocument(HTMLEditorKit kit, String text)
+            throws IOException, BadLocationException {
+        HTMLDocument doc = (HTMLDocument) kit.createDefaultDocument();
+        kit.read(new InterruptibleReader(new StringReader(text)), doc, 0);
+        return doc;
+    }
+
     public static void browseToTickets(Ticket[] tickets) throws MalformedURLException {
         String baseUrl = TracInstantProperties.getURL();
         int count = tickets.length;
@@ -17,8 +17,12 @@
 
 package com.github.tracinstant.app.ui;
 
-import java.net.URL;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,119 +31,212 @@ import com.github.tracinstant.app.prefs.TracInstantProperties;
 
 public class HtmlFormatter {
 
-    private static final int MAX_DESCRIPTIONS = 50;
+    private static final int MAX_CACHED_WIKI_DESCRIPTIONS = 256;
 
-    private static final Pattern BUG_PATTERN = Pattern.compile("#([0-9]{1,8}+)");
+    private static final int MAX_CACHED_TICKETS = 256;
+
+    private static final int MAX_CACHED_PATTERNS = 8;
 
-    private static final URL STYLESHEET_TRAC_RESOURCE =
-        HtmlFormatter.class.getResource("res/trac.css");
+    private static final Pattern CLOSED_TICKET_CLASS = Pattern.compile("class=\"closed ticket");
 
-    private final static String HTML_HEADER =
-        "<html><head><link rel=\"stylesheet\" type=\"text/css\" href=\"" +
-            STYLESHEET_TRAC_RESOURCE + "\"></head>";
+    private static final Pattern BUG_PATTERN = Pattern.compile("#([0-9]{1,8}+)");
 
+    /** The description pane supplies the (already parsed) Trac stylesheet. */
+    private final static String HTML_HEADER = "<html><head></head>";
 
     private final static String HTML_END = "</html>";
 
+    private static final String HIGHLIGHT_START = "<font color=\"white\" bgcolor=\"#66dd88\">";
+    private static final String HIGHLIGHT_END = "</font>";
+
+    /**
+     * Wiki descriptions are formatted lazily, when displayed. Keyed by the site's URL (which the
+     * links are made from) and the wiki text itself, so an entry is never stale, and (for the
+     * same String instances) lookups are fast.
+     */
+    private static final Map<List<String>, String> s_RenderedWiki = Collections.synchronizedMap(
+        new LinkedHashMap<List<String>, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, String> eldest) {
+                return size() > MAX_CACHED_WIKI_DESCRIPTIONS;
+            }
+        });
+
+    /**
+     * A ticket's heading and description as HTML, and the version of the ticket it is of. Refers
+     * to the ticket only weakly, so that tickets since removed or reloaded can be collected.
+     */
+    private static final class RenderedTicket {
+        final WeakReference<Ticket> ticket;
+        final int version;
+        final String html;
+
+        RenderedTicket(Ticket ticket, int version, String html) {
+            this.ticket = new WeakReference<>(ticket);
+            this.version = version;
+            this.html = html;
+        }
+
+        boolean isOf(Ticket t) {
+            return ticket.get() == t && version == t.getVersion();
+        }
+    }
+
+    /**
+     * The HTML of recently displayed tickets, so that selecting them again (as when arrowing up
+     * and down the table) needn't format them again. Keyed by the ticket number; an entry is
+     * stale once that ticket has been replaced by another instance, or its version has changed.
+     */
+    private static final Map<Integer, RenderedTicket> s_RenderedTickets =
+        Collections.synchronizedMap(new LinkedHashMap<Integer, RenderedTicket>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, RenderedTicket> eldest) {
+                return size() > MAX_CACHED_TICKETS;
+            }
+        });
+
+    /** Highlighting patterns of recent searches, keyed by their source. */
+    private static final Map<String, Pattern> s_SuperPatterns = Collections.synchronizedMap(
+        new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+                return size() > MAX_CACHED_PATTERNS;
+            }
+        });
+
     /**
      * Remove a style that Java can't display, so that closed tickets display crossed out
      */
     protected static String fixHyperlinks(String text) {
-        return text.replaceAll("class=\\\"closed ticket", "class=\"closed");
+        return CLOSED_TICKET_CLASS.matcher(text).replaceAll("class=\"closed");
     }
 
     protected static String buildDescription(Ticket[] tickets, List<SearchTerm> searchTerms) {
         if (tickets.length == 0) {
             return "";
         }
-        String body = buildBody(tickets);
-        String highlighted = highlightMatches(body, searchTerms);
-        return HTML_HEADER + fixHyperlinks(highlighted) + HTML_END;
-    }
-
-    private static String buildBody(Ticket[] tickets) {
         StringBuilder body = new StringBuilder("<body style=\"margin:0;\">");
-        int count = 0;
-        for (Ticket ticket : tickets) {
-            if ((++count) > MAX_DESCRIPTIONS) {
-                body.append("<br><i>Limit of " + MAX_DESCRIPTIONS + " tickets reached.");
+        for (int i = 0; i < tickets.length; i++) {
+            if (!appendTicket(body, tickets[i], i)) {
                 break;
             }
-            String background = (count % 2 == 0) ? "#ffffd0" : "#ffffff";
-            body.append("<div style=\"background:" + background + "; padding:3px;\">");
+        }
+        body.append("</body>");
+        return HTML_HEADER + highlightMatches(body.toString(), searchTerms) + HTML_END;
+    }
+
+    /** The description of one of many selected tickets, shaded by its index among them. */
+    protected static String buildCellDescription(
+            Ticket ticket, int index, List<SearchTerm> searchTerms) {
+        StringBuilder body = new StringBuilder("<body style=\"margin:0;\">");
+        appendTicket(body, ticket, index);
+        body.append("</body>");
+        return HTML_HEADER + highlightMatches(body.toString(), searchTerms) + HTML_END;
+    }
+
+    /** @return false if the description isn't downloaded yet (so is shown as in progress) */
+    private static boolean appendTicket(StringBuilder body, Ticket ticket, int index) {
+        String background = (index % 2 == 1) ? "#ffffd0" : "#ffffff";
+        body.append("<div style=\"background:" + background + "; padding:3px;\">");
+        String html = getTicketHtml(ticket);
+        if (html == null) {
             String heading = makeHyperlinkedHeading(ticket);
             if (heading != null) {
                 body.append(heading);
             }
-            String description = ticket.getValue("description");
-            if (description == null) {
-                body.append("<br><i>Trac query in progress...</i><br> &nbsp;");
-                body.append("</div>");
-                break;
-            }
-            body.append(description);
+            body.append("<br><i>Trac query in progress...</i><br> &nbsp;");
             body.append("</div>");
+            return false;
         }
-        body.append("</body>");
-        return body.toString();
+        body.append(html);
+        body.append("</div>");
+        return true;
+    }
+
+    /** @return the heading and description, or null if the description isn't downloaded yet */
+    private static String getTicketHtml(Ticket ticket) {
+        RenderedTicket rendered = s_RenderedTickets.get(ticket.getNumber());
+        if (rendered != null && rendered.isOf(ticket)) {
+            return rendered.html;
+        }
+        int version = ticket.getVersion();
+        String description = getDescriptionHtml(ticket);
+        if (description == null) {
+            return null;
+        }
+        String heading = makeHyperlinkedHeading(ticket);
+        String html = fixHyperlinks(heading == null ? description : heading + description);
+        s_RenderedTickets.put(ticket.getNumber(), new RenderedTicket(ticket, version, html));
+        return html;
+    }
+
+    /**
+     * @return the description as HTML, formatting it from wiki text if that's how it was
+     *     downloaded. Null if it has not been downloaded yet.
+     */
+    static String getDescriptionHtml(Ticket ticket) {
+        String html = ticket.getValue("description");
+        String wiki = ticket.getValue(Ticket.WIKI_DESCRIPTION);
+        if (wiki == null || wiki.isEmpty() || (html != null && !html.isEmpty())) {
+            return html;
+        }
+        String baseUrl = TracInstantProperties.getURL();
+        List<String> key = Arrays.asList(baseUrl, wiki);
+        String rendered = s_RenderedWiki.get(key);
+        if (rendered == null) {
+            rendered = TracWikiRenderer.toHtml(baseUrl, wiki);
+            s_RenderedWiki.put(key, rendered);
+        }
+        return rendered;
     }
 
+    /**
+     * Marks up every match of the search terms in the text (not the tags) of the body, in one
+     * pass that copies the body straight into the result. Each run of text is matched on its
+     * own (as a region of the body), so a match never spans a tag.
+     */
     private static String highlightMatches(String body, List<SearchTerm> searchTerms) {
         Pattern superPattern = createSuperPattern(searchTerms);
         if (superPattern == null) {
             return body;
         }
 
-        StringBuilder bb = new StringBuilder();
-        int rangeStart = 0, rangeEnd = 0, replacements = 0;
-        while (true) {
-            rangeEnd = body.indexOf('>', rangeStart) + 1;
-            if (rangeEnd == -1) {
-                break;
+        Matcher m = superPattern.matcher(body);
+        StringBuilder bb = null; // Only if there's a match
+        int length = body.length();
+        int copied = 0;
+        int textStart = 0;
+        while (textStart < length) {
+            if (body.charAt(textStart) == '<') {
+                int tagEnd = body.indexOf('>', textStart);
+                if (tagEnd == -1) {
+                    break;
+                }
+                textStart = tagEnd + 1;
+                continue;
             }
-
-            // Append up to end of a tag without modification.
-            bb.append(body.substring(rangeStart, rangeEnd));
-            rangeStart = rangeEnd;
-
-            rangeEnd = body.indexOf('<', rangeStart);
-            if (rangeEnd == -1) {
-                break;
+            int textEnd = body.indexOf('<', textStart);
+            if (textEnd == -1) {
+                textEnd = length;
             }
-
-            // Append a text segment with any matching highlighting marked-up
-            String text = body.substring(rangeStart, rangeEnd);
-            Matcher m = superPattern.matcher(text);
-
-            replacements += appendHighlightedText(bb, m, text);
-
-            // Limit to a reasonable number of highlights; not just so that this method
-            // doesn't spiral out of control (time, memory) but also the HTML renderer.
-            if (replacements > 800) {
-                break;
+            m.region(textStart, textEnd);
+            while (m.find()) {
+                if (m.start() == m.end()) {
+                    continue;
+                }
+                if (bb == null) {
+                    bb = new StringBuilder(length + length / 4);
+                }
+                bb.append(body, copied, m.start()).append(HIGHLIGHT_START)
+                    .append(body, m.start(), m.end()).append(HIGHLIGHT_END);
+                copied = m.end();
             }
-
-            rangeStart = rangeEnd;
+            textStart = textEnd;
         }
-        bb.append(body.substring(rangeStart, body.length()));
-        return bb.toString();
-    }
-
-    /** Like <code>Matcher.replaceAll()</code> but also counting replacements. */
-    private static int appendHighlightedText(StringBuilder bb, Matcher m, String text) {
-        int replacements = 0;
-        if (m.find()) {
-            StringBuffer sb = new StringBuffer();
-            do {
-                m.appendReplacement(sb, "<font color=\"white\" bgcolor=\"#66dd88\">$0</font>");
-                ++replacements;
-            } while (m.find());
-            m.appendTail(sb);
-            bb.append(sb.toString());
-        } else {
-            bb.append(text);
+        if (bb == null) {
+            return body;
         }
-        return replacements;
+        return bb.append(body, copied, length).toString();
     }
 
     private static Pattern createSuperPattern(List<SearchTerm> searchTerms) {
@@ -158,7 +255,8 @@ public class HtmlFormatter {
         if (sb.length() == 2) {
             return null;
         }
-        return Pattern.compile(sb.toString(), Pattern.CASE_INSENSITIVE);
+        return s_SuperPatterns.computeIfAbsent(sb.toString(),
+            source -> Pattern.compile(source, Pattern.CASE_INSENSITIVE));
     }
 
     private static String makeHyperlinkedHeading(Ticket ticket) {
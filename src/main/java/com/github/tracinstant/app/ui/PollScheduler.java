@@ -0,0 +1,133 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.ui;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.Timer;
+
+import com.github.tracinstant.app.prefs.TracInstantProperties;
+
+/**
+ * Decides when to next check the server for modified tickets. The interval halves each time a
+ * check finds changes and grows by half again each time it finds none, between the minimum and
+ * maximum set in the properties. Failures double it (up to {@link #MAX_FAILURE_INTERVAL_MILLIS}),
+ * and a slow server is given plenty of time to itself between checks.
+ * <p>
+ * All methods are called on the EDT.
+ */
+final class PollScheduler {
+
+    static final long MAX_FAILURE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    /** Keep the time spent serving our checks below 1/SLOW_SERVER_FACTOR of the server's time. */
+    static final int SLOW_SERVER_FACTOR = 20;
+
+    private final Timer m_Timer;
+    private final long m_MinIntervalMillis;
+    private final long m_MaxIntervalMillis;
+
+    private long m_IntervalMillis;
+    private long m_StartNanos = 0;
+    private long m_FinishNanos = 0;
+    private boolean m_Running = false;
+    private boolean m_Failing = false;
+
+    PollScheduler(Runnable poll) {
+        this(poll, TimeUnit.SECONDS.toMillis(TracInstantProperties.getMinPollIntervalSeconds()),
+                TimeUnit.SECONDS.toMillis(TracInstantProperties.getMaxPollIntervalSeconds()));
+    }
+
+    PollScheduler(Runnable poll, long minIntervalMillis, long maxIntervalMillis) {
+        m_MinIntervalMillis = minIntervalMillis;
+        m_MaxIntervalMillis = Math.max(minIntervalMillis, maxIntervalMillis);
+        m_IntervalMillis = m_MinIntervalMillis;
+        m_Timer = new Timer(0, e -> poll.run());
+        m_Timer.setRepeats(false);
+    }
+
+    boolean isEnabled() {
+        return m_MinIntervalMillis > 0;
+    }
+
+    long getIntervalMillis() {
+        return m_IntervalMillis;
+    }
+
+    void slurpStarted() {
+        m_Timer.stop();
+        m_Running = true;
+        m_StartNanos = System.nanoTime();
+    }
+
+    /**
+     * Schedules the next check.
+     *
+     * @param changed whether any tickets were modified since the previous check
+     * @param failed whether the server could not be reached, or the update otherwise failed
+     */
+    void slurpFinished(boolean changed, boolean failed) {
+        m_Running = false;
+        m_Failing = failed;
+        m_FinishNanos = System.nanoTime();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(m_FinishNanos - m_StartNanos);
+        m_IntervalMillis = nextInterval(changed, failed, elapsedMillis);
+        if (isEnabled()) {
+            System.out.format("Next check for modified tickets in %d s%n",
+                    TimeUnit.MILLISECONDS.toSeconds(m_IntervalMillis));
+            m_Timer.setInitialDelay((int) Math.min(Integer.MAX_VALUE, m_IntervalMillis));
+            m_Timer.restart();
+        }
+    }
+
+    /** Called when the update is abandoned (cancelled, or incremental updates are disabled). */
+    void stop() {
+        m_Timer.stop();
+        m_Running = false;
+    }
+
+    long nextInterval(boolean changed, boolean failed, long elapsedMillis) {
+        long interval;
+        if (failed) {
+            interval = Math.min(MAX_FAILURE_INTERVAL_MILLIS,
+                    Math.max(m_MinIntervalMillis, m_IntervalMillis * 2));
+        } else if (changed) {
+            interval = Math.max(m_MinIntervalMillis, m_IntervalMillis / 2);
+        } else {
+            interval = Math.min(m_MaxIntervalMillis, m_IntervalMillis * 3 / 2);
+        }
+        return Math.max(interval, elapsedMillis * SLOW_SERVER_FACTOR);
+    }
+
+    /**
+     * Whether a check is worth making now, at the user's request (say, on window activation):
+     * not while one is running, nor if the last one finished less than the minimum interval ago
+     * (or, if it failed, less than the backed-off interval ago).
+     */
+    boolean isDue() {
+        if (m_Running) {
+            return false;
+        }
+        if (m_FinishNanos == 0) {
+            return true;
+        }
+        long sinceMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - m_FinishNanos);
+        long wait = m_Failing ? m_IntervalMillis : m_MinIntervalMillis;
+        return sinceMillis >= Math.max(wait, TimeUnit.SECONDS.toMillis(10));
+    }
+}
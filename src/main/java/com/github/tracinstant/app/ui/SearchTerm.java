@@ -19,6 +19,7 @@ package com.github.tracinstant.app.ui;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.SortedMap;
@@ -34,6 +35,9 @@ final class SearchTerm {
 
     private static final Pattern EMPTY_STRING_PATTERN = Pattern.compile("^$");
 
+    /** Text with none of these can only match itself. */
+    private static final Pattern REGEX_SYNTAX = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
     public SearchTerm(String field, Pattern pattern, boolean exclude) {
         this.field = field;
         this.pattern = pattern;
@@ -52,6 +56,18 @@ final class SearchTerm {
      */
     public boolean exclude;
 
+    /**
+     * The numbers of the only tickets that can match (from the search index), or null to search
+     * all tickets. Not used when excluding.
+     */
+    public BitSet candidates = null;
+
+    /** @return the text the pattern matches, if it is plain text rather than a regex. */
+    public String getLiteralText() {
+        String text = pattern.pattern();
+        return REGEX_SYNTAX.matcher(text).find() ? null : text;
+    }
+
     @Override
     public String toString() {
         return "SearchTerm [field=" + field + ", pattern=" + pattern + ", exclude="
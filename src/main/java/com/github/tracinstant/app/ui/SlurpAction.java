@@ -18,12 +18,19 @@
 package com.github.tracinstant.app.ui;
 
 import java.awt.event.ActionEvent;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.AbstractAction;
 
+import com.github.tracinstant.app.data.CachedTicketLoadTask;
 import com.github.tracinstant.app.data.SiteData;
+import com.github.tracinstant.app.data.SlurpCheckpoint;
 import com.github.tracinstant.app.data.SlurpTask;
+import com.github.tracinstant.app.data.TicketLoadTask;
 import com.github.tracinstant.app.download.AttachmentCounter;
 import com.github.tracinstant.app.prefs.SiteSettings;
 import com.github.tracinstant.app.prefs.TracInstantProperties;
@@ -44,7 +51,16 @@ public class SlurpAction extends AbstractAction {
     /** The slurp task, held so it can be cancelled. */
     private SlurpTask task = null;
 
-    private final Runnable taskClearer = () -> { task = null; };
+    /** Loads a site's cache after switching to it; cancelled if switching again. */
+    private TicketLoadTask cacheTask = null;
+
+    /** Whether an incremental update was requested while the task was running. */
+    private boolean incrementalQueued = false;
+
+    private final PollScheduler poller = new PollScheduler(this::poll);
+
+    /** When an incremental update last checked all tickets against the server, or 0 if never. */
+    private long lastDriftCheckMillis = 0;
 
     public SlurpAction(TracInstantFrame frame, SiteData site) {
         super("Connect to...");
@@ -55,7 +71,11 @@ public class SlurpAction extends AbstractAction {
     @Override
     public void actionPerformed(ActionEvent e) {
         if (promptForTracSettings()) {
-            resetAndSlurpAll();
+            if (site.getSiteUrl().equals(TracInstantProperties.getURL())) {
+                resetAndSlurpAll();
+            } else {
+                switchSite();
+            }
         }
     }
 
@@ -80,6 +100,43 @@ public class SlurpAction extends AbstractAction {
         slurpAll();
     }
 
+    /**
+     * Keeps the current site's tickets in its cache, and shows those cached for the newly
+     * selected site (if any) while bringing them up to date.
+     */
+    private void switchSite() {
+        cancel();
+        site.saveState();
+        site.switchToSelectedSite();
+        lastDriftCheckMillis = 0;
+        if (site.isOkToUseCachedTickets()) {
+            TicketLoadTask loadTask = new CachedTicketLoadTask(site);
+            cacheTask = loadTask;
+            frame.monitorTask(loadTask);
+            loadTask.executeWithNotification(() -> {
+                if (cacheTask == loadTask && !loadTask.isCancelled()) {
+                    cacheTask = null;
+                    slurpIncrementalOrAll();
+                }
+            });
+        } else {
+            slurpAll();
+        }
+    }
+
+    /**
+     * Brings cached tickets up to date, if possible, otherwise downloads all tickets. (Allows a
+     * one-time full slurp to cover the possibility that we don't know the date format, after
+     * which incremental slurps will be disabled.)
+     */
+    public void slurpIncrementalOrAll() {
+        site.loadUserData();
+        String error = slurpIncremental();
+        if (error != null) {
+            slurpAll();
+        }
+    }
+
     public void slurpAll() {
         cancel();
         site.loadUserData();
@@ -89,12 +146,19 @@ public class SlurpAction extends AbstractAction {
     public String slurpIncremental() {
         if (task != null) {
 
-            // TODO: Should we instead queue up a single incremental update(?)
-            System.out.println("Incremental update aborted due to running tasks");
+            // However many times it is asked for, run just one update once the task finishes.
+            incrementalQueued = true;
+            return null;
+        }
+
+        if (SlurpCheckpoint.isPending(SiteSettings.getInstance())) {
+            System.out.println("Resuming an interrupted full update");
+            slurp(null);
             return null;
         }
 
         if (!site.isDateFormatSet()) {
+            poller.stop();
             return "Incremental update disabled: unknown server DateFormat";
         }
 
@@ -103,6 +167,7 @@ public class SlurpAction extends AbstractAction {
         // Disable incremental updates if the change-time detection fails. (Don't flood the server
         // with full-download requests each time the application comes into view.)
         if (site.hasConnected() && lastChanged == null) {
+            poller.stop();
             return "Incremental update disabled: change timestamps not found";
         }
 
@@ -112,10 +177,32 @@ public class SlurpAction extends AbstractAction {
     }
 
     /**
-     * Terminate any in-progress slurp task. It may carry on for a while - but it will discard its
-     * results. (No need to wait for it.)
+     * An incremental update, unless one is running or finished only a moment ago. For triggers
+     * that may fire often, such as the window being activated, since updates are also polled for
+     * in the background.
+     */
+    public String slurpIncrementalIfDue() {
+        return poller.isDue() ? slurpIncremental() : null;
+    }
+
+    private void poll() {
+        String problem = slurpIncremental();
+        if (problem != null) {
+            System.out.println(problem);
+        }
+    }
+
+    /**
+     * Terminate any in-progress slurp task, and stop polling for updates. The task may carry on
+     * for a while - but it will discard its results. (No need to wait for it.)
      */
     public void cancel() {
+        poller.stop();
+        incrementalQueued = false;
+        if (cacheTask != null) {
+            cacheTask.cancel(true);
+            cacheTask = null;
+        }
         if (task != null) {
             task.cancel(true);
         }
@@ -128,8 +215,49 @@ public class SlurpAction extends AbstractAction {
         Future<?> attachmentScanFuture =
             AttachmentCounter.scanAttachmentsFolderAsynchronously(
                 settings.getAttachmentsDir());
-        task = new SlurpTask(site, settings, lastChanged, attachmentScanFuture);
-        frame.monitorTask(task);
-        task.executeWithNotification(taskClearer);
+        SlurpTask newTask = new SlurpTask(site, settings, lastChanged, attachmentScanFuture);
+        newTask.setCheckForDrift(lastChanged != null && isDriftCheckDue());
+        String lastChangedBefore = site.getLastModifiedTicketTimeIfKnown();
+        task = newTask;
+        poller.slurpStarted();
+        frame.monitorTask(newTask);
+        newTask.executeWithNotification(() -> slurpFinished(newTask, lastChangedBefore));
+    }
+
+    private boolean isDriftCheckDue() {
+        long interval = TimeUnit.HOURS.toMillis(TracInstantProperties.getDriftCheckIntervalHours());
+        return interval > 0 && System.currentTimeMillis() - lastDriftCheckMillis >= interval;
+    }
+
+    private void slurpFinished(SlurpTask finished, String lastChangedBefore) {
+        if (task != finished) {
+            return; // Cancelled, and already replaced by another task
+        }
+        task = null;
+        boolean failed = false;
+        try {
+            finished.get();
+        } catch (CancellationException e) {
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            failed = true; // (Reported by the frame's listener)
+        }
+        if (!failed && (!finished.isIncremental() || finished.isCheckingForDrift())) {
+            lastDriftCheckMillis = System.currentTimeMillis();
+        }
+        if (!failed && !finished.isIncremental()) {
+            site.compactCache();
+        }
+        String lastChanged = site.getLastModifiedTicketTimeIfKnown();
+        poller.slurpFinished(!Objects.equals(lastChangedBefore, lastChanged), failed);
+
+        // Don't follow a failure straight away with another attempt; wait for the backed-off poll.
+        if (incrementalQueued && !failed) {
+            incrementalQueued = false;
+            slurpIncremental();
+        }
+        incrementalQueued = false;
     }
 }
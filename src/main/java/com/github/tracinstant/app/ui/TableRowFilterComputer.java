@@ -107,6 +107,12 @@ public class TableRowFilterComputer {
 
             NEXT: for (SearchTerm term : m_SearchTerms) {
 
+                // Tickets the search index rules out can't match.
+                if (!term.exclude && term.candidates != null
+                        && !term.candidates.get(ticket.getNumber())) {
+                    return false;
+                }
+
                 // Look at ALL ticket fields (not just those shown as columns).
                 // TODO: (perf) keep global list of fields so that we can expand them
                 // outside the "per-ticket" loop. (Just once per search term.)
@@ -114,7 +120,7 @@ public class TableRowFilterComputer {
                 for (String field : expandFields(ticket, term.field)) {
 
                     // TODO: Handle null return here (after above changes)
-                    String value = ticket.getValue(field);
+                    CharSequence value = ticket.getTextForScanning(field);
                     if (term.pattern.matcher(value).find()) {
                         if (term.exclude) {
                             return false;
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.ui;
+
+import java.awt.Color;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.HierarchyEvent;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.ToolTipManager;
+import javax.swing.event.ChangeListener;
+
+import com.github.tracinstant.app.data.Ticket;
+import com.github.tracinstant.app.data.TicketTableModel;
+
+/**
+ * The descriptions of many selected tickets, one below another, in a list whose cells are only
+ * created (parsed and laid out) while they are scrolled into view, so that selecting thousands
+ * of tickets costs no more than selecting a few.
+ * <p>
+ * Only the tickets whose cells are shown are noted as viewed, so that selecting many doesn't
+ * upset the order in which their text is kept in memory.
+ * <p>
+ * Cells not yet seen are given an estimated height. When a cell's real height is found, the
+ * view is scrolled by the difference that makes to the cells already in view, so that they
+ * don't appear to move.
+ */
+public class TicketDescriptionList extends JPanel implements Scrollable {
+
+    private static final int DEFAULT_ESTIMATED_HEIGHT = 150;
+
+    private static final int MAX_SPARE_CELLS = 16;
+
+    /** Scrolling to keep cells still can bring others into view; give up after a few. */
+    private static final int MAX_LAYOUT_PASSES = 4;
+
+    private final TicketTableModel m_TicketModel;
+
+    private Ticket[] m_Tickets = new Ticket[0];
+    private List<SearchTerm> m_SearchTerms = Collections.emptyList();
+
+    /** Each cell's height: measured, or as last measured, or estimated. */
+    private int[] m_Heights = new int[0];
+
+    /** Where each cell starts, then the total height. */
+    private int[] m_Tops = { 0 };
+
+    /** The cells whose height has been measured at the current width. */
+    private final BitSet m_Measured = new BitSet();
+    private int m_MeasuredWidth = 0;
+    private int m_EstimatedHeight = DEFAULT_ESTIMATED_HEIGHT;
+
+    private Map<Integer, Cell> m_Cells = new HashMap<>();
+    private final Deque<Cell> m_SpareCells = new ArrayDeque<>();
+
+    private final ChangeListener m_ViewportListener = e -> layoutCells();
+    private JViewport m_Viewport = null;
+    private boolean m_LayingOut = false;
+
+    private static final class Cell extends HtmlDescriptionPane {
+        int m_Version = -1;
+
+        Cell(TicketTableModel ticketModel) {
+            super(ticketModel);
+        }
+
+        @Override
+        public void scrollRectToVisible(Rectangle rect) {
+            // Don't let the caret scroll the list to the top of the cell
+        }
+    }
+
+    public TicketDescriptionList(TicketTableModel ticketModel) {
+        super(null);
+        m_TicketModel = ticketModel;
+        setBackground(Color.WHITE);
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.PARENT_CHANGED) != 0) {
+                parentChanged();
+            }
+        });
+    }
+
+    /**
+     * Shows the tickets' descriptions, from the top, unless they are the same tickets as before
+     * (in which case only those that have changed are shown again).
+     */
+    public void setTickets(Ticket[] tickets, List<SearchTerm> searchTerms) {
+        boolean sameTickets = Arrays.equals(tickets, m_Tickets);
+        if (!sameTickets) {
+            updateEstimatedHeight();
+        }
+        if (!sameTickets || searchTerms != m_SearchTerms) {
+            recycleCells(m_Cells);
+            m_Cells = new HashMap<>();
+            m_Measured.clear();
+        }
+        m_SearchTerms = searchTerms;
+        if (!sameTickets) {
+            m_Tickets = tickets.clone();
+            m_Heights = new int[tickets.length];
+            Arrays.fill(m_Heights, m_EstimatedHeight);
+            updateTops();
+            setSize(getWidth(), getTotalHeight());
+            revalidate();
+            JViewport viewport = getViewport();
+            if (viewport != null) {
+                viewport.setViewPosition(new Point(0, 0));
+            }
+        }
+        layoutCells();
+    }
+
+    /** Estimates the height of unseen cells from those measured so far. */
+    private void updateEstimatedHeight() {
+        int count = m_Measured.cardinality();
+        if (count > 0) {
+            long total = 0;
+            for (int i = m_Measured.nextSetBit(0); i >= 0; i = m_Measured.nextSetBit(i + 1)) {
+                total += m_Heights[i];
+            }
+            m_EstimatedHeight = (int) (total / count);
+        }
+    }
+
+    /** Follows the scrolling of whichever viewport this is put in. */
+    private void parentChanged() {
+        if (m_Viewport != null) {
+            m_Viewport.removeChangeListener(m_ViewportListener);
+        }
+        m_Viewport = getViewport();
+        if (m_Viewport != null) {
+            m_Viewport.addChangeListener(m_ViewportListener);
+        }
+    }
+
+    private JViewport getViewport() {
+        Container parent = getParent();
+        return (parent instanceof JViewport) ? (JViewport) parent : null;
+    }
+
+    /** Creates, measures and positions the cells in view, and removes the others. */
+    void layoutCells() {
+        JViewport viewport = getViewport();
+        if (viewport == null || m_LayingOut) {
+            return;
+        }
+        m_LayingOut = true;
+        try {
+            for (int pass = 0; pass < MAX_LAYOUT_PASSES && layoutVisibleCells(viewport); pass++) {
+                // Scrolled to keep the cells that were in view still, so lay out again
+            }
+        } finally {
+            m_LayingOut = false;
+        }
+    }
+
+    /** @return whether the view was scrolled, to keep cells still */
+    private boolean layoutVisibleCells(JViewport viewport) {
+        int width = viewport.getExtentSize().width;
+        if (width <= 0) {
+            return false;
+        }
+        if (width != m_MeasuredWidth) {
+            m_MeasuredWidth = width;
+            m_Measured.clear();
+        }
+        Rectangle view = viewport.getViewRect();
+        int bottom = view.y + view.height;
+        int first = findCellAt(view.y);
+        int anchor = first;
+        while (anchor < m_Tickets.length && m_Tops[anchor] < bottom
+                && !m_Measured.get(anchor)) {
+            ++anchor;
+        }
+        if (anchor == m_Tickets.length || m_Tops[anchor] >= bottom) {
+            anchor = first;
+        }
+        int anchorTop = m_Tops[anchor];
+
+        Map<Integer, Cell> shown = new HashMap<>();
+        int y = m_Tops[first];
+        for (int i = first; i < m_Tickets.length && y < bottom; i++) {
+            Ticket ticket = m_Tickets[i];
+            Cell cell = m_Cells.remove(i);
+            if (cell == null || cell.m_Version != ticket.getVersion()) {
+                if (cell == null) {
+                    cell = takeSpareCell();
+                }
+                cell.m_Version = ticket.getVersion();
+                cell.setDescriptionNow(
+                    HtmlFormatter.buildCellDescription(ticket, i, m_SearchTerms));
+                m_Measured.clear(i);
+                m_TicketModel.ticketViewed(ticket);
+            }
+            if (!m_Measured.get(i)) {
+                cell.setSize(width, Short.MAX_VALUE);
+                m_Heights[i] = cell.getPreferredSize().height;
+                m_Measured.set(i);
+            }
+            cell.setBounds(0, y, width, m_Heights[i]);
+            shown.put(i, cell);
+            y += m_Heights[i];
+        }
+        recycleCells(m_Cells);
+        m_Cells = shown;
+
+        updateTops();
+        if (getHeight() != getTotalHeight()) {
+            setSize(width, getTotalHeight());
+            revalidate();
+        }
+        repaint();
+
+        int shift = m_Tops[anchor] - anchorTop;
+        if (shift != 0) {
+            viewport.setViewPosition(new Point(0, Math.max(0, view.y + shift)));
+            return true;
+        }
+        return false;
+    }
+
+    private Cell takeSpareCell() {
+        Cell cell = m_SpareCells.poll();
+        if (cell == null) {
+            cell = new Cell(m_TicketModel);
+            ToolTipManager.sharedInstance().registerComponent(cell);
+        }
+        add(cell);
+        return cell;
+    }
+
+    private void recycleCells(Map<Integer, Cell> cells) {
+        for (Cell cell : cells.values()) {
+            remove(cell);
+            if (m_SpareCells.size() < MAX_SPARE_CELLS) {
+                m_SpareCells.push(cell);
+            }
+        }
+    }
+
+    private void updateTops() {
+        if (m_Tops.length != m_Heights.length + 1) {
+            m_Tops = new int[m_Heights.length + 1];
+        }
+        for (int i = 0; i < m_Heights.length; i++) {
+            m_Tops[i + 1] = m_Tops[i] + m_Heights[i];
+        }
+    }
+
+    private int getTotalHeight() {
+        return m_Tops[m_Tops.length - 1];
+    }
+
+    /** @return the index of the cell at the given y, or 0 if there are none. */
+    private int findCellAt(int y) {
+        int low = 0;
+        int high = m_Heights.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (m_Tops[mid] <= y) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /** The number of cells currently created, being those in view. */
+    int getCellCount() {
+        return m_Cells.size();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(m_MeasuredWidth, getTotalHeight());
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? 16 : 1;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -18,9 +18,12 @@
 package com.github.tracinstant.app.ui;
 
 import java.awt.BorderLayout;
+import java.awt.CardLayout;
 import java.awt.Component;
 import java.awt.Container;
 import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.InputEvent;
@@ -40,8 +43,10 @@ import java.net.ConnectException;
 import java.net.MalformedURLException;
 import java.net.ProtocolException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CancellationException;
@@ -55,13 +60,15 @@ import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
-import javax.swing.JEditorPane;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
+import javax.swing.JViewport;
 import javax.swing.KeyStroke;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
@@ -75,6 +82,7 @@ import com.github.tracinstant.app.data.Ticket;
 import com.github.tracinstant.app.data.TicketLoadTask;
 import com.github.tracinstant.app.data.TicketLoadTask.Update;
 import com.github.tracinstant.app.data.TicketTableModel;
+import com.github.tracinstant.app.data.ViewSnapshot;
 import com.github.tracinstant.app.download.DownloadDialog;
 import com.github.tracinstant.app.download.DownloadModel;
 import com.github.tracinstant.app.plugins.DummyPlugin;
@@ -85,6 +93,8 @@ import com.github.tracinstant.swing.StatusWidget;
 import com.github.tracinstant.util.DesktopUtils;
 import com.github.tracinstant.util.DocUtils;
 import com.github.tracinstant.util.FileUtils;
+import com.github.tracinstant.util.StartupTimeline;
+import com.github.tracinstant.util.StartupTimeline.Milestone;
 
 public class TracInstantFrame extends JFrame {
 
@@ -97,6 +107,9 @@ public class TracInstantFrame extends JFrame {
 
     private static final int GAP = 6;
 
+    private static final String SINGLE_DESCRIPTION_CARD = "single";
+    private static final String DESCRIPTION_LIST_CARD = "list";
+
     private final class TicketLoadListener implements PropertyChangeListener {
         private final TicketLoadTask task;
 
@@ -114,6 +127,13 @@ public class TracInstantFrame extends JFrame {
             Update update = (Update) evt.getNewValue();
             if (update.ticketProvider != null) {
                 mergeTickets(update.ticketProvider.getTickets());
+                if (m_Table.getModel().getRowCount() > 0) {
+                    StartupTimeline.reached(Milestone.TABLE_POPULATED);
+                }
+                return;
+            }
+            if (update.removedTicketIds != null) {
+                m_Table.getModel().removeTickets(update.removedTicketIds);
                 return;
             }
             if (update.summaryMessage != null) {
@@ -122,6 +142,10 @@ public class TracInstantFrame extends JFrame {
             } else {
                 task.removePropertyChangeListener(this);
                 addWindowListener(m_OnActivationRefresher);
+                m_SnapshotReplaceable = m_SnapshotTable != null;
+                if (m_Table.getModel().getRowCount() > 0) {
+                    StartupTimeline.reached(Milestone.SEARCH_READY);
+                }
 
                 // Retrieve any exceptions. (There is no "result" to collect, since
                 // all data is processed on-the-fly via the publishing mechanism.)
@@ -164,19 +188,22 @@ public class TracInstantFrame extends JFrame {
 
         private void mergeTickets(List<Ticket> tickets) {
             m_Table.getModel().mergeTickets(tickets);
+            setStringComparators(m_Table);
+        }
+    }
 
-            /*
-             * Performance! When the major sort criteria have lots of repeating strings (like sort
-             * by Priority then Severity then Resolution), performance can crumble. This 'tweak'
-             * foregoes full locale-sensitive sorting to gain performance. (RowSorter defaults to
-             * "Collator" as the comparator for String columns). This speeds up the sorting of the
-             * given scenario 6-fold, measuring a 10,000 ticket sort 600ms -> 100ms. Good find this!
-             * After all that work and multi-threading to get the text searching down to sub 50 ms
-             * (typical) it was a real shame that this Swing table-sort had become the bottleneck!
-             */
-            for (int col = 1; col < m_Table.getColumnCount(); col++) {
-                m_Table.getRowSorter().setComparator(col, String.CASE_INSENSITIVE_ORDER);
-            }
+    private static void setStringComparators(TicketTable table) {
+        /*
+         * Performance! When the major sort criteria have lots of repeating strings (like sort
+         * by Priority then Severity then Resolution), performance can crumble. This 'tweak'
+         * foregoes full locale-sensitive sorting to gain performance. (RowSorter defaults to
+         * "Collator" as the comparator for String columns). This speeds up the sorting of the
+         * given scenario 6-fold, measuring a 10,000 ticket sort 600ms -> 100ms. Good find this!
+         * After all that work and multi-threading to get the text searching down to sub 50 ms
+         * (typical) it was a real shame that this Swing table-sort had become the bottleneck!
+         */
+        for (int col = 1; col < table.getColumnCount(); col++) {
+            table.getRowSorter().setComparator(col, String.CASE_INSENSITIVE_ORDER);
         }
     }
 
@@ -237,7 +264,7 @@ public class TracInstantFrame extends JFrame {
     private class UpdateTicketsOnWindowActivated extends WindowAdapter {
         @Override
         public void windowActivated(WindowEvent e) {
-            String problem = slurpAction.slurpIncremental();
+            String problem = slurpAction.slurpIncrementalIfDue();
             if (problem != null) {
                 m_SlurpStatus.showWarning(problem, null);
             }
@@ -245,7 +272,16 @@ public class TracInstantFrame extends JFrame {
     }
 
     private final TicketTable m_Table;
+    private final JScrollPane m_TableScrollPane;
+
+    /** The rows in view when the application last exited, shown until the tickets load. */
+    private TicketTable m_SnapshotTable = null;
+
+    /** Whether the tickets have loaded, so the snapshot can be replaced once they're filtered. */
+    private boolean m_SnapshotReplaceable = false;
     private final HtmlDescriptionPane m_DescriptionPane;
+    private final TicketDescriptionList m_DescriptionList;
+    private final JPanel m_DescriptionCards;
     private final JSplitPane m_ToolWindowSplit;
 
     private final SearchCombo m_FilterCombo;
@@ -289,12 +325,13 @@ public class TracInstantFrame extends JFrame {
     private TicketUpdater m_TableModelUpdater = new TicketUpdater() {
         @Override
         public void setTicketField(int ticketId, String field, String value) {
-            Ticket t = m_Table.getModel().findTicketByID(ticketId);
+            TicketTableModel model = m_Table.getModel();
+            Ticket t = model.findTicketByID(ticketId);
             if (t == null) {
                 System.out.println("Ticket ID not found: " + ticketId);
                 return;
             }
-            t.putField(field, value);
+            model.setTicketField(t, field, value);
         }
 
         @Override
@@ -314,8 +351,11 @@ public class TracInstantFrame extends JFrame {
         JLabel filterLabel = createLabel("Filter: ", 'F', m_FilterCombo);
 
         m_Table = createTicketTable(site.getTableModel(), m_FilterCombo);
+        m_TableScrollPane = new JScrollPane(m_Table);
 
         m_DescriptionPane = new HtmlDescriptionPane(m_Table.getModel());
+        m_DescriptionList = new TicketDescriptionList(m_Table.getModel());
+        m_DescriptionCards = createDescriptionCards(m_DescriptionPane, m_DescriptionList);
 
         ToolTipManager.sharedInstance().registerComponent(m_DescriptionPane);
         ToolTipManager.sharedInstance().setDismissDelay(60000);
@@ -339,7 +379,7 @@ public class TracInstantFrame extends JFrame {
             m_SlurpStatus.getComponent(),
             new JButton(slurpAction));
 
-        m_MainArea = createMainSplitArea(m_Table, m_DescriptionPane, m_StatusPanel);
+        m_MainArea = createMainSplitArea(m_TableScrollPane, m_DescriptionCards, m_StatusPanel);
         m_ToolWindowSplit = createToolSplit();
 
         Container cp = getContentPane();
@@ -515,12 +555,21 @@ public class TracInstantFrame extends JFrame {
         return result;
     }
 
+    /** One ticket's description in a pane, or many tickets' in a list that shows them lazily. */
+    private static JPanel createDescriptionCards(
+            HtmlDescriptionPane descriptionPane, TicketDescriptionList descriptionList) {
+        JPanel cards = new JPanel(new CardLayout());
+        cards.add(new JScrollPane(descriptionPane), SINGLE_DESCRIPTION_CARD);
+        cards.add(new JScrollPane(descriptionList), DESCRIPTION_LIST_CARD);
+        return cards;
+    }
+
     private static JSplitPane createMainSplitArea(
-            TicketTable table, JEditorPane descriptionPane, Box statusPanel) {
+            JScrollPane table, JPanel descriptions, Box statusPanel) {
         JPanel descriptionAndStatus = new JPanel(new BorderLayout());
-        descriptionAndStatus.add(new JScrollPane(descriptionPane));
+        descriptionAndStatus.add(descriptions);
         descriptionAndStatus.add(statusPanel, BorderLayout.SOUTH);
-        return createSplit(new JScrollPane(table), descriptionAndStatus);
+        return createSplit(table, descriptionAndStatus);
     }
 
     private Box createToolPanel(JComponent... comps) {
@@ -654,15 +703,134 @@ public class TracInstantFrame extends JFrame {
         m_SearchTerms = SearchTerm.parseSearchString(
                 m_FilterCombo.getModel().getShorthandAliases(),
                 m_FilterCombo.getEditorText());
+        for (SearchTerm term : m_SearchTerms) {
+            String literal = term.exclude ? null : term.getLiteralText();
+            if (literal != null) {
+                term.candidates = m_Table.getModel().findTicketsThatMayContain(literal);
+            }
+        }
 
         Ticket[] tickets = m_Table.getModel().getTickets();
+        boolean replaceSnapshot = m_SnapshotReplaceable;
         m_FilterComputor.computeFilter(tickets, m_SearchTerms, rowFilter -> {
             m_RowFilterJustUpdated = true;
             m_Table.getRowSorter().setRowFilter(rowFilter);
+            if (replaceSnapshot && m_SnapshotTable != null) {
+                replaceViewSnapshot();
+            }
             updateMatches();
         });
     }
 
+    /**
+     * Shows the rows that were in view when the application last exited, in place of the table,
+     * with the search and sort order of the time. The table replaces them (sorted and scrolled
+     * in the same way) once its tickets have loaded and been filtered.
+     */
+    public void showViewSnapshot(ViewSnapshot snapshot) {
+        m_FilterCombo.setEditorText(snapshot.searchText);
+        if (snapshot.tickets.isEmpty()) {
+            return;
+        }
+
+        // Columns are added after creating the table, so that their layout is recalled
+        TicketTable table = new TicketTable(new TicketTableModel(), m_FilterCombo);
+        table.getModel().mergeTickets(snapshot.tickets);
+        setStringComparators(table);
+        table.getRowSorter().setSortKeys(toSortKeys(table.getModel(), snapshot.sortKeys));
+
+        m_SnapshotTable = table;
+        m_TableScrollPane.setViewportView(table);
+        int top = snapshot.tickets.get(0).getNumber();
+        SwingUtilities.invokeLater(() -> scrollToTop(table, top, snapshot.topRowOffset));
+    }
+
+    private void replaceViewSnapshot() {
+        TicketTable snapshot = m_SnapshotTable;
+        m_SnapshotTable = null;
+        m_SnapshotReplaceable = false;
+
+        Point position = m_TableScrollPane.getViewport().getViewPosition();
+        int topRow = snapshot.rowAtPoint(position);
+        m_Table.getRowSorter().setSortKeys(
+            toSortKeys(m_Table.getModel(), getSortKeysByName(snapshot)));
+        m_TableScrollPane.setViewportView(m_Table);
+        if (topRow != -1) {
+            int top = snapshot.getModel().getTicket(snapshot.convertRowIndexToModel(topRow))
+                .getNumber();
+            m_TableScrollPane.validate();
+            scrollToTop(m_Table, top, position.y - snapshot.getCellRect(topRow, 0, true).y);
+        }
+    }
+
+    /** Scrolls the ticket's row to the top of the view, less the pixels it was scrolled by. */
+    private void scrollToTop(TicketTable table, int ticketNumber, int topRowOffset) {
+        int row = findViewRowForTicket(table, ticketNumber);
+        if (row == -1) {
+            return;
+        }
+        JViewport viewport = m_TableScrollPane.getViewport();
+        int maxY = table.getHeight() - viewport.getExtentSize().height;
+        int y = table.getCellRect(row, 0, true).y + topRowOffset;
+        viewport.setViewPosition(new Point(0, Math.max(0, Math.min(y, maxY))));
+    }
+
+    /**
+     * @return the search, sort order and rows in view, to show while loading next time; or null
+     *     if the tickets haven't finished loading, and the last snapshot is still shown
+     */
+    public ViewSnapshot takeViewSnapshot() {
+        if (m_SnapshotTable != null) {
+            return null;
+        }
+        TicketTableModel model = m_Table.getModel();
+        Rectangle visible = m_Table.getVisibleRect();
+        int first = m_Table.rowAtPoint(visible.getLocation());
+        List<Ticket> tickets = new ArrayList<>();
+        int topRowOffset = 0;
+        if (first != -1) {
+            int last = m_Table.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+
+            // And one row more, so the snapshot can be scrolled by as much as the table was
+            last = (last == -1) ? m_Table.getRowCount() - 1
+                : Math.min(last + 1, m_Table.getRowCount() - 1);
+            for (int row = first; row <= last; row++) {
+                Ticket ticket = model.getTicket(m_Table.convertRowIndexToModel(row));
+                Ticket copy = new Ticket(ticket.getNumber());
+                for (int col = 1; col < model.getColumnCount(); col++) {
+                    String field = model.getColumnName(col);
+                    String value = ticket.getValue(field);
+                    copy.putField(field, value == null ? "" : value);
+                }
+                tickets.add(copy);
+            }
+            topRowOffset = visible.y - m_Table.getCellRect(first, 0, true).y;
+        }
+        return new ViewSnapshot(m_FilterCombo.getEditorText(), getSortKeysByName(m_Table),
+            tickets, topRowOffset);
+    }
+
+    private static Map<String, SortOrder> getSortKeysByName(TicketTable table) {
+        Map<String, SortOrder> result = new LinkedHashMap<>();
+        for (RowSorter.SortKey key : table.getRowSorter().getSortKeys()) {
+            result.put(table.getModel().getColumnName(key.getColumn()), key.getSortOrder());
+        }
+        return result;
+    }
+
+    /** Sort keys for the columns of the model, ignoring those it doesn't have. */
+    private static List<RowSorter.SortKey> toSortKeys(
+            TicketTableModel model, Map<String, SortOrder> keysByName) {
+        List<RowSorter.SortKey> result = new ArrayList<>();
+        for (Map.Entry<String, SortOrder> key : keysByName.entrySet()) {
+            int column = model.findColumn(key.getKey());
+            if (column != -1) {
+                result.add(new RowSorter.SortKey(column, key.getValue()));
+            }
+        }
+        return result;
+    }
+
     private void updateMatches() {
         int rows = m_Table.getRowCount();
         m_Matches.setText(rows == 0 ? "" : "Matches: " + rows);
@@ -676,8 +844,21 @@ public class TracInstantFrame extends JFrame {
     private void displaySelectedTickets() {
         Ticket[] selected = getSelectedTickets();
 
-        String text = HtmlFormatter.buildDescription(selected, m_SearchTerms);
-        m_DescriptionPane.updateDescription(text);
+        CardLayout cards = (CardLayout) m_DescriptionCards.getLayout();
+        if (selected.length > 1) {
+            m_DescriptionList.setTickets(selected, m_SearchTerms);
+            cards.show(m_DescriptionCards, DESCRIPTION_LIST_CARD);
+        } else {
+
+            // (The list notes which of many tickets are viewed itself, as it shows them.)
+            for (Ticket ticket : selected) {
+                m_Table.getModel().ticketViewed(ticket);
+            }
+            m_DescriptionList.setTickets(new Ticket[0], m_SearchTerms);
+            String text = HtmlFormatter.buildDescription(selected, m_SearchTerms);
+            m_DescriptionPane.updateDescription(text);
+            cards.show(m_DescriptionCards, SINGLE_DESCRIPTION_CARD);
+        }
 
         // Avoid updating downloads via this very simple check. (Could make more
         // sophisticated)
@@ -706,10 +887,14 @@ public class TracInstantFrame extends JFrame {
 
     /** -1 for not found */
     private int findViewRowForTicket(int ticketNumber) {
-        TicketTableModel model = m_Table.getModel();
-        int rowCount = m_Table.getRowCount();
+        return findViewRowForTicket(m_Table, ticketNumber);
+    }
+
+    private static int findViewRowForTicket(TicketTable table, int ticketNumber) {
+        TicketTableModel model = table.getModel();
+        int rowCount = table.getRowCount();
         for (int r = 0; r < rowCount; r++) {
-            int modelRow = m_Table.convertRowIndexToModel(r);
+            int modelRow = table.convertRowIndexToModel(r);
             if (model.getTicket(modelRow).getNumber() == ticketNumber) {
                 return r;
             }
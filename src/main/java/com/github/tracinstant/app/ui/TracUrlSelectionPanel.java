@@ -45,6 +45,8 @@ public class TracUrlSelectionPanel extends JPanel {
     private final JPasswordField password = new JPasswordField();
     private final JComboBox<String> attachmentsDir = createCombo();
     private final JCheckBox fetchActiveTickets = new JCheckBox("Fetch only active tickets");
+    private final JCheckBox renderWikiLocally = new JCheckBox(
+            "Fast descriptions (format Trac wiki markup locally)");
     private final JCheckBox instantRestart = new JCheckBox(
             "Instant restart (store downloaded data locally)");
     private final JCheckBox rememberPassword = new JCheckBox("Remember password: ");
@@ -76,6 +78,7 @@ public class TracUrlSelectionPanel extends JPanel {
         result.setAttachmentsDir(getAttachmentsDirText());
         result.setCacheData(instantRestart.isSelected());
         result.setFetchOnlyActiveTickets(fetchActiveTickets.isSelected());
+        result.setRenderWikiLocally(renderWikiLocally.isSelected());
         return result;
     }
 
@@ -93,6 +96,7 @@ public class TracUrlSelectionPanel extends JPanel {
     public TracUrlSelectionPanel(SiteSettings settings) {
 
         fetchActiveTickets.setSelected(settings.isFetchOnlyActiveTickets());
+        renderWikiLocally.setSelected(settings.isRenderWikiLocally());
         instantRestart.setSelected(settings.isCacheData());
 
         username.setText(settings.getUsername());
@@ -115,6 +119,8 @@ public class TracUrlSelectionPanel extends JPanel {
         add(Box.createVerticalStrut(16));
         add(fetchActiveTickets);
         add(Box.createVerticalStrut(8));
+        add(renderWikiLocally);
+        add(Box.createVerticalStrut(8));
         add(instantRestart);
         add(Box.createVerticalStrut(16));
 
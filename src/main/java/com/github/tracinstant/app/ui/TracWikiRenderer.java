@@ -0,0 +1,409 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.ui;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders the commonly-used subset of Trac's WikiFormatting as HTML, for descriptions that were
+ * downloaded as raw wiki text. The markup (and CSS classes) mimic Trac's own, so that trac.css
+ * applies. Anything not recognised (macros, processors, etc.) is simply shown as text.
+ * <p>
+ * Not thread-safe. Each instance renders one description at a time.
+ */
+public class TracWikiRenderer {
+
+    private static final Pattern LINE_BREAK = Pattern.compile("\r\n|\r|\n");
+
+    private static final Pattern HEADING =
+        Pattern.compile("^\\s*(={1,6})\\s+(.*?)\\s*=*\\s*(#\\S+)?\\s*$");
+
+    private static final Pattern RULE = Pattern.compile("^\\s*-{4,}\\s*$");
+
+    private static final Pattern TABLE_ROW = Pattern.compile("^\\s*\\|\\|(.*?)(\\|\\|)?\\s*$");
+
+    private static final Pattern LIST_ITEM =
+        Pattern.compile("^(\\s*)([*-]|\\d+\\.)\\s+(.*)$");
+
+    private static final Pattern CITATION = Pattern.compile("^(>+)\\s?(.*)$");
+
+    private static final Pattern INLINE = Pattern.compile(
+        "(?<noLink>!(?:#\\d+|\\[[^\\]]*\\]|(?:https?|ftp)://\\S+|[a-z]+:\\S+|\\{\\{\\{|''|~~|__))" +
+        "|(?<boldItalic>''''')|(?<bold>''')|(?<italic>'')" +
+        "|\\{\\{\\{(?<mono>.*?)\\}\\}\\}|`(?<tick>[^`]*)`" +
+        "|(?<strike>~~)|(?<underline>__)" +
+        "|(?<br>\\[\\[BR\\]\\])" +
+        "|(?<bracket>\\[(?<target>[^\\s\\[\\]]+)(?:\\s+(?<label>[^\\]]*))?\\])" +
+        "|(?<url>\\b(?:https?|ftp)://[^\\s<>\"\\]]*[^\\s<>\"\\].,;:!?)'])" +
+        "|(?<![\\w&/#])#(?<ticket>\\d+)\\b" +
+        "|\\bticket:(?<ticketLink>\\d+)\\b" +
+        "|\\bwiki:(?<wiki>[\\w/.-]*[\\w/])");
+
+    private enum Block { NONE, PARAGRAPH, TABLE, QUOTE, CITATION }
+
+    private final String m_BaseUrl;
+    private final StringBuilder m_Out = new StringBuilder();
+
+    /** Inline tags currently open, innermost last. */
+    private final List<String> m_OpenTags = new ArrayList<>();
+
+    /** Indentation and tag of each open list, innermost first. */
+    private final Deque<Integer> m_ListIndents = new ArrayDeque<>();
+    private final Deque<String> m_ListTags = new ArrayDeque<>();
+
+    private Block m_Block = Block.NONE;
+    private int m_CitationDepth = 0;
+
+    /** @param baseUrl The Trac site's URL, used to resolve ticket and wiki links. */
+    public TracWikiRenderer(String baseUrl) {
+        m_BaseUrl = baseUrl;
+    }
+
+    public static String toHtml(String baseUrl, String wikiText) {
+        return new TracWikiRenderer(baseUrl).render(wikiText);
+    }
+
+    public String render(String wikiText) {
+        m_Out.setLength(0);
+        String[] lines = LINE_BREAK.split(wikiText, -1);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (line.trim().equals("{{{")) {
+                i = renderPreformatted(lines, i + 1);
+            } else {
+                renderLine(line);
+            }
+        }
+        closeBlocks();
+        return m_Out.toString();
+    }
+
+    /** @return the index of the closing line. */
+    private int renderPreformatted(String[] lines, int first) {
+        closeBlocks();
+        int i = first;
+
+        // A processor such as "#!python" or "#!html". We don't support any; just show the text.
+        if (i < lines.length && lines[i].startsWith("#!")) {
+            ++i;
+        }
+        m_Out.append("<pre class=\"wiki\">");
+        for (; i < lines.length && !lines[i].trim().equals("}}}"); i++) {
+            appendEscaped(lines[i]);
+            m_Out.append('\n');
+        }
+        m_Out.append("</pre>\n");
+        return i;
+    }
+
+    private void renderLine(String line) {
+        if (line.trim().isEmpty()) {
+            closeBlocks();
+            return;
+        }
+        Matcher m;
+        if ((m = HEADING.matcher(line)).matches()) {
+            closeBlocks();
+            String tag = "h" + m.group(1).length();
+            m_Out.append('<').append(tag).append('>');
+            appendInline(m.group(2));
+            closeInlineTags();
+            m_Out.append("</").append(tag).append(">\n");
+        } else if (RULE.matcher(line).matches()) {
+            closeBlocks();
+            m_Out.append("<hr />\n");
+        } else if ((m = TABLE_ROW.matcher(line)).matches()) {
+            startBlock(Block.TABLE);
+            appendTableRow(m.group(1));
+        } else if ((m = CITATION.matcher(line)).matches()) {
+            appendCitation(m.group(1).length(), m.group(2));
+        } else if ((m = LIST_ITEM.matcher(line)).matches()) {
+            appendListItem(m.group(1).length(), m.group(2), m.group(3));
+        } else if (!m_ListTags.isEmpty() && Character.isWhitespace(line.charAt(0))) {
+
+            // Continuation of a list item
+            m_Out.append(' ');
+            appendInline(line.trim());
+        } else if (Character.isWhitespace(line.charAt(0))) {
+            startBlock(Block.QUOTE);
+            appendInline(line.trim());
+            m_Out.append('\n');
+        } else {
+            startBlock(Block.PARAGRAPH);
+            appendInline(line);
+            m_Out.append('\n');
+        }
+    }
+
+    private void startBlock(Block block) {
+        if (m_Block == block && m_ListTags.isEmpty()) {
+            return;
+        }
+        closeBlocks();
+        m_Block = block;
+        switch (block) {
+        case PARAGRAPH:
+            m_Out.append("<p>\n");
+            break;
+        case QUOTE:
+            m_Out.append("<blockquote>\n<p>\n");
+            break;
+        case TABLE:
+            m_Out.append("<table class=\"wiki\">\n");
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void closeBlocks() {
+        closeInlineTags();
+        while (!m_ListTags.isEmpty()) {
+            closeList();
+        }
+        switch (m_Block) {
+        case PARAGRAPH:
+            m_Out.append("</p>\n");
+            break;
+        case QUOTE:
+            m_Out.append("</p>\n</blockquote>\n");
+            break;
+        case TABLE:
+            m_Out.append("</table>\n");
+            break;
+        case CITATION:
+            m_Out.append("</p>\n");
+            for (; m_CitationDepth > 0; m_CitationDepth--) {
+                m_Out.append("</blockquote>\n");
+            }
+            break;
+        default:
+            break;
+        }
+        m_Block = Block.NONE;
+    }
+
+    private void appendTableRow(String row) {
+        m_Out.append("<tr>");
+        for (String cell : row.split("\\|\\|", -1)) {
+            String text = cell.trim();
+            boolean header = text.length() > 1 && text.startsWith("=") && text.endsWith("=");
+            String tag = header ? "th" : "td";
+            m_Out.append('<').append(tag).append('>');
+            appendInline(header ? text.substring(1, text.length() - 1).trim() : text);
+            closeInlineTags();
+            m_Out.append("</").append(tag).append('>');
+        }
+        m_Out.append("</tr>\n");
+    }
+
+    private void appendCitation(int depth, String text) {
+        if (m_Block != Block.CITATION || depth != m_CitationDepth) {
+            closeBlocks();
+            m_Block = Block.CITATION;
+            for (m_CitationDepth = 0; m_CitationDepth < depth; m_CitationDepth++) {
+                m_Out.append("<blockquote class=\"citation\">\n");
+            }
+            m_Out.append("<p>\n");
+        }
+        appendInline(text);
+        m_Out.append('\n');
+    }
+
+    private void appendListItem(int indent, String bullet, String text) {
+        if (m_ListTags.isEmpty()) {
+            closeBlocks();
+        }
+        closeInlineTags();
+        String tag = (bullet.equals("*") || bullet.equals("-")) ? "ul" : "ol";
+
+        while (!m_ListTags.isEmpty() && m_ListIndents.peek() > indent) {
+            closeList();
+        }
+        if (!m_ListTags.isEmpty() && m_ListIndents.peek() == indent
+                && !m_ListTags.peek().equals(tag)) {
+            closeList();
+        }
+        if (m_ListTags.isEmpty() || m_ListIndents.peek() < indent) {
+            if (!m_ListTags.isEmpty()) {
+                m_Out.append('\n');
+            }
+            m_ListIndents.push(indent);
+            m_ListTags.push(tag);
+            m_Out.append('<').append(tag).append(">\n");
+        } else {
+            m_Out.append("</li>\n");
+        }
+        m_Out.append("<li>");
+        appendInline(text);
+    }
+
+    private void closeList() {
+        closeInlineTags();
+        m_ListIndents.pop();
+        m_Out.append("</li>\n</").append(m_ListTags.pop()).append(">\n");
+    }
+
+    private void appendInline(String text) {
+        Matcher m = INLINE.matcher(text);
+        int last = 0;
+        while (m.find()) {
+            appendEscaped(text.substring(last, m.start()));
+            last = m.end();
+            appendInlineMatch(m);
+        }
+        appendEscaped(text.substring(last));
+    }
+
+    private void appendInlineMatch(Matcher m) {
+        if (m.group("noLink") != null) {
+            appendEscaped(m.group("noLink").substring(1));
+        } else if (m.group("boldItalic") != null) {
+            if (m_OpenTags.contains("strong")) {
+                toggle("em");
+                toggle("strong");
+            } else {
+                toggle("strong");
+                toggle("em");
+            }
+        } else if (m.group("bold") != null) {
+            toggle("strong");
+        } else if (m.group("italic") != null) {
+            toggle("em");
+        } else if (m.group("mono") != null) {
+            appendMonospace(m.group("mono"));
+        } else if (m.group("tick") != null) {
+            appendMonospace(m.group("tick"));
+        } else if (m.group("strike") != null) {
+            toggle("del");
+        } else if (m.group("underline") != null) {
+            toggle("u");
+        } else if (m.group("br") != null) {
+            m_Out.append("<br />");
+        } else if (m.group("bracket") != null) {
+            appendBracketLink(m.group(), m.group("target"), m.group("label"));
+        } else if (m.group("url") != null) {
+            appendLink(m.group("url"), "ext-link", m.group("url"));
+        } else if (m.group("ticket") != null) {
+            appendTicketLink(m.group("ticket"));
+        } else if (m.group("ticketLink") != null) {
+            appendTicketLink(m.group("ticketLink"));
+        } else if (m.group("wiki") != null) {
+            appendLink(m_BaseUrl + "/wiki/" + m.group("wiki"), "wiki", m.group("wiki"));
+        }
+    }
+
+    private void appendMonospace(String text) {
+        m_Out.append("<tt>");
+        appendEscaped(text);
+        m_Out.append("</tt>");
+    }
+
+    private void appendBracketLink(String whole, String target, String label) {
+        String href;
+        String cssClass;
+        if (target.matches("(?:https?|ftp|mailto):.*")) {
+            href = target;
+            cssClass = "ext-link";
+        } else if (target.matches("(?:#|ticket:)\\d+")) {
+            href = m_BaseUrl + "/ticket/" + target.replaceFirst("^(#|ticket:)", "");
+            cssClass = "ticket";
+        } else if (target.startsWith("wiki:")) {
+            href = m_BaseUrl + "/wiki/" + target.substring(5);
+            cssClass = "wiki";
+        } else if (target.startsWith("milestone:")) {
+            href = m_BaseUrl + "/milestone/" + target.substring(10);
+            cssClass = "milestone";
+        } else if (target.startsWith("report:")) {
+            href = m_BaseUrl + "/report/" + target.substring(7);
+            cssClass = "report";
+        } else if (target.startsWith("/")) {
+            href = m_BaseUrl + target;
+            cssClass = "ext-link";
+        } else {
+            appendEscaped(whole);
+            return;
+        }
+        String text = (label == null || label.trim().isEmpty()) ? target : label.trim();
+        appendLink(href, cssClass, text);
+    }
+
+    private void appendTicketLink(String number) {
+        appendLink(m_BaseUrl + "/ticket/" + number, "ticket", "#" + number);
+    }
+
+    private void appendLink(String href, String cssClass, String text) {
+        m_Out.append("<a class=\"").append(cssClass).append("\" href=\"");
+        appendEscaped(href);
+        m_Out.append("\">");
+        appendEscaped(text);
+        m_Out.append("</a>");
+    }
+
+    /** Opens or closes an inline tag, keeping the open tags properly nested. */
+    private void toggle(String tag) {
+        int index = m_OpenTags.lastIndexOf(tag);
+        if (index < 0) {
+            m_OpenTags.add(tag);
+            m_Out.append('<').append(tag).append('>');
+            return;
+        }
+        List<String> reopen = new ArrayList<>(m_OpenTags.subList(index + 1, m_OpenTags.size()));
+        for (int i = m_OpenTags.size() - 1; i >= index; i--) {
+            m_Out.append("</").append(m_OpenTags.remove(i)).append('>');
+        }
+        for (String t : reopen) {
+            m_OpenTags.add(t);
+            m_Out.append('<').append(t).append('>');
+        }
+    }
+
+    private void closeInlineTags() {
+        for (int i = m_OpenTags.size() - 1; i >= 0; i--) {
+            m_Out.append("</").append(m_OpenTags.remove(i)).append('>');
+        }
+    }
+
+    private void appendEscaped(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '&':
+                m_Out.append("&amp;");
+                break;
+            case '<':
+                m_Out.append("&lt;");
+                break;
+            case '>':
+                m_Out.append("&gt;");
+                break;
+            case '"':
+                m_Out.append("&quot;");
+                break;
+            default:
+                m_Out.append(c);
+                break;
+            }
+        }
+    }
+}
@@ -20,9 +20,20 @@ public class AppProperties {
     private final String m_AppName;
     private final String m_AuthorName;
 
+    /** Overrides the usual data directory when not null. */
+    private final Path m_AppDataDirectory;
+
     public AppProperties(String authorName, String appName) {
         m_AuthorName = authorName;
         m_AppName = appName;
+        m_AppDataDirectory = null;
+    }
+
+    /** Keeps the application's data in the given directory, such as a temporary one in tests. */
+    public AppProperties(Path appDataDirectory, String appName) {
+        m_AuthorName = null;
+        m_AppName = appName;
+        m_AppDataDirectory = appDataDirectory;
     }
 
     public void remove(String key) {
@@ -172,6 +183,9 @@ public class AppProperties {
 
     /** Gets the data directory for this application. */
     public Path getAppDataDirectory() throws IOException {
+        if (m_AppDataDirectory != null) {
+            return m_AppDataDirectory;
+        }
         Path path = Paths.get(getGeneralDataDirectory().getPath());
         if (m_AuthorName != null) {
             path = path.resolve(m_AuthorName);
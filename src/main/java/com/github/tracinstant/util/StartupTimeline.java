@@ -0,0 +1,140 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.util;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * When each stage of starting up was first reached, in milliseconds since the JVM started, to
+ * show where the time goes before the user can search. The clock time is all that's recorded
+ * on the way; the JVM's start time is only looked up to report them.
+ */
+public final class StartupTimeline {
+
+    public enum Milestone {
+        MAIN("main() entered"),
+        LOOK_AND_FEEL("Look and feel set"),
+        FRAME_VISIBLE("Frame visible"),
+        TABLE_POPULATED("Table populated"),
+        SEARCH_READY("Search ready");
+
+        private final String description;
+
+        Milestone(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    private static final long s_LoadedMillis = System.currentTimeMillis();
+
+    /** Initialised (with the management classes) only once the timeline is reported. */
+    private static final class JvmStart {
+        static final long MILLIS = getJvmStartMillis();
+    }
+
+    /** The clock time at which each milestone was reached. */
+    // @GuardedBy("s_Reached")
+    private static final Map<Milestone, Long> s_Reached = new EnumMap<>(Milestone.class);
+
+    // @GuardedBy("s_Reached")
+    private static final Map<Milestone, List<Runnable>> s_Actions = new EnumMap<>(Milestone.class);
+
+    private StartupTimeline() {
+    }
+
+    private static long getJvmStartMillis() {
+        try {
+            return ManagementFactory.getRuntimeMXBean().getStartTime();
+        } catch (RuntimeException | LinkageError e) {
+            return s_LoadedMillis; // (Then times are from when this class loaded)
+        }
+    }
+
+    /** Records the milestone, if this is the first time it was reached. */
+    public static void reached(Milestone milestone) {
+        List<Runnable> actions;
+        synchronized (s_Reached) {
+            if (s_Reached.containsKey(milestone)) {
+                return;
+            }
+            s_Reached.put(milestone, System.currentTimeMillis());
+            actions = s_Actions.remove(milestone);
+        }
+        if (actions != null) {
+            actions.forEach(Runnable::run);
+        }
+    }
+
+    /** Runs the action when the milestone is reached (on that thread), or now if it has been. */
+    public static void whenReached(Milestone milestone, Runnable action) {
+        synchronized (s_Reached) {
+            if (!s_Reached.containsKey(milestone)) {
+                s_Actions.computeIfAbsent(milestone, m -> new ArrayList<>()).add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /** The milestones reached so far, one per line, in order. */
+    public static String format() {
+        StringBuilder sb = new StringBuilder("Startup timeline (ms since the JVM started):");
+        synchronized (s_Reached) {
+            for (Map.Entry<Milestone, Long> entry : s_Reached.entrySet()) {
+                sb.append(String.format("%n%8d  %s",
+                    entry.getValue() - JvmStart.MILLIS, entry.getKey()));
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Appends the milestones reached so far to a CSV file, one run per line. */
+    public static void exportTo(Path file) throws IOException {
+        StringBuilder line = new StringBuilder();
+        if (!Files.exists(file)) {
+            for (Milestone milestone : Milestone.values()) {
+                line.append(line.length() == 0 ? "" : ",").append(milestone);
+            }
+            line.append(System.lineSeparator());
+        }
+        synchronized (s_Reached) {
+            for (Milestone milestone : Milestone.values()) {
+                Long millis = s_Reached.get(milestone);
+                line.append(milestone.ordinal() == 0 ? "" : ",")
+                    .append(millis == null ? "" : millis - JvmStart.MILLIS);
+            }
+        }
+        line.append(System.lineSeparator());
+        Files.write(file, line.toString().getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -73,7 +73,8 @@ public class XML10FilterReader extends FilterReader {
     }
 
     private boolean isValidXmlChar(int c) {
-        return c >= 0x0001 && c <= 0xD7FF ||
+        return c >= 0x0020 && c <= 0xD7FF ||
+                c == 0x9 || c == 0xA || c == 0xD ||
                 c >= 0xE000 && c <= 0xFFFD ||
                 c >= 0x10000 && c <= 0x10FFFF;
     }
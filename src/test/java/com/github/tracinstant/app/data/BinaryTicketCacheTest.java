@@ -0,0 +1,243 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class BinaryTicketCacheTest {
+
+    private static final List<String> FIELDS = Arrays.asList("description", "status", "summary");
+
+    private static List<Ticket> makeTickets() {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            Ticket ticket = new Ticket(i * 1000);
+            ticket.putField("status", i % 3 == 0 ? "closed" : "new");
+            ticket.putField("summary", "Ticket \u00E9\u4E2D " + i);
+            if (i != 7) {
+                ticket.putField("description", i == 5 ? "" : "<p>Line\twith tab\nand newline</p>");
+            }
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+
+    private static byte[] write(List<Ticket> tickets) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryTicketCache.write(out, FIELDS, tickets);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<Ticket> original = makeTickets();
+        List<Ticket> loaded =
+            BinaryTicketCache.read(ByteBuffer.wrap(write(original))).getTickets();
+
+        assertEquals(original.size(), loaded.size());
+        for (int i = 0; i < original.size(); i++) {
+            assertEquals(original.get(i).getNumber(), loaded.get(i).getNumber());
+            for (String field : FIELDS) {
+                assertEquals(original.get(i).getValue(field), loaded.get(i).getValue(field));
+            }
+        }
+        assertNull(loaded.get(6).getValue("description"));
+        assertEquals("", loaded.get(4).getValue("description"));
+    }
+
+    @Test
+    public void testLargeCacheIsReadInParallel() throws Exception {
+        List<Ticket> original = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            Ticket ticket = new Ticket(i);
+            ticket.putField("status", i % 3 == 0 ? "closed" : "new");
+            ticket.putField("summary", "Ticket " + i);
+            ticket.putField("description", String.format("%300d", i));
+            original.add(ticket);
+        }
+        List<Ticket> loaded =
+            BinaryTicketCache.read(ByteBuffer.wrap(write(original)), 4).getTickets();
+
+        assertEquals(original.size(), loaded.size());
+        for (int i = 0; i < original.size(); i++) {
+            assertEquals(original.get(i).getNumber(), loaded.get(i).getNumber());
+            for (String field : FIELDS) {
+                assertEquals(original.get(i).getValue(field), loaded.get(i).getValue(field));
+            }
+        }
+    }
+
+    @Test
+    public void testRepeatedValuesAreShared() throws Exception {
+        List<Ticket> loaded =
+            BinaryTicketCache.read(ByteBuffer.wrap(write(makeTickets()))).getTickets();
+        assertSame("new", loaded.get(0).getValue("status"));
+        assertSame(loaded.get(0).getValue("status"), loaded.get(1).getValue("status"));
+    }
+
+    @Test
+    public void testLongTextIsLeftInTheMappedFile() throws Exception {
+        List<Ticket> original = makeTickets();
+        for (Ticket ticket : original) {
+            String padding = new String(new char[300]).replace('\0', 'x');
+            ticket.putField("description", ticket.getNumber() % 2000 == 0
+                ? "<p>ASCII " + padding + " " + ticket.getNumber() + "</p>"
+                : "<p>\u00DCn\u00EFcode " + padding + " " + ticket.getNumber() + "</p>");
+        }
+        Path file = Files.createTempFile("BinaryTicketCacheTest", ".bin");
+        file.toFile().deleteOnExit(); // Windows can't delete it while it is mapped
+        Files.write(file, write(original));
+        List<Ticket> loaded = BinaryTicketCache.read(file).getTickets();
+
+        assertTrue(loaded.get(0).getRawValue("description") instanceof MappedText);
+        Pattern pattern = Pattern.compile("ASCII x+ 2000<");
+        assertTrue(pattern.matcher(loaded.get(1).getTextForScanning("description")).find());
+        assertFalse(pattern.matcher(loaded.get(0).getTextForScanning("description")).find());
+
+        // Saving again copies the mapped bytes
+        List<Ticket> copied =
+            BinaryTicketCache.read(ByteBuffer.wrap(write(loaded))).getTickets();
+        for (int i = 0; i < original.size(); i++) {
+            String expected = original.get(i).getValue("description");
+            assertEquals(expected, loaded.get(i).getValue("description"));
+            assertEquals(expected, copied.get(i).getValue("description"));
+        }
+    }
+
+    @Test
+    public void testEncodedTextIsWrittenLikeStrings() throws Exception {
+        List<Ticket> original = makeTickets();
+        String longSummary = "Long summary \u00E9 " + new String(new char[300]).replace('\0', 'x');
+        original.get(2).putSharedField("summary", MappedText.encode(longSummary));
+        original.get(3).putSharedField("description", MappedText.encode(""));
+        List<Ticket> loaded =
+            BinaryTicketCache.read(ByteBuffer.wrap(write(original))).getTickets();
+
+        assertEquals(longSummary, loaded.get(2).getValue("summary"));
+        assertEquals("", loaded.get(3).getValue("description"));
+
+        // One long summary mustn't make a column of short ones be stored as long text
+        assertFalse(loaded.get(0).getRawValue("summary") instanceof MappedText);
+    }
+
+    @Test
+    public void testCompressedFileIsRecognised() throws Exception {
+        List<Ticket> original = makeTickets();
+        Path file = Files.createTempFile("BinaryTicketCacheTest", ".bin");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                BinaryTicketCache.writeCompressed(out, "http://trac", "", FIELDS, original);
+            }
+            assertEquals("http://trac", BinaryTicketCache.readHeader(file).siteUrl);
+            List<Ticket> loaded = BinaryTicketCache.read(file).getTickets();
+            assertEquals(original.size(), loaded.size());
+            for (int i = 0; i < original.size(); i++) {
+                for (String field : FIELDS) {
+                    assertEquals(original.get(i).getValue(field), loaded.get(i).getValue(field));
+                }
+            }
+
+            byte[] data = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(data, data.length - 10));
+            try {
+                BinaryTicketCache.read(file);
+                fail("Read truncated file");
+            } catch (IOException e) {
+                // Expected
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testHeaderIsReadAlone() throws Exception {
+        Path file = Files.createTempFile("BinaryTicketCacheTest", ".bin");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                BinaryTicketCache.write(out, "http://trac", "2020-01-02", FIELDS, makeTickets());
+            }
+            BinaryTicketCache.Header header = BinaryTicketCache.readHeader(file);
+            assertEquals(BinaryTicketCache.VERSION, header.version);
+            assertEquals("http://trac", header.siteUrl);
+            assertEquals(20, header.ticketCount);
+            assertEquals("2020-01-02", header.latestChangeTime);
+            assertEquals(FIELDS, header.fields);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCorruptDataIsRejected() throws Exception {
+        byte[] data = write(makeTickets());
+        for (int position : new int[] { 12, 30, data.length / 2, data.length - 6 }) {
+            byte[] corrupt = data.clone();
+            corrupt[position] ^= 0x10;
+            try {
+                BinaryTicketCache.read(ByteBuffer.wrap(corrupt));
+                fail("Read data corrupted at " + position);
+            } catch (IOException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testTruncatedDataIsRejected() throws Exception {
+        byte[] data = write(makeTickets());
+        for (int length : new int[] { 0, 6, 20, data.length / 2, data.length - 1 }) {
+            try {
+                BinaryTicketCache.read(ByteBuffer.wrap(Arrays.copyOf(data, length)));
+                fail("Read " + length + " of " + data.length + " bytes");
+            } catch (IOException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testOtherVersionIsRejected() throws Exception {
+        ByteBuffer data = ByteBuffer.wrap(write(makeTickets()));
+        data.putInt(4, BinaryTicketCache.VERSION + 1);
+        try {
+            BinaryTicketCache.read(data);
+            fail();
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+}
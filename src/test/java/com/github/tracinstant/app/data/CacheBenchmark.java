@@ -0,0 +1,93 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import com.github.tracinstant.app.prefs.SiteSettings;
+import com.github.tracinstant.app.prefs.TracInstantProperties;
+
+/**
+ * Compares loading the local cache (as at startup) in the tab-delimited, binary and compressed
+ * binary formats.
+ * Not a unit test: run the main method by hand, with the optional arguments:
+ * <pre>
+ *   [tickets [descriptionLength]]
+ * </pre>
+ * The tickets are first slurped from a {@link MockTracServer}.
+ */
+public class CacheBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int descriptionLength = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        TemporaryAppData appData = new TemporaryAppData("TracInstantBenchmark");
+
+        SiteData site;
+        try (MockTracServer server = new MockTracServer(tickets)) {
+            server.setDescriptionLength(descriptionLength);
+            TracInstantProperties.addURL_MRU(server.getURL());
+            SiteSettings.getInstance().setFetchOnlyActiveTickets(false);
+            site = new SiteData();
+            server.slurp(site, null);
+        }
+        System.out.println(tickets + " tickets, descriptions of about " + descriptionLength +
+            " characters");
+
+        try {
+            for (String format : new String[] { "Tab-delimited", "Binary", "Compressed" }) {
+                TracInstantProperties.setUseBinaryCache(!format.equals("Tab-delimited"));
+                TracInstantProperties.setCompressCache(format.equals("Compressed"));
+                site.saveCache();
+                System.out.format("%-14s %8.1f MB on disk%n", format, getCacheSizeMB(site));
+                for (int round = 1; round <= ROUNDS; round++) {
+                    long t0 = System.nanoTime();
+                    int loaded = load(site, SiteData.TABULAR_CACHE_FILE)
+                        + load(site, SiteData.HIDDEN_FIELDS_CACHE_FILE);
+                    System.out.format("%-14s %8.0f ms to load %d ticket records (round %d)%n",
+                        format, (System.nanoTime() - t0) / 1e6, loaded, round);
+                }
+            }
+        } finally {
+            site.reset();
+            appData.delete();
+        }
+    }
+
+    private static int load(SiteData site, String fileName) throws InterruptedException {
+        return site.loadCachedTickets(fileName).getTickets().size();
+    }
+
+    private static double getCacheSizeMB(SiteData site) throws IOException {
+        long bytes = 0;
+        try (Stream<Path> files =
+                Files.list(SiteData.getSiteDataDir(site.getSiteUrl()))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().startsWith("SiteCache_")) {
+                    bytes += Files.size(file);
+                }
+            }
+        }
+        return bytes / (1024.0 * 1024);
+    }
+}
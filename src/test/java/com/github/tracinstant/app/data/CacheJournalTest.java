@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tracinstant.app.data.TicketLoadTask.Update;
+
+public class CacheJournalTest {
+
+    private static final Set<String> NO_FIELDS = Collections.emptySet();
+
+    private Path m_File;
+
+    @Before
+    public void setUp() throws Exception {
+        m_File = Files.createTempFile("CacheJournalTest", ".bin");
+        Files.delete(m_File);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(m_File);
+    }
+
+    private static Update makeUpdate(int id, String summary) {
+        Ticket ticket = new Ticket(id);
+        ticket.putField("summary", summary);
+        List<Ticket> tickets = Collections.singletonList(ticket);
+        return new Update(() -> tickets);
+    }
+
+    @Test
+    public void testRecordsAreReplayedInOrder() throws Exception {
+        CacheJournal journal = new CacheJournal(m_File, (records, hiddenFields) -> { });
+        journal.append(makeUpdate(1, "First"), NO_FIELDS);
+        journal.append(new Update(Collections.singleton(1)), NO_FIELDS);
+        journal.append(makeUpdate(2, "Second"), NO_FIELDS);
+        journal.append(new Update("Status", "ignored"), NO_FIELDS);
+        journal.close();
+
+        List<Update> records = CacheJournal.read(m_File);
+        assertEquals(3, records.size());
+        assertEquals("First", records.get(0).ticketProvider.getTickets().get(0).getValue("summary"));
+        assertEquals(Collections.singleton(1), records.get(1).removedTicketIds);
+        assertEquals(2, records.get(2).ticketProvider.getTickets().get(0).getNumber());
+    }
+
+    @Test
+    public void testTornRecordIsCutOff() throws Exception {
+        CacheJournal journal = new CacheJournal(m_File, (records, hiddenFields) -> { });
+        journal.append(makeUpdate(1, "Complete"), NO_FIELDS);
+        journal.close();
+
+        // As if a crash happened part-way through writing a record
+        Files.write(m_File, new byte[] { 0, 0, 0, 40, 1, 2 }, StandardOpenOption.APPEND);
+        assertEquals(1, CacheJournal.read(m_File).size());
+
+        journal = new CacheJournal(m_File, (records, hiddenFields) -> { });
+        journal.append(makeUpdate(2, "After"), NO_FIELDS);
+        journal.close();
+        List<Update> records = CacheJournal.read(m_File);
+        assertEquals(2, records.size());
+        assertEquals("After", records.get(1).ticketProvider.getTickets().get(0).getValue("summary"));
+    }
+
+    @Test
+    public void testLargeJournalIsCompacted() throws Exception {
+        List<List<Update>> compacted = new ArrayList<>();
+        CacheJournal journal = new CacheJournal(m_File, 100, (records, hiddenFields) -> compacted.add(records));
+        char[] padding = new char[200];
+        Arrays.fill(padding, 'x');
+        journal.append(makeUpdate(1, "Short"), NO_FIELDS);
+        journal.append(makeUpdate(2, new String(padding)), NO_FIELDS);
+        journal.append(makeUpdate(3, "Next"), NO_FIELDS);
+        journal.close();
+
+        assertEquals(1, compacted.size());
+        assertEquals(2, compacted.get(0).size());
+        List<Update> remaining = CacheJournal.read(m_File);
+        assertEquals(1, remaining.size());
+        assertEquals(3, remaining.get(0).ticketProvider.getTickets().get(0).getNumber());
+        assertFalse(remaining.get(0).ticketProvider.getTickets().isEmpty());
+        assertNull(remaining.get(0).removedTicketIds);
+    }
+
+    @Test
+    public void testShortJournalIsCompactedOnRequest() throws Exception {
+        List<Set<String>> hiddenFieldsUsed = new ArrayList<>();
+        CacheJournal journal = new CacheJournal(m_File,
+            (records, hiddenFields) -> hiddenFieldsUsed.add(hiddenFields));
+        journal.append(makeUpdate(1, "Short"), NO_FIELDS);
+        journal.compact(Collections.singleton("description"));
+        journal.flush();
+
+        assertEquals(Arrays.asList(Collections.singleton("description")), hiddenFieldsUsed);
+        assertTrue(CacheJournal.read(m_File).isEmpty());
+        journal.close();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class MemoryGovernorTest {
+
+    private static String repeat(String text, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            sb.append(text);
+        }
+        return sb.substring(0, length);
+    }
+
+    private static Ticket makeTicket(int id, String status, String description) {
+        Ticket ticket = new Ticket(id);
+        ticket.putField("status", status);
+        ticket.putField("summary", "Ticket " + id);
+        ticket.putField("description", description);
+        return ticket;
+    }
+
+    private static List<Integer> spilledTickets(List<MemoryGovernor.Spill> spills) {
+        List<Integer> result = new ArrayList<>();
+        for (MemoryGovernor.Spill spill : spills) {
+            assertEquals("description", spill.field);
+            result.add(spill.ticket.getNumber());
+        }
+        return result;
+    }
+
+    @Test
+    public void testNothingIsMovedWithinBudget() {
+        Ticket[] tickets = { makeTicket(1, "closed", repeat("x", 1000)) };
+        assertTrue(MemoryGovernor.chooseSpills(tickets, Collections.emptyList(), 1 << 20)
+            .isEmpty());
+    }
+
+    @Test
+    public void testClosedThenLeastRecentlyViewedTicketsAreMovedFirst() {
+        String text = repeat("Some description. ", 1000);
+        Ticket[] tickets = {
+            makeTicket(1, "new", text),
+            makeTicket(2, "closed", text),
+            makeTicket(3, "new", text),
+            makeTicket(4, "new", text),
+            makeTicket(5, "new", "Too short to move"),
+        };
+        for (Ticket ticket : tickets) {
+            // About 1.1 KB of heap each, whichever way Strings are stored
+            ticket.putSharedField("description",
+                MappedText.encode(ticket.getValue("description")));
+        }
+        List<Integer> viewed = Arrays.asList(4, 1, 3); // (Least recently first)
+
+        // Over budget by a little: down to 3/4 of it moves the closed one and one more
+        assertEquals(Arrays.asList(2, 4),
+            spilledTickets(MemoryGovernor.chooseSpills(tickets, viewed, 4000)));
+
+        // A tiny budget moves all the long values
+        assertEquals(Arrays.asList(2, 4, 1, 3),
+            spilledTickets(MemoryGovernor.chooseSpills(tickets, viewed, 1)));
+    }
+
+    @Test
+    public void testMovedValuesReadBackTheSame() throws Exception {
+        String ascii = repeat("plain ASCII text ", 500);
+        String unicode = repeat("caf\u00E9 \uD83D\uDE00 ", 500);
+        Ticket[] tickets = { makeTicket(1, "new", ascii), makeTicket(2, "closed", unicode) };
+        List<MemoryGovernor.Spill> spills =
+            MemoryGovernor.chooseSpills(tickets, Collections.emptyList(), 1);
+        MemoryGovernor governor = new MemoryGovernor(new TicketTableModel(), 1);
+        MemoryGovernor.SpillFile file = new MemoryGovernor.SpillFile();
+        List<MappedText> moved = governor.spill(spills, file).values;
+        assertEquals(unicode, moved.get(0).toString());
+        assertEquals(ascii, moved.get(1).toString());
+        assertTrue(moved.get(1).isAscii());
+        assertEquals(ascii.length(), moved.get(1).length());
+
+        // Text encoded as UTF-8 on the heap is moved too, as it is
+        Ticket encoded = makeTicket(3, "new", "");
+        encoded.putSharedField("description", MappedText.encode(unicode));
+        spills = MemoryGovernor.chooseSpills(new Ticket[] { encoded }, Collections.emptyList(), 1);
+        assertEquals(Arrays.asList(3), spilledTickets(spills));
+        moved = governor.spill(spills, file).values;
+        assertFalse(moved.get(0).isOnHeap());
+        assertEquals(unicode, moved.get(0).toString());
+
+        // And a later batch is appended to the same file
+        moved = governor.spill(spills, file).values;
+        assertEquals(unicode, moved.get(0).toString());
+    }
+}
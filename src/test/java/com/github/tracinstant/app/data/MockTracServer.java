@@ -0,0 +1,625 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import com.github.tracinstant.app.data.TicketLoadTask.Update;
+import com.github.tracinstant.app.prefs.SiteSettings;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A stand-in for a Trac server, serving synthetic tickets on localhost so that slurping and
+ * downloading can be measured (and tested) without a live Trac. It supports just the requests
+ * that TracInstant makes:
+ * <ul>
+ * <li><code>/query?format=tab</code> and <code>/query?format=rss</code>, with the
+ * <code>col</code>, <code>status</code>, <code>id</code>, <code>changetime</code>,
+ * <code>order</code>, <code>max</code> and <code>page</code> parameters;</li>
+ * <li><code>/attachment/ticket/N/</code> listing pages; and</li>
+ * <li><code>/attachment/ticket/N/name?format=raw</code> downloads.</li>
+ * </ul>
+ * Tickets are generated on the fly from their number, so even a million costs little memory.
+ * Every third ticket is closed. Latency, bandwidth and errors can be injected, and are applied
+ * to each request.
+ */
+public class MockTracServer implements Closeable {
+
+    private static final DateTimeFormatter DISPLAY_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final DateTimeFormatter URL_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /** The change time of ticket N is this plus N minutes, until it is modified. */
+    private static final long BASE_TIME =
+        LocalDateTime.of(2020, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private static final String[] STATUSES = { "new", "assigned", "accepted", "reopened" };
+    private static final String[] OWNERS = { "alice", "bob", "carol", "dave", "erin", "frank" };
+    private static final String[] COMPONENTS = { "core", "ui", "docs", "build", "network" };
+    private static final String[] WORDS = ("lorem ipsum dolor sit amet consectetur adipiscing " +
+        "elit sed do eiusmod tempor incididunt ut labore et dolore magna aliqua").split(" ");
+
+    private final HttpServer m_Server;
+    private final ExecutorService m_Executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "MockTracServer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile int m_TicketCount;
+    private volatile int m_LatencyMillis = 0;
+    private volatile long m_BytesPerSecond = 0;
+    private volatile double m_ErrorRate = 0.0;
+    private volatile int m_FirstFailure = 0;
+    private volatile int m_LastFailure = 0;
+    private volatile int m_ErrorStatus = 503;
+    private volatile int m_DescriptionLength = 1000;
+    private volatile int m_AttachmentsPerTicket = 2;
+    private volatile int m_AttachmentSize = 64 * 1024;
+
+    /** Tickets modified since they were created: the number of edits and the latest time. */
+    private final Map<Integer, long[]> m_Modifications = new ConcurrentHashMap<>();
+    private final Set<Integer> m_Deleted = ConcurrentHashMap.newKeySet();
+    private final AtomicLong m_Clock;
+
+    private final AtomicInteger m_Requests = new AtomicInteger();
+    private final AtomicInteger m_Errors = new AtomicInteger();
+    private final AtomicLong m_BytesSent = new AtomicLong();
+
+    public MockTracServer(int ticketCount) throws IOException {
+        m_TicketCount = ticketCount;
+        m_Clock = new AtomicLong(BASE_TIME + 60L * ticketCount);
+        m_Server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        m_Server.createContext("/", this::handle);
+        m_Server.setExecutor(m_Executor);
+        m_Server.start();
+    }
+
+    @Override
+    public void close() {
+        m_Server.stop(0);
+        m_Executor.shutdownNow();
+    }
+
+    /** The URL to enter as the Trac site. */
+    public String getURL() {
+        return "http://localhost:" + m_Server.getAddress().getPort();
+    }
+
+    public int getTicketCount() {
+        return m_TicketCount;
+    }
+
+    /** Extra delay before each response. */
+    public void setLatencyMillis(int millis) {
+        m_LatencyMillis = millis;
+    }
+
+    /** The rate at which each response is written, or 0 for no limit. */
+    public void setBytesPerSecond(long bytesPerSecond) {
+        m_BytesPerSecond = bytesPerSecond;
+    }
+
+    /** The proportion (0 to 1) of requests failed (with "503 Service Unavailable", by default). */
+    public void setErrorRate(double errorRate) {
+        m_ErrorRate = errorRate;
+    }
+
+    /**
+     * Fails a run of requests (with "503 Service Unavailable", by default), counting from 1 at
+     * the last {@link #resetStatistics()}. A count of zero stops failing requests.
+     */
+    public void failRequests(int first, int count) {
+        m_FirstFailure = first;
+        m_LastFailure = first + count - 1;
+    }
+
+    /** The status of the failed requests. */
+    public void setErrorStatus(int status) {
+        m_ErrorStatus = status;
+    }
+
+    /** The approximate length of the wiki text of each description. */
+    public void setDescriptionLength(int length) {
+        m_DescriptionLength = length;
+    }
+
+    public void setAttachmentsPerTicket(int count) {
+        m_AttachmentsPerTicket = count;
+    }
+
+    public void setAttachmentSize(int bytes) {
+        m_AttachmentSize = bytes;
+    }
+
+    /** Simulates edits, giving each ticket a new summary and change time. */
+    public void modifyTickets(int... numbers) {
+        for (int number : numbers) {
+            long time = m_Clock.addAndGet(1);
+            m_Modifications.merge(number, new long[] { 1, time },
+                    (a, b) -> new long[] { a[0] + 1, b[1] });
+        }
+    }
+
+    /** Adds new tickets, numbered after the existing ones. */
+    public void addTickets(int count) {
+        int first = m_TicketCount + 1;
+        m_TicketCount += count;
+        for (int number = first; number <= m_TicketCount; number++) {
+            modifyTickets(number);
+        }
+    }
+
+    /** Simulates tickets being deleted, so they no longer appear in any query. */
+    public void deleteTickets(int... numbers) {
+        for (int number : numbers) {
+            m_Deleted.add(number);
+        }
+    }
+
+    public int getRequestCount() {
+        return m_Requests.get();
+    }
+
+    public int getErrorCount() {
+        return m_Errors.get();
+    }
+
+    public long getBytesSent() {
+        return m_BytesSent.get();
+    }
+
+    public void resetStatistics() {
+        m_Requests.set(0);
+        m_Errors.set(0);
+        m_BytesSent.set(0);
+    }
+
+    /**
+     * Runs a {@link SlurpTask} against this server, merging the results into the site's table
+     * model as the application would, and waits for it to finish.
+     *
+     * @param since as for SlurpTask: null for a full slurp.
+     * @return the task, complete.
+     */
+    public SlurpTask slurp(SiteData site, String since) throws Exception {
+        return slurp(site, since, false);
+    }
+
+    /** As {@link #slurp(SiteData, String)}, optionally checking for drift. */
+    public SlurpTask slurp(SiteData site, String since, boolean checkForDrift) throws Exception {
+        SiteSettings settings = SiteSettings.getInstance();
+        settings.setURL(getURL());
+        settings.setUsername("");
+        settings.setAttachmentsDir("");
+
+        SlurpTask task =
+            new SlurpTask(site, settings, since, CompletableFuture.completedFuture(null));
+        task.setCheckForDrift(checkForDrift);
+        task.addPropertyChangeListener(evt -> {
+            if ("status".equals(evt.getPropertyName())) {
+                Update update = (Update) evt.getNewValue();
+                if (update.ticketProvider != null) {
+                    site.getTableModel().mergeTickets(update.ticketProvider.getTickets());
+                } else if (update.removedTicketIds != null) {
+                    site.getTableModel().removeTickets(update.removedTicketIds);
+                }
+            }
+        });
+        CountDownLatch done = new CountDownLatch(1);
+        task.executeWithNotification(done::countDown);
+        done.await();
+        task.get();
+        return task;
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // The synthetic tickets
+
+    public String getChangeTime(int number) {
+        return formatTime(getChangeSeconds(number));
+    }
+
+    private long getChangeSeconds(int number) {
+        long[] modification = m_Modifications.get(number);
+        return modification == null ? BASE_TIME + 60L * number : modification[1];
+    }
+
+    private static String formatTime(long epochSeconds) {
+        return DISPLAY_FORMAT.format(LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC));
+    }
+
+    private static boolean isClosed(int number) {
+        return number % 3 == 0;
+    }
+
+    public String getFieldValue(int number, String field) {
+        Random random = new Random(number);
+        switch (field) {
+        case "id":
+            return Integer.toString(number);
+        case "summary":
+            long[] modification = m_Modifications.get(number);
+            return "Synthetic ticket " + number + " about " + WORDS[random.nextInt(WORDS.length)] +
+                (modification == null ? "" : " (edit " + modification[0] + ")");
+        case "status":
+            return isClosed(number) ? "closed" : STATUSES[random.nextInt(STATUSES.length)];
+        case "resolution":
+            return isClosed(number) ? "fixed" : "";
+        case "owner":
+        case "reporter":
+            return OWNERS[random.nextInt(OWNERS.length)];
+        case "component":
+            return COMPONENTS[random.nextInt(COMPONENTS.length)];
+        case "priority":
+            return "major";
+        case "type":
+            return random.nextBoolean() ? "defect" : "enhancement";
+        case "milestone":
+            return "1." + random.nextInt(5);
+        case "changetime":
+        case "modified":
+            return getChangeTime(number);
+        case "description":
+            return getWikiDescription(number);
+        default:
+            return "";
+        }
+    }
+
+    public String getWikiDescription(int number) {
+        Random random = new Random(-number);
+        int target = m_DescriptionLength / 2 + random.nextInt(m_DescriptionLength + 1);
+        StringBuilder sb = new StringBuilder(target + 100);
+        while (sb.length() < target) {
+            for (int i = 0; i < 12; i++) {
+                sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            sb.append("see #").append(1 + random.nextInt(Math.max(1, number)))
+              .append(" and '''bold''' {{{code}}}.\n");
+            if (random.nextInt(4) == 0) {
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Roughly what Trac would render from the wiki text. */
+    private String getHtmlDescription(int number) {
+        StringBuilder sb = new StringBuilder("<p>\n");
+        for (String line : getWikiDescription(number).split("\n", -1)) {
+            if (line.isEmpty()) {
+                sb.append("</p>\n<p>\n");
+            } else {
+                sb.append(escape(line)
+                        .replaceAll("#(\\d+)",
+                            "<a class=\"new ticket\" href=\"/ticket/$1\">#$1</a>")
+                        .replaceAll("'''(.*?)'''", "<strong>$1</strong>")
+                        .replaceAll("\\{\\{\\{(.*?)\\}\\}\\}", "<tt>$1</tt>"))
+                  .append('\n');
+            }
+        }
+        return sb.append("</p>").toString();
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Request handling
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int request = m_Requests.incrementAndGet();
+        try {
+            if (m_LatencyMillis > 0) {
+                Thread.sleep(m_LatencyMillis);
+            }
+            if ((request >= m_FirstFailure && request <= m_LastFailure)
+                    || (m_ErrorRate > 0 && ThreadLocalRandom.current().nextDouble() < m_ErrorRate)) {
+                m_Errors.incrementAndGet();
+                sendText(exchange, m_ErrorStatus, "text/plain", "Injected error");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            Map<String, List<String>> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            if (path.equals("/query")) {
+                handleQuery(exchange, params);
+            } else if (path.startsWith("/attachment/ticket/")) {
+                handleAttachment(exchange, path.substring("/attachment/ticket/".length()));
+            } else {
+                sendText(exchange, 404, "text/plain", "Not found: " + path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            sendText(exchange, 500, "text/plain", e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleQuery(HttpExchange exchange, Map<String, List<String>> params)
+            throws IOException {
+        int[] numbers = selectTickets(params);
+        String format = first(params, "format", "");
+        if (format.equals("tab")) {
+            List<String> columns = params.getOrDefault("col", Arrays.asList("id", "summary"));
+            try (Writer out = openResponse(exchange, "text/tab-separated-values")) {
+                writeTab(out, columns, numbers);
+            }
+        } else if (format.equals("rss")) {
+            try (Writer out = openResponse(exchange, "application/rss+xml")) {
+                writeRss(out, numbers);
+            }
+        } else {
+            sendText(exchange, 400, "text/plain", "Unsupported format: " + format);
+        }
+    }
+
+    private int[] selectTickets(Map<String, List<String>> params) {
+        IntPredicate filter = n -> !m_Deleted.contains(n);
+        if (first(params, "status", "").equals("!closed")) {
+            filter = filter.and(n -> !isClosed(n));
+        }
+        String ids = first(params, "id", null);
+        if (ids != null) {
+            IntPredicate idFilter = parseIdRanges(ids);
+            filter = filter.and(idFilter);
+        }
+        String changetime = first(params, "changetime", null);
+        if (changetime != null) {
+            long since = LocalDateTime.parse(changetime.replace("..", ""), URL_FORMAT)
+                    .toEpochSecond(ZoneOffset.UTC);
+            filter = filter.and(n -> getChangeSeconds(n) >= since);
+        }
+        int[] numbers = IntStream.rangeClosed(1, m_TicketCount).filter(filter).toArray();
+
+        if (first(params, "order", "id").equals("changetime")) {
+            numbers = Arrays.stream(numbers).boxed()
+                    .sorted(Comparator.comparingLong(this::getChangeSeconds))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        int max = Integer.parseInt(first(params, "max", "0"));
+        if (max > 0) {
+            int page = Integer.parseInt(first(params, "page", "1"));
+            int from = Math.min(numbers.length, (page - 1) * max);
+            numbers = Arrays.copyOfRange(numbers, from, Math.min(numbers.length, from + max));
+        }
+        return numbers;
+    }
+
+    /** Parses Trac's id syntax, such as "1,3-5,8". */
+    private static IntPredicate parseIdRanges(String ids) {
+        List<int[]> ranges = new ArrayList<>();
+        for (String part : ids.split("[,|]")) {
+            String[] bounds = part.trim().split("-");
+            int low = Integer.parseInt(bounds[0]);
+            int high = bounds.length > 1 ? Integer.parseInt(bounds[1]) : low;
+            ranges.add(new int[] { low, high });
+        }
+        return n -> ranges.stream().anyMatch(r -> n >= r[0] && n <= r[1]);
+    }
+
+    private void writeTab(Writer out, List<String> columns, int[] numbers) throws IOException {
+
+        // Like Trac (Python's csv module), including the byte order mark.
+        out.write('\uFEFF');
+        out.write(String.join("\t", columns));
+        out.write("\r\n");
+        for (int number : numbers) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    out.write('\t');
+                }
+                writeTabValue(out, getFieldValue(number, columns.get(i)));
+            }
+            out.write("\r\n");
+        }
+    }
+
+    private static void writeTabValue(Writer out, String value) throws IOException {
+        if (value.indexOf('\t') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            out.write(value);
+        } else {
+            out.write('"');
+            out.write(value.replace("\"", "\"\"").replace("\n", "\r\n"));
+            out.write('"');
+        }
+    }
+
+    private void writeRss(Writer out, int[] numbers) throws IOException {
+        String url = getURL();
+        out.write("<?xml version=\"1.0\"?>\n" +
+            "<rss version=\"2.0\" xmlns:dc=\"http://purl.org/dc/elements/1.1/\">\n" +
+            "<channel>\n<title>Mock Trac: Ticket Query</title>\n" +
+            "<link>" + url + "/query</link>\n<description>Trac Ticket Query</description>\n" +
+            "<language>en-us</language>\n");
+        for (int number : numbers) {
+            out.write("<item>\n<dc:creator>" + getFieldValue(number, "reporter") +
+                "</dc:creator>\n<pubDate>" + getChangeTime(number) + "</pubDate>\n<title>#" +
+                number + ": " + escape(getFieldValue(number, "summary")) + "</title>\n<link>" +
+                url + "/ticket/" + number + "</link>\n<guid isPermaLink=\"false\">" + url +
+                "/ticket/" + number + "</guid>\n<description>" +
+                escape(getHtmlDescription(number)) + "</description>\n" +
+                "<category>Results</category>\n</item>\n");
+        }
+        out.write("</channel>\n</rss>\n");
+    }
+
+    private void handleAttachment(HttpExchange exchange, String rest) throws IOException {
+        int slash = rest.indexOf('/');
+        int number = Integer.parseInt(rest.substring(0, slash));
+        String name = rest.substring(slash + 1);
+        if (number < 1 || number > m_TicketCount) {
+            sendText(exchange, 404, "text/plain", "No such ticket: " + number);
+        } else if (name.isEmpty()) {
+            try (Writer out = openResponse(exchange, "text/html")) {
+                out.write("<html><body><h1>Attachments</h1>\n<dl class=\"attachments\">\n");
+                for (int i = 1; i <= m_AttachmentsPerTicket; i++) {
+                    out.write("<dt><a href=\"/attachment/ticket/" + number + "/file-" + i +
+                        ".bin\" title=\"View attachment\">file-" + i + ".bin</a></dt>\n");
+                }
+                out.write("</dl></body></html>\n");
+            }
+        } else {
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, m_AttachmentSize);
+            byte[] chunk = new byte[8192];
+            new Random(number).nextBytes(chunk);
+            try (OutputStream out = new CountingOutputStream(exchange.getResponseBody())) {
+                for (int remaining = m_AttachmentSize; remaining > 0; remaining -= chunk.length) {
+                    out.write(chunk, 0, Math.min(remaining, chunk.length));
+                }
+            }
+        }
+    }
+
+    private Writer openResponse(HttpExchange exchange, String contentType) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType + ";charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        return new BufferedWriter(new OutputStreamWriter(
+            new CountingOutputStream(exchange.getResponseBody()), StandardCharsets.UTF_8), 32768);
+    }
+
+    private void sendText(HttpExchange exchange, int status, String contentType, String text)
+            throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + ";charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = new CountingOutputStream(exchange.getResponseBody())) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = decode(equals < 0 ? pair : pair.substring(0, equals));
+            String value = equals < 0 ? "" : decode(pair.substring(equals + 1));
+            params.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+        return params;
+    }
+
+    private static String first(Map<String, List<String>> params, String key, String fallback) {
+        List<String> values = params.getOrDefault(key, Collections.emptyList());
+        return values.isEmpty() ? fallback : values.get(0);
+    }
+
+    private static String decode(String s) {
+        try {
+            return URLDecoder.decode(s, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+
+    /** Counts bytes sent, while limiting the rate to {@link #m_BytesPerSecond}. */
+    private final class CountingOutputStream extends FilterOutputStream {
+        private final long m_StartNanos = System.nanoTime();
+        private long m_Count = 0;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            m_Count += len;
+            m_BytesSent.addAndGet(len);
+            long rate = m_BytesPerSecond;
+            if (rate > 0) {
+                long dueNanos = m_Count * 1_000_000_000L / rate;
+                long sleepMillis = (dueNanos - (System.nanoTime() - m_StartNanos)) / 1_000_000;
+                if (sleepMillis > 0) {
+                    try {
+                        Thread.sleep(sleepMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+            }
+        }
+    }
+
+    /** Runs a server until killed, for trying out the application against. */
+    public static void main(String[] args) throws IOException {
+        @SuppressWarnings("resource")
+        MockTracServer server = new MockTracServer(args.length > 0
+                ? Integer.parseInt(args[0]) : 10000);
+        if (args.length > 1) {
+            server.setLatencyMillis(Integer.parseInt(args[1]));
+        }
+        System.out.println("Serving " + server.getTicketCount() + " tickets at " +
+                server.getURL());
+    }
+}
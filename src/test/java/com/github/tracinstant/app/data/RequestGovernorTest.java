@@ -0,0 +1,183 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.github.tracinstant.app.data.RequestGovernor.Permit;
+import com.github.tracinstant.app.data.RequestGovernor.Priority;
+
+public class RequestGovernorTest {
+
+    private static final String HOST = "trac:80";
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final RequestGovernor m_Governor = new RequestGovernor();
+
+    @Test
+    public void testLimitGrowsWhileFullAndFast() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            List<Permit> permits = new ArrayList<>();
+            for (int i = 0; i < m_Governor.getLimit(HOST); i++) {
+                permits.add(m_Governor.acquire(HOST, Priority.INTERACTIVE));
+            }
+            for (Permit permit : permits) {
+                permit.succeeded(FAST);
+                permit.release();
+            }
+        }
+        assertTrue(m_Governor.getLimit(HOST) > RequestGovernor.INITIAL_LIMIT);
+    }
+
+    @Test
+    public void testLimitRecoversWithOnlyBackgroundRequests() throws Exception {
+        m_Governor.acquire(HOST, Priority.BACKGROUND).failed(true);
+        assertEquals(RequestGovernor.INITIAL_LIMIT / 2, m_Governor.getLimit(HOST));
+
+        for (int round = 0; round < 20; round++) {
+            List<Permit> permits = new ArrayList<>();
+            for (int i = 0; i < m_Governor.getLimit(HOST) - 1; i++) {
+                permits.add(m_Governor.acquire(HOST, Priority.BACKGROUND));
+            }
+            for (Permit permit : permits) {
+                permit.succeeded(FAST);
+                permit.release();
+            }
+        }
+        assertTrue(m_Governor.getLimit(HOST) > RequestGovernor.INITIAL_LIMIT);
+    }
+
+    @Test
+    public void testLimitHalvesWhenOverloaded() throws Exception {
+        m_Governor.acquire(HOST, Priority.BACKGROUND).failed(true);
+        assertEquals(RequestGovernor.INITIAL_LIMIT / 2, m_Governor.getLimit(HOST));
+
+        m_Governor.acquire(HOST, Priority.BACKGROUND).failed(false);
+        assertEquals(RequestGovernor.INITIAL_LIMIT / 2, m_Governor.getLimit(HOST));
+
+        for (int i = 0; i < 5; i++) {
+            m_Governor.acquire(HOST, Priority.BACKGROUND).failed(true);
+        }
+        assertEquals(RequestGovernor.MIN_LIMIT, m_Governor.getLimit(HOST));
+    }
+
+    @Test
+    public void testLimitFallsWhenSlow() throws Exception {
+        Permit permit = m_Governor.acquire(HOST, Priority.BACKGROUND);
+        permit.succeeded(FAST);
+        permit.release();
+        permit = m_Governor.acquire(HOST, Priority.BACKGROUND);
+        permit.succeeded(FAST * 10);
+        permit.release();
+        assertTrue(m_Governor.getLimit(HOST) < RequestGovernor.INITIAL_LIMIT);
+    }
+
+    @Test
+    public void testLimitIsCutOncePerWindow() throws Exception {
+        List<Permit> inFlight = new ArrayList<>();
+        for (int i = 0; i < RequestGovernor.INITIAL_LIMIT; i++) {
+            inFlight.add(m_Governor.acquire(HOST, Priority.INTERACTIVE));
+        }
+        for (Permit permit : inFlight) {
+            permit.failed(true);
+        }
+        assertEquals(RequestGovernor.INITIAL_LIMIT / 2, m_Governor.getLimit(HOST));
+    }
+
+    @Test
+    public void testSlowPagesAreJudgedAgainstOtherPages() throws Exception {
+        Permit permit = m_Governor.acquire(HOST, Priority.INTERACTIVE);
+        permit.succeeded(FAST);
+        permit.release();
+        for (int i = 0; i < 10; i++) {
+            permit = m_Governor.acquire(HOST, Priority.BACKGROUND);
+            permit.succeeded(FAST * 20);
+            permit.release();
+        }
+        assertEquals(RequestGovernor.INITIAL_LIMIT, m_Governor.getLimit(HOST));
+    }
+
+    @Test
+    public void testSlotIsKeptForInteractiveRequestsAtTheMinimum() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            m_Governor.acquire(HOST, Priority.BACKGROUND).failed(true);
+        }
+        assertEquals(RequestGovernor.MIN_LIMIT, m_Governor.getLimit(HOST));
+
+        Permit background = m_Governor.acquire(HOST, Priority.BACKGROUND);
+        Thread waiting = startWaiter(Priority.BACKGROUND, new ArrayList<>());
+        waitUntilBlocked(waiting);
+        Permit interactive = m_Governor.acquire(HOST, Priority.INTERACTIVE);
+        interactive.release();
+        background.release();
+        waiting.join(5000);
+    }
+
+    @Test
+    public void testInteractiveRequestsGoFirst() throws Exception {
+
+        // Fill the limit, with the last slot only available to interactive requests
+        List<Permit> held = new ArrayList<>();
+        for (int i = 0; i < RequestGovernor.INITIAL_LIMIT - 1; i++) {
+            held.add(m_Governor.acquire(HOST, Priority.BACKGROUND));
+        }
+        held.add(m_Governor.acquire(HOST, Priority.INTERACTIVE));
+
+        List<Priority> order = Collections.synchronizedList(new ArrayList<>());
+        Thread background = startWaiter(Priority.BACKGROUND, order);
+        waitUntilBlocked(background);
+        Thread interactive = startWaiter(Priority.INTERACTIVE, order);
+        waitUntilBlocked(interactive);
+
+        held.get(0).release();
+        interactive.join(5000);
+        held.get(1).release();
+        background.join(5000);
+
+        assertEquals(2, order.size());
+        assertEquals(Priority.INTERACTIVE, order.get(0));
+    }
+
+    private Thread startWaiter(Priority priority, List<Priority> order) {
+        Thread thread = new Thread(() -> {
+            try {
+                Permit permit = m_Governor.acquire(HOST, priority);
+                order.add(priority);
+                permit.release();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void waitUntilBlocked(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+    }
+}
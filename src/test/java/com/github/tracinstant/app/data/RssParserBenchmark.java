@@ -0,0 +1,130 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.xml.sax.InputSource;
+
+import com.github.tracinstant.util.XML10FilterReader;
+
+/**
+ * Compares the DOM and StAX RSS parsers. Not a unit test: run the main method by hand, passing
+ * the paths of RSS pages saved from a real server, e.g. with
+ * <code>curl -o page1.xml "https://trac.example.com/query?format=rss&amp;max=200&amp;page=1"</code>.
+ * With no arguments a synthetic 200-ticket page is used.
+ */
+public class RssParserBenchmark {
+
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    private interface Parser {
+        TicketProvider parse(byte[] page) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<byte[]> pages = new ArrayList<>();
+        for (String arg : args) {
+            pages.add(Files.readAllBytes(Paths.get(arg)));
+        }
+        if (pages.isEmpty()) {
+            pages.add(createSyntheticPage(200, 4000).getBytes(StandardCharsets.UTF_8));
+        }
+
+        long totalBytes = pages.stream().mapToLong(p -> p.length).sum();
+        System.out.format("%d page(s), %.1f KB in total%n", pages.size(), totalBytes / 1024.0);
+
+        Parser dom = page -> TracXmlTicketParser.parse(new InputSource(new XML10FilterReader(
+                new InputStreamReader(new ByteArrayInputStream(page), StandardCharsets.UTF_8))));
+        Parser stax = page -> TracXmlStreamParser.parse(new ByteArrayInputStream(page));
+
+        // Interleave, so that neither benefits from running while the JIT is warmer.
+        for (int round = 0; round < 2; round++) {
+            run("DOM ", dom, pages, totalBytes);
+            run("StAX", stax, pages, totalBytes);
+        }
+    }
+
+    private static void run(String name, Parser parser, List<byte[]> pages, long totalBytes)
+            throws Exception {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            parseAll(parser, pages);
+        }
+        long allocated0 = getAllocatedBytes();
+        long t0 = System.nanoTime();
+        int tickets = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            tickets = parseAll(parser, pages);
+        }
+        long t1 = System.nanoTime();
+        long allocated = getAllocatedBytes() - allocated0;
+
+        double seconds = (t1 - t0) / 1e9 / MEASURED_ROUNDS;
+        System.out.format("%s: %d tickets, %.2f ms, %.1f MB/s, %.1f KB allocated per page-set%n",
+                name, tickets, seconds * 1000, totalBytes / seconds / (1024 * 1024),
+                allocated / 1024.0 / MEASURED_ROUNDS);
+    }
+
+    private static int parseAll(Parser parser, List<byte[]> pages) throws Exception {
+        int count = 0;
+        for (byte[] page : pages) {
+            count += parser.parse(page).getTickets().size();
+        }
+        return count;
+    }
+
+    /** @return -1 if the JVM doesn't support per-thread allocation counting. */
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    static String createSyntheticPage(int tickets, int descriptionLength) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\"?>\n<rss version=\"2.0\"><channel>")
+          .append("<title>Synthetic</title><link>http://localhost/query</link>")
+          .append("<description>Trac Ticket Query</description>\n");
+        for (int id = 1; id <= tickets; id++) {
+            sb.append("<item><title>#").append(id).append(": Synthetic ticket ").append(id)
+              .append("</title><link>http://localhost/ticket/").append(id).append("</link>")
+              .append("<description>");
+            int start = sb.length();
+            while (sb.length() - start < descriptionLength) {
+                sb.append("&lt;p&gt;Lorem ipsum dolor sit amet, see &lt;a class=\"ticket\" ")
+                  .append("href=\"/ticket/").append(id / 2 + 1).append("\"&gt;#")
+                  .append(id / 2 + 1).append("&lt;/a&gt; &amp;amp; friends.&lt;/p&gt;\n");
+            }
+            sb.append("</description><category>Results</category></item>\n");
+        }
+        sb.append("</channel></rss>\n");
+        return sb.toString();
+    }
+}
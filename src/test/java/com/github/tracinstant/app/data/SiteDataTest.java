@@ -0,0 +1,206 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tracinstant.app.data.TicketLoadTask.Update;
+import com.github.tracinstant.app.prefs.TracInstantProperties;
+
+public class SiteDataTest {
+
+    private static final String SITE_A = "http://site-a.example/trac";
+    private static final String SITE_B = "http://site-b.example/trac";
+
+    private TemporaryAppData m_AppData;
+    private SiteData m_Site;
+
+    @Before
+    public void setUp() throws Exception {
+        m_AppData = new TemporaryAppData("TracInstantTests");
+        TracInstantProperties.addURL_MRU(SITE_A);
+        m_Site = new SiteData();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        m_Site.reset();
+        m_AppData.delete();
+    }
+
+    @Test
+    public void testSwitchingSitesKeepsEachCache() throws Exception {
+        Ticket ticket = new Ticket(1);
+        ticket.putField("summary", "On site A");
+        ticket.putField("changetime", "2020-01-01");
+        m_Site.getTableModel().mergeTickets(Arrays.asList(ticket));
+        m_Site.setDateFormat("yyyy-MM-dd");
+        m_Site.saveCache();
+        m_Site.saveState();
+
+        TracInstantProperties.addURL_MRU(SITE_B);
+        m_Site.switchToSelectedSite();
+        assertEquals(SITE_B, m_Site.getSiteUrl());
+        assertEquals(0, m_Site.getTableModel().getRowCount());
+        assertFalse(m_Site.isOkToUseCachedTickets());
+        assertFalse(m_Site.isDateFormatSet());
+
+        TracInstantProperties.addURL_MRU(SITE_A);
+        m_Site.switchToSelectedSite();
+        assertTrue(m_Site.isOkToUseCachedTickets());
+        assertTrue(m_Site.isDateFormatSet());
+        TicketProvider cached = m_Site.loadCachedTickets(SiteData.TABULAR_CACHE_FILE);
+        assertNotNull(cached);
+        assertEquals("On site A", cached.getTickets().get(0).getValue("summary"));
+    }
+
+    @Test
+    public void testEitherCacheFormatIsLoaded() throws Exception {
+        Ticket ticket = new Ticket(2);
+        ticket.putField("summary", "Cached");
+        m_Site.getTableModel().mergeTickets(Arrays.asList(ticket));
+        Path dir = SiteData.getSiteDataDir(SITE_A);
+
+        TracInstantProperties.setUseBinaryCache(false);
+        m_Site.saveCache();
+        assertTrue(Files.exists(dir.resolve(SiteData.TABULAR_CACHE_FILE)));
+        assertEquals("Cached", m_Site.loadCachedTickets(SiteData.TABULAR_CACHE_FILE)
+                .getTickets().get(0).getValue("summary"));
+
+        TracInstantProperties.setUseBinaryCache(true);
+        m_Site.saveCache();
+        assertFalse(Files.exists(dir.resolve(SiteData.TABULAR_CACHE_FILE)));
+        assertTrue(m_Site.isOkToUseCachedTickets());
+        assertEquals("Cached", m_Site.loadCachedTickets(SiteData.TABULAR_CACHE_FILE)
+                .getTickets().get(0).getValue("summary"));
+    }
+
+    @Test
+    public void testJournalledTicketsAreSavedInTheCacheFiles() throws Exception {
+        Ticket ticket = new Ticket(3);
+        ticket.putField("summary", "Journalled");
+        List<Ticket> tickets = Arrays.asList(ticket);
+        m_Site.getTableModel().mergeTickets(tickets);
+        m_Site.journal(new Update(() -> tickets));
+        m_Site.saveState();
+
+        SiteData restarted = new SiteData();
+        assertTrue(restarted.isOkToUseCachedTickets());
+        assertTrue(restarted.loadJournal().isEmpty());
+        assertTrue(Files.exists(SiteData.getSiteDataDir(SITE_A).resolve("SiteCache_Tabular.bin")));
+        assertEquals("Journalled", restarted.loadCachedTickets(SiteData.TABULAR_CACHE_FILE)
+                .getTickets().get(0).getValue("summary"));
+    }
+
+    @Test
+    public void testCacheIsConvertedToTheChosenFormatOnSave() throws Exception {
+        Ticket ticket = new Ticket(6);
+        ticket.putField("summary", "Converted");
+        m_Site.getTableModel().mergeTickets(Arrays.asList(ticket));
+        TracInstantProperties.setUseBinaryCache(false);
+        m_Site.saveCache();
+
+        TracInstantProperties.setUseBinaryCache(true);
+        m_Site.saveState();
+        Path dir = SiteData.getSiteDataDir(SITE_A);
+        assertTrue(Files.exists(dir.resolve("SiteCache_Tabular.bin")));
+        assertFalse(Files.exists(dir.resolve(SiteData.TABULAR_CACHE_FILE)));
+    }
+
+    @Test
+    public void testSearchIndexIsSavedForTheCacheInEitherFormat() throws Exception {
+        StringBuilder description = new StringBuilder("A long description of the problem");
+        while (description.length() < 1000) {
+            description.append(" and more \u00e9\ud83d\ude00 detail");
+        }
+        Ticket ticket = new Ticket(4);
+        ticket.putField("summary", "Indexed");
+        ticket.putField("description", description.toString());
+        ticket.putField("changetime", "2020-01-01");
+        m_Site.getTableModel().mergeTickets(Arrays.asList(ticket));
+
+        for (boolean binary : new boolean[] { true, false }) {
+            TracInstantProperties.setUseBinaryCache(binary);
+            m_Site.saveCache();
+            long digest = 0;
+            for (String fileName : new String[] {
+                    SiteData.TABULAR_CACHE_FILE, SiteData.HIDDEN_FIELDS_CACHE_FILE }) {
+                digest += TrigramIndex.digest(
+                    m_Site.loadCachedTickets(fileName).getTickets(), null);
+            }
+            TrigramIndex index = m_Site.loadSearchIndex(digest);
+            assertNotNull(index);
+            assertTrue(index.findTicketsThatMayContain("PROBLEM").get(4));
+            assertTrue(index.findTicketsThatMayContain("index").get(4));
+        }
+    }
+
+    @Test
+    public void testPendingSearchIndexReplacesTheOldOne() throws Exception {
+        Ticket ticket = new Ticket(6);
+        ticket.putField("summary", "Pending");
+        m_Site.getTableModel().mergeTickets(Arrays.asList(ticket));
+        m_Site.saveCache();
+        long digest = TrigramIndex.digest(
+            m_Site.loadCachedTickets(SiteData.TABULAR_CACHE_FILE).getTickets(), null);
+
+        // As if the new index couldn't replace the old one, when saved.
+        Path dir = SiteData.getSiteDataDir(SITE_A);
+        Path file = dir.resolve(TrigramIndex.FILE_NAME);
+        Files.move(file, dir.resolve(TrigramIndex.FILE_NAME + ".pending"));
+        Files.write(file, new byte[] { 1, 2, 3 });
+
+        TrigramIndex index = m_Site.loadSearchIndex(digest);
+        assertNotNull(index);
+        assertTrue(index.findTicketsThatMayContain("pending").get(6));
+        assertFalse(Files.exists(dir.resolve(TrigramIndex.FILE_NAME + ".pending")));
+        assertTrue(Files.size(file) > 3);
+    }
+
+    @Test
+    public void testCacheOfAnotherSiteIsDiscarded() throws Exception {
+        Ticket ticket = new Ticket(5);
+        ticket.putField("summary", "On site A");
+        m_Site.getTableModel().mergeTickets(Arrays.asList(ticket));
+        m_Site.saveCache();
+        assertTrue(m_Site.isOkToUseCachedTickets());
+
+        Path dirA = SiteData.getSiteDataDir(SITE_A);
+        Path dirB = SiteData.getSiteDataDir(SITE_B);
+        Files.createDirectories(dirB);
+        for (String fileName : new String[] { "SiteCache_Tabular.bin", "SiteCache_Hidden.bin" }) {
+            Files.copy(dirA.resolve(fileName), dirB.resolve(fileName));
+        }
+        TracInstantProperties.addURL_MRU(SITE_B);
+        m_Site.switchToSelectedSite();
+        assertFalse(m_Site.isOkToUseCachedTickets());
+        assertFalse(Files.exists(dirB.resolve("SiteCache_Tabular.bin")));
+    }
+}
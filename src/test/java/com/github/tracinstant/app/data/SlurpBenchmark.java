@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import javax.swing.SwingUtilities;
+
+import com.github.tracinstant.app.download.AttachmentCounter;
+import com.github.tracinstant.app.download.AttachmentCounter.CountCallback;
+import com.github.tracinstant.app.download.DownloadModel;
+import com.github.tracinstant.app.download.Downloadable;
+import com.github.tracinstant.app.download.Target;
+import com.github.tracinstant.app.prefs.SiteSettings;
+import com.github.tracinstant.app.prefs.TracInstantProperties;
+
+/**
+ * Measures slurping and downloading against a {@link MockTracServer}. Not a unit test: run the
+ * main method by hand, with the optional arguments:
+ * <pre>
+ *   [tickets [latencyMillis [bytesPerSecond [errorRate]]]]
+ * </pre>
+ * For example <code>100000 50 2000000</code> for 100k tickets over a slowish connection.
+ * Each scenario reports the elapsed time, the requests made, the data transferred and the heap
+ * in use afterwards (which includes the site's tickets).
+ */
+public class SlurpBenchmark {
+
+    private static final int INCREMENTAL_ROUNDS = 5;
+    private static final int DOWNLOAD_TICKETS = 50;
+
+    private final MockTracServer m_Server;
+
+    private SlurpBenchmark(MockTracServer server) {
+        m_Server = server;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        TemporaryAppData appData = new TemporaryAppData("TracInstantBenchmark");
+
+        try (MockTracServer server = new MockTracServer(tickets)) {
+            if (args.length > 1) {
+                server.setLatencyMillis(Integer.parseInt(args[1]));
+            }
+            if (args.length > 2) {
+                server.setBytesPerSecond(Long.parseLong(args[2]));
+            }
+            if (args.length > 3) {
+                server.setErrorRate(Double.parseDouble(args[3]));
+            }
+            TracInstantProperties.addURL_MRU(server.getURL());
+            System.out.println("Mock Trac with " + tickets + " tickets at " + server.getURL());
+            new SlurpBenchmark(server).run();
+        } finally {
+            appData.delete();
+        }
+    }
+
+    private void run() throws Exception {
+        SiteSettings settings = SiteSettings.getInstance();
+        settings.setFetchOnlyActiveTickets(false);
+
+        settings.setRenderWikiLocally(false);
+        SiteData rssSite = new SiteData();
+        measure("Full slurp (RSS)", () -> m_Server.slurp(rssSite, null));
+
+        settings.setRenderWikiLocally(true);
+        SiteData wikiSite = new SiteData();
+        measure("Full slurp (wiki text)", () -> m_Server.slurp(wikiSite, null));
+
+        settings.setRenderWikiLocally(false);
+        for (int i = 0; i < INCREMENTAL_ROUNDS; i++) {
+            m_Server.modifyTickets(1 + i, m_Server.getTicketCount() / 2);
+            measure("Incremental slurp, 2 changed", () ->
+                m_Server.slurp(rssSite, rssSite.getLastModifiedTicketTimeIfKnown()));
+        }
+
+        Ticket[] tickets = Arrays.copyOf(rssSite.getTableModel().getTickets(), DOWNLOAD_TICKETS);
+        List<Downloadable> attachments = new ArrayList<>();
+        measure("Count attachments of " + DOWNLOAD_TICKETS + " tickets",
+                () -> attachments.addAll(countAttachments(tickets)));
+        measure("Download " + attachments.size() + " attachments",
+                () -> download(attachments));
+    }
+
+    private void measure(String name, Callable<?> scenario) throws Exception {
+        m_Server.resetStatistics();
+        long t0 = System.nanoTime();
+        try {
+            scenario.call();
+        } catch (Exception e) {
+            System.out.println(name + ": FAILED " + e);
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        double megabytes = m_Server.getBytesSent() / (1024.0 * 1024);
+        System.out.format("%-36s %8.0f ms %6d requests (%d errors) %8.1f MB %6.1f MB/s " +
+                "%6.0f MB heap%n", name, seconds * 1000, m_Server.getRequestCount(),
+                m_Server.getErrorCount(), megabytes, megabytes / seconds, getUsedHeapMB());
+    }
+
+    private static double getUsedHeapMB() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024.0 * 1024);
+    }
+
+    private static List<Downloadable> countAttachments(Ticket[] tickets) throws Exception {
+        List<Downloadable> found = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        SwingUtilities.invokeLater(() -> AttachmentCounter.restartCounting(tickets,
+            new CountCallback() {
+                @Override
+                public void restart() {
+                    found.clear();
+                }
+
+                @Override
+                public void downloadsFound(List<? extends Downloadable> attachments) {
+                    found.addAll(attachments);
+                }
+
+                @Override
+                public void done() {
+                    done.countDown();
+                }
+            }));
+        done.await();
+        return found;
+    }
+
+    private static Void download(List<Downloadable> attachments) throws Exception {
+        Path folder = Files.createTempDirectory("SlurpBenchmark");
+        try {
+            DownloadModel model = new DownloadModel();
+            CountDownLatch done = new CountDownLatch(1);
+            SwingUtilities.invokeAndWait(() -> {
+                model.setBugsFolder(folder.toFile());
+                model.addAll(attachments);
+                model.addChangeListener(e -> {
+                    if (isFinished(model)) {
+                        done.countDown();
+                    }
+                });
+                model.download();
+            });
+            done.await();
+        } finally {
+            TemporaryAppData.deleteRecursively(folder);
+        }
+        return null;
+    }
+
+    private static boolean isFinished(DownloadModel model) {
+        DownloadModel.ListModelView targets = model.getListModel();
+        for (int i = 0; i < targets.getSize(); i++) {
+            Target.State state = targets.getElementAt(i).getState();
+            if (state != Target.State.ENDED && state != Target.State.ERROR) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.tracinstant.app.prefs.SiteSettings;
+
+public class SlurpTaskTest {
+
+    private static final int TICKETS = 500;
+
+    private TemporaryAppData m_AppData;
+    private MockTracServer m_Server;
+    private SiteData m_Site;
+
+    @Before
+    public void setUp() throws Exception {
+        m_AppData = new TemporaryAppData("TracInstantTests");
+        SiteSettings.getInstance().setFetchOnlyActiveTickets(false);
+        SiteSettings.getInstance().setRenderWikiLocally(false);
+        m_Server = new MockTracServer(TICKETS);
+        m_Server.setDescriptionLength(200);
+        m_Site = new SiteData();
+        SlurpCheckpoint.delete(m_Server.getURL());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        SlurpCheckpoint.delete(m_Server.getURL());
+        m_Server.close();
+        m_AppData.delete();
+    }
+
+    @Test
+    public void testFullSlurp() throws Exception {
+        m_Server.slurp(m_Site, null);
+
+        TicketTableModel model = m_Site.getTableModel();
+        assertEquals(TICKETS, model.getRowCount());
+        for (Ticket ticket : model.getTickets()) {
+            assertNotNull(ticket.getValue("description"));
+        }
+        Ticket ticket = model.findTicketByID(42);
+        assertEquals(m_Server.getFieldValue(42, "summary"), ticket.getValue("summary"));
+        assertEquals(m_Server.getChangeTime(TICKETS),
+                m_Site.getLastModifiedTicketTimeIfKnown());
+
+        // Timestamps, fields, then three pages of descriptions
+        assertEquals(5, m_Server.getRequestCount());
+    }
+
+    @Test
+    public void testIncrementalSlurp() throws Exception {
+        m_Server.slurp(m_Site, null);
+        m_Server.modifyTickets(7, 300);
+        m_Server.addTickets(1);
+        m_Server.resetStatistics();
+
+        m_Server.slurp(m_Site, m_Site.getLastModifiedTicketTimeIfKnown());
+
+        TicketTableModel model = m_Site.getTableModel();
+        assertEquals(TICKETS + 1, model.getRowCount());
+        assertTrue(model.findTicketByID(7).getValue("summary").endsWith("(edit 1)"));
+        assertNotNull(model.findTicketByID(TICKETS + 1).getValue("description"));
+        assertEquals(m_Server.getChangeTime(TICKETS + 1),
+                m_Site.getLastModifiedTicketTimeIfKnown());
+
+        // The modified tickets' fields, then their descriptions
+        assertEquals(2, m_Server.getRequestCount());
+    }
+
+    @Test
+    public void testWikiDescriptions() throws Exception {
+        SiteSettings.getInstance().setRenderWikiLocally(true);
+        m_Server.slurp(m_Site, null);
+
+        Ticket ticket = m_Site.getTableModel().findTicketByID(42);
+        assertEquals(m_Server.getWikiDescription(42), ticket.getValue(Ticket.WIKI_DESCRIPTION));
+        assertEquals("#42: " + m_Server.getFieldValue(42, "summary"), ticket.getValue("title"));
+
+        // Timestamps, fields, then one page of descriptions
+        assertEquals(3, m_Server.getRequestCount());
+    }
+
+    @Test
+    public void testDriftCheckRemovesDeletedTickets() throws Exception {
+        m_Server.slurp(m_Site, null);
+        m_Server.deleteTickets(5, 300);
+        m_Server.modifyTickets(7);
+        m_Server.resetStatistics();
+
+        m_Server.slurp(m_Site, m_Site.getLastModifiedTicketTimeIfKnown(), true);
+
+        TicketTableModel model = m_Site.getTableModel();
+        assertEquals(TICKETS - 2, model.getRowCount());
+        assertNull(model.findTicketByID(5));
+        assertNull(model.findTicketByID(300));
+        assertTrue(model.findTicketByID(7).getValue("summary").endsWith("(edit 1)"));
+
+        // The modified ticket's fields and description, then the listing of all tickets
+        assertEquals(3, m_Server.getRequestCount());
+    }
+
+    @Test
+    public void testDriftCheckRepairsMissedEdits() throws Exception {
+        m_Server.slurp(m_Site, null);
+        Ticket stale = m_Site.getTableModel().findTicketByID(8);
+        stale.putField("summary", "stale");
+        stale.putField("changetime", "2019-01-01 00:00:00");
+        m_Server.resetStatistics();
+
+        m_Server.slurp(m_Site, m_Site.getLastModifiedTicketTimeIfKnown(), true);
+
+        Ticket ticket = m_Site.getTableModel().findTicketByID(8);
+        assertEquals(m_Server.getFieldValue(8, "summary"), ticket.getValue("summary"));
+        assertEquals(m_Server.getChangeTime(8), ticket.getValue("changetime"));
+
+        // No modified tickets, the listing, then the stale ticket's fields and description
+        assertEquals(4, m_Server.getRequestCount());
+    }
+
+    @Test
+    public void testFullSlurpRemovesDeletedTickets() throws Exception {
+        m_Server.slurp(m_Site, null);
+        m_Server.deleteTickets(9);
+
+        m_Server.slurp(m_Site, null);
+
+        assertEquals(TICKETS - 1, m_Site.getTableModel().getRowCount());
+        assertNull(m_Site.getTableModel().findTicketByID(9));
+    }
+
+    @Test
+    public void testRetryAfterError() throws Exception {
+        m_Server.failRequests(3, 2);
+        m_Server.slurp(m_Site, null);
+
+        assertEquals(TICKETS, m_Site.getTableModel().getRowCount());
+        assertEquals(2, m_Server.getErrorCount());
+        assertEquals(7, m_Server.getRequestCount());
+    }
+
+    @Test
+    public void testNoRetryAfterPermanentError() throws Exception {
+        m_Server.setErrorStatus(400);
+        m_Server.failRequests(3, 1);
+        try {
+            m_Server.slurp(m_Site, null);
+            fail("Slurp should fail");
+        } catch (ExecutionException e) {
+            // Expected
+        }
+        assertEquals(1, m_Server.getErrorCount());
+        assertEquals(3, m_Server.getRequestCount());
+    }
+
+    @Test
+    public void testResumeInterruptedSlurp() throws Exception {
+
+        // Timestamps, fields and the first page succeed; the second page keeps failing.
+        m_Server.failRequests(4, 100);
+        try {
+            m_Server.slurp(m_Site, null);
+            fail("Slurp should fail");
+        } catch (ExecutionException e) {
+            // Expected
+        }
+        assertTrue(SlurpCheckpoint.isPending(SiteSettings.getInstance()));
+
+        // As on exit; the checkpoint only records each page once it is in the journal.
+        m_Site.saveState();
+        m_Server.modifyTickets(2);
+        m_Server.failRequests(0, 0);
+        m_Server.resetStatistics();
+        m_Server.slurp(m_Site, null);
+
+        TicketTableModel model = m_Site.getTableModel();
+        for (Ticket ticket : model.getTickets()) {
+            assertNotNull(ticket.getValue("description"));
+        }
+        assertTrue(model.findTicketByID(2).getValue("summary").endsWith("(edit 1)"));
+        assertFalse(SlurpCheckpoint.isPending(SiteSettings.getInstance()));
+
+        // Timestamps, the two remaining pages, then catching up with ticket 2
+        assertEquals(5, m_Server.getRequestCount());
+    }
+}
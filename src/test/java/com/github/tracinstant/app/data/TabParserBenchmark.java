@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import au.com.bytecode.opencsv.CSVReader;
+
+/**
+ * Compares opencsv's CSVReader (the previous implementation) with TracTabTicketParser. Not a
+ * unit test: run the main method by hand, optionally passing the path of a cache file such as
+ * <code>SiteCache_Hidden.txt</code>. With no arguments a synthetic ~100 MB cache is generated
+ * in the temp directory.
+ */
+public class TabParserBenchmark {
+
+    private static final long SYNTHETIC_SIZE = 100L * 1024 * 1024;
+
+    private interface Parser {
+        TicketProvider parse(Reader reader) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file;
+        if (args.length > 0) {
+            file = Paths.get(args[0]);
+        } else {
+            file = Files.createTempFile("TabParserBenchmark", ".txt");
+            file.toFile().deleteOnExit();
+            writeSyntheticCache(file, SYNTHETIC_SIZE);
+        }
+        long bytes = Files.size(file);
+        System.out.format("%s: %.1f MB%n", file, bytes / (1024.0 * 1024));
+
+        Parser opencsv = TabParserBenchmark::parseWithCsvReader;
+        Parser tokenizer = TracTabTicketParser::parse;
+
+        for (int round = 0; round < 3; round++) {
+            run("CSVReader   ", opencsv, file, bytes);
+            run("TabTokenizer", tokenizer, file, bytes);
+        }
+    }
+
+    private static void run(String name, Parser parser, Path file, long bytes) throws Exception {
+        System.gc();
+        long allocated0 = getAllocatedBytes();
+        long t0 = System.nanoTime();
+        int tickets;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            tickets = parser.parse(reader).getTickets().size();
+        }
+        long t1 = System.nanoTime();
+        long allocated = getAllocatedBytes() - allocated0;
+        double seconds = (t1 - t0) / 1e9;
+        System.out.format("%s: %d tickets in %.0f ms, %.1f MB/s, %.0f MB allocated%n",
+                name, tickets, seconds * 1000, bytes / seconds / (1024 * 1024),
+                allocated / (1024.0 * 1024));
+    }
+
+    /** The parsing loop as it was before TracTabTokenizer. */
+    private static TicketProvider parseWithCsvReader(Reader reader) throws IOException {
+        try (CSVReader csvReader = new CSVReader(reader, '\t', '"', '\0')) {
+            TracTabResult result = new TracTabResult(csvReader.readNext());
+            String[] fields;
+            while ((fields = csvReader.readNext()) != null) {
+                result.addTicketFromFields(fields);
+            }
+            return result;
+        }
+    }
+
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    static void writeSyntheticCache(Path file, long approximateSize) throws IOException {
+        String[] statuses = { "new", "assigned", "accepted", "reopened", "closed" };
+        String[] owners = { "alice", "bob", "carol", "dave", "erin", "frank", "grace" };
+        String[] milestones = { "1.0", "1.1", "1.2", "2.0", "Backlog" };
+        Random random = new Random(1);
+
+        Set<String> fields = new TreeSet<>();
+        fields.add("description");
+        fields.add("milestone");
+        fields.add("owner");
+        fields.add("status");
+        fields.add("summary");
+
+        List<Ticket> tickets = new ArrayList<>();
+        long size = 0;
+        for (int id = 1; size < approximateSize; id++) {
+            Ticket t = new Ticket(id);
+            t.putField("status", statuses[random.nextInt(statuses.length)]);
+            t.putField("owner", owners[random.nextInt(owners.length)]);
+            t.putField("milestone", milestones[random.nextInt(milestones.length)]);
+            t.putField("summary", "Synthetic ticket number " + id + " with a \"quoted\" word");
+            StringBuilder description = new StringBuilder();
+            int paragraphs = 1 + random.nextInt(8);
+            for (int p = 0; p < paragraphs; p++) {
+                description.append("<p>Lorem ipsum dolor sit amet, see <a class=\"ticket\" ")
+                        .append("href=\"/ticket/").append(random.nextInt(id) + 1)
+                        .append("\">#ticket</a>\tconsectetur adipiscing elit.</p>\n");
+            }
+            t.putField("description", description.toString());
+            size += description.length() + 100;
+            tickets.add(t);
+        }
+        TabTicketWriter.write(Files.newBufferedWriter(file, StandardCharsets.UTF_8),
+                fields, tickets);
+    }
+}
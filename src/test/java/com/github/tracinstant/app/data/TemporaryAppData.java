@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.github.tracinstant.app.prefs.TracInstantProperties;
+
+/**
+ * A temporary folder for the preferences and cached tickets, so that tests and benchmarks leave
+ * the user's own application data alone. Delete it once done with.
+ */
+final class TemporaryAppData {
+
+    private final Path m_Folder;
+
+    /** Creates the folder, and initialises the preferences in it. */
+    TemporaryAppData(String appName) throws IOException {
+        m_Folder = Files.createTempDirectory(appName);
+        TracInstantProperties.initialise(m_Folder, appName);
+    }
+
+    void delete() throws IOException {
+        deleteRecursively(m_Folder);
+    }
+
+    static void deleteRecursively(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compares the heap used by descriptions held as Strings, as UTF-8 ({@link MappedText#encode})
+ * and as Deflate-compressed UTF-8, and the time to search all of them and to decode one for
+ * display. (On Java 9+ Strings of Latin-1 text are already a byte per character.)
+ * Not a unit test: run the main method by hand, with the optional arguments:
+ * <pre>
+ *   [tickets [descriptionLength]]    synthetic descriptions from a {@link MockTracServer}
+ *   SiteCache_Hidden.bin             the descriptions of a real site's binary cache
+ * </pre>
+ * Run with a fixed heap and a simple collector (such as -Xms1G -Xmx1G -XX:+UseSerialGC) for
+ * steadier heap measurements, and with -XX:-CompactStrings to see Strings as Java 8 stores them.
+ */
+public class TextStorageBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final Pattern SEARCH = Pattern.compile("xyzzy|plugh", Pattern.CASE_INSENSITIVE);
+
+    public static void main(String[] args) throws Exception {
+        List<String> texts = args.length > 0 && args[0].endsWith(".bin")
+            ? readDescriptions(args[0]) : makeDescriptions(args);
+        long chars = texts.stream().mapToLong(String::length).sum();
+        System.out.format("%d descriptions, %.1f M characters (Java %s)%n", texts.size(),
+            chars / 1e6, System.getProperty("java.specification.version"));
+
+        // All are kept until the end, so that each is measured by how much the heap grows
+        List<String> strings = store("String", texts, text -> new String(text.toCharArray()));
+        List<MappedText> encoded = store("UTF-8", texts, MappedText::encode);
+        List<byte[]> deflated = store("Deflate", texts, TextStorageBenchmark::deflate);
+        for (int round = 1; round <= ROUNDS; round++) {
+            time("String", strings, text -> text, round);
+            time("UTF-8", encoded, MappedText::forScanning, round);
+            time("Deflate", deflated, TextStorageBenchmark::inflate, round);
+        }
+    }
+
+    private static List<String> readDescriptions(String file) throws Exception {
+        List<String> result = new ArrayList<>();
+        for (Ticket ticket : BinaryTicketCache.read(Paths.get(file)).getTickets()) {
+            String description = ticket.getValue("description");
+            if (description != null && description.length() >= 200) {
+                result.add(description);
+            }
+        }
+        return result;
+    }
+
+    private static List<String> makeDescriptions(String[] args) throws Exception {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int descriptionLength = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        List<String> result = new ArrayList<>(tickets);
+        try (MockTracServer server = new MockTracServer(tickets)) {
+            server.setDescriptionLength(descriptionLength);
+            for (int i = 1; i <= tickets; i++) {
+                result.add(server.getWikiDescription(i));
+            }
+        }
+        return result;
+    }
+
+    private static <T> List<T> store(String form, List<String> texts,
+            Function<String, T> store) {
+        long before = usedHeap();
+        List<T> stored = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            stored.add(store.apply(text));
+        }
+        System.out.format("%-8s %7.1f MB of heap%n", form, (usedHeap() - before) / 1048576.0);
+        return stored;
+    }
+
+    private static <T> void time(String form, List<T> stored, Function<T, CharSequence> scan,
+            int round) {
+        long t0 = System.nanoTime();
+        int matches = 0;
+        for (T value : stored) {
+            if (SEARCH.matcher(scan.apply(value)).find()) {
+                ++matches;
+            }
+        }
+        long t1 = System.nanoTime();
+        for (T value : stored) {
+            scan.apply(value).toString();
+        }
+        long t2 = System.nanoTime();
+        System.out.format("%-8s %7.0f ms to search (%d found) %6.2f us to decode each "
+            + "(round %d)%n", form, (t1 - t0) / 1e6, matches, (t2 - t1) / 1e3 / stored.size(),
+            round);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static byte[] deflate(String text) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(text.length() / 2);
+        byte[] buffer = new byte[4096];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    private static CharSequence inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        inflater.setInput(compressed);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 3);
+        byte[] buffer = new byte[4096];
+        try {
+            while (!inflater.finished()) {
+                out.write(buffer, 0, inflater.inflate(buffer));
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            inflater.end();
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
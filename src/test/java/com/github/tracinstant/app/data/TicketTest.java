@@ -36,4 +36,15 @@ public class TicketTest {
         assertThat(t.getValue("changetime"), is("C"));
         assertThat(t.getValue("Modified"), is("M"));
     }
+
+    @Test
+    public void testMovingAValueKeepsTheVersion() {
+        Ticket t = new Ticket(1);
+        t.putField("description", "Moved elsewhere");
+        int version = t.getVersion();
+
+        t.replaceStorage("description", MappedText.encode("Moved elsewhere"));
+        assertThat(t.getValue("description"), is("Moved elsewhere"));
+        assertEquals(version, t.getVersion());
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class TracTabTicketParserTest {
+
+    private static final String INPUT =
+        "\uFEFFid\tsummary\tstatus\tdescription\r\n" +
+        "1\tPlain\tnew\t\r\n" +
+        "2\t\"Tab\there\"\tclosed\t\"Line one\r\nLine \"\"two\"\"\"\r\n" +
+        "\r\n" +
+        "3\t\"\"\tnew\t\"\"\"Quoted\"\" at start\"\n" +
+        "4\tShort line\n" +
+        "5\tNo final line break\tnew\tlast";
+
+    @Test
+    public void testParse() throws Exception {
+        List<Ticket> tickets = TracTabTicketParser.parse(new StringReader(INPUT)).getTickets();
+        assertEquals(5, tickets.size());
+
+        assertEquals("Plain", tickets.get(0).getValue("summary"));
+        assertEquals("", tickets.get(0).getValue("description"));
+
+        assertEquals("Tab\there", tickets.get(1).getValue("summary"));
+        assertEquals("Line one\nLine \"two\"", tickets.get(1).getValue("description"));
+
+        assertEquals("", tickets.get(2).getValue("summary"));
+        assertEquals("\"Quoted\" at start", tickets.get(2).getValue("description"));
+
+        assertEquals("Short line", tickets.get(3).getValue("summary"));
+        assertNull(tickets.get(3).getValue("status"));
+
+        assertEquals(5, tickets.get(4).getNumber());
+        assertEquals("last", tickets.get(4).getValue("description"));
+    }
+
+    @Test
+    public void testValuesAreInterned() throws Exception {
+        List<Ticket> tickets = TracTabTicketParser.parse(new StringReader(INPUT)).getTickets();
+        assertSame("new", tickets.get(0).getValue("status"));
+        assertSame(tickets.get(0).getValue("status"), tickets.get(2).getValue("status"));
+    }
+
+    @Test
+    public void testBufferBoundaries() throws Exception {
+        List<List<String>> expected = tokenize(INPUT, TracTabTokenizer.DEFAULT_BUFFER_SIZE);
+        assertEquals(6, expected.size());
+        assertEquals(
+                Arrays.asList("\uFEFFid", "summary", "status", "description"), expected.get(0));
+        for (int size = 1; size < 20; size++) {
+            assertEquals("Buffer size " + size, expected, tokenize(INPUT, size));
+        }
+    }
+
+    @Test
+    public void testRoundTripThroughWriter() throws Exception {
+        Ticket t = new Ticket(42);
+        t.putField("summary", "Tabs\tand \"quotes\"");
+        t.putField("description", "<p>Multi\nline</p>");
+        StringWriter out = new StringWriter();
+        TabTicketWriter.write(out, new TreeSet<>(Arrays.asList("description", "summary")),
+                Arrays.asList(t));
+
+        List<Ticket> tickets =
+                TracTabTicketParser.parse(new StringReader(out.toString())).getTickets();
+        assertEquals(1, tickets.size());
+        assertEquals(42, tickets.get(0).getNumber());
+        assertEquals(t.getValue("summary"), tickets.get(0).getValue("summary"));
+        assertEquals(t.getValue("description"), tickets.get(0).getValue("description"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testEmptyInput() throws Exception {
+        TracTabTicketParser.parse(new StringReader(""));
+    }
+
+    private static List<List<String>> tokenize(String input, int bufferSize) throws IOException {
+        TracTabTokenizer tokenizer = new TracTabTokenizer(new StringReader(input), bufferSize);
+        List<List<String>> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        while (tokenizer.nextRecord((buf, start, len) -> fields.add(new String(buf, start, len)))
+                >= 0) {
+            records.add(new ArrayList<>(fields));
+            fields.clear();
+        }
+        return records;
+    }
+}
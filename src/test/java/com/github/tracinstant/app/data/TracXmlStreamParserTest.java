@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+import org.xml.sax.InputSource;
+
+public class TracXmlStreamParserTest {
+
+    private static final String RSS =
+        "<?xml version=\"1.0\"?>\n" +
+        "<rss version=\"2.0\" xmlns:dc=\"http://purl.org/dc/elements/1.1/\">\n" +
+        "  <channel>\n" +
+        "    <title>Tickets</title>\n" +
+        "    <link>http://trac.example.com/query</link>\n" +
+        "    <description>Trac Ticket Query</description>\n" +
+        "    <image><title>Logo</title><url>http://trac.example.com/logo.png</url></image>\n" +
+        "    <item>\n" +
+        "      <dc:creator>bob</dc:creator>\n" +
+        "      <title>#12: Crash on &lt;save&gt;</title>\n" +
+        "      <link>http://trac.example.com/ticket/12</link>\n" +
+        "      <description>&lt;p&gt;Steps &amp;amp; more&lt;/p&gt;</description>\n" +
+        "      <category>Results</category>\n" +
+        "    </item>\n" +
+        "    <item>\n" +
+        "      <title>#345: No description</title>\n" +
+        "      <link>http://trac.example.com/ticket/345/</link>\n" +
+        "      <description><![CDATA[<p>In a CDATA section</p>]]></description>\n" +
+        "    </item>\n" +
+        "  </channel>\n" +
+        "</rss>\n";
+
+    @Test
+    public void testSameResultAsDomParser() throws Exception {
+        TracXmlResult dom = TracXmlTicketParser.parse(new InputSource(new StringReader(RSS)));
+        TracXmlResult stax = TracXmlStreamParser.parse(new StringReader(RSS));
+
+        assertEquals(dom.getTitle(), stax.getTitle());
+        assertEquals(dom.getLink(), stax.getLink());
+        assertEquals(dom.getDescription(), stax.getDescription());
+
+        List<Ticket> expected = dom.getTickets();
+        List<Ticket> actual = stax.getTickets();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTicketsEqual(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void testFields() throws Exception {
+        List<Ticket> tickets = TracXmlStreamParser.parse(new StringReader(RSS)).getTickets();
+        assertEquals(2, tickets.size());
+        Ticket t = tickets.get(0);
+        assertEquals(12, t.getNumber());
+        assertEquals("#12: Crash on <save>", t.getValue("title"));
+        assertEquals("<p>Steps &amp; more</p>", t.getValue("description"));
+        assertNull(t.getValue("link"));
+        assertNull(t.getValue("creator"));
+        assertEquals(345, tickets.get(1).getNumber());
+        assertEquals("<p>In a CDATA section</p>", tickets.get(1).getValue("description"));
+    }
+
+    @Test
+    public void testInvalidXmlCharactersAreFilteredFromStream() throws Exception {
+        String withControlChars = RSS.replace("Steps", "St\u0001e\u0008ps");
+        TracXmlResult result = TracXmlStreamParser.parse(
+                new ByteArrayInputStream(withControlChars.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("<p>Steps &amp; more</p>", result.getTickets().get(0).getValue("description"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotRss() throws Exception {
+        TracXmlStreamParser.parse(new StringReader("<html><body/></html>"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingLink() throws Exception {
+        TracXmlStreamParser.parse(new StringReader(
+                "<rss><channel><item><title>x</title></item></channel></rss>"));
+    }
+
+    private static void assertTicketsEqual(Ticket expected, Ticket actual) {
+        assertEquals(expected.getNumber(), actual.getNumber());
+        assertEquals(expected.getFieldNames(), actual.getFieldNames());
+        for (String field : expected.getFieldNames()) {
+            assertEquals(expected.getValue(field), actual.getValue(field));
+        }
+    }
+}
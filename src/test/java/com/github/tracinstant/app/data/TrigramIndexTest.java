@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TrigramIndexTest {
+
+    private static final List<String> FIELDS = Arrays.asList("summary", "description");
+
+    private Path m_File;
+    private List<Ticket> m_Tickets;
+
+    @Before
+    public void setUp() throws Exception {
+        m_File = Files.createTempFile("TrigramIndexTest", ".bin");
+        m_File.toFile().deleteOnExit(); // (Can't be deleted while mapped, on Windows)
+        m_Tickets = new ArrayList<>();
+        m_Tickets.add(makeTicket(3, "Crash on startup", "NullPointerException in the loader"));
+        m_Tickets.add(makeTicket(7, "Slow search", "Searching descriptions takes seconds"));
+        m_Tickets.add(
+            makeTicket(1200, "Unicode: caf\u00E9 \uD83D\uDE00", "Seen in the LOADER too"));
+    }
+
+    private static Ticket makeTicket(int id, String summary, String description) {
+        Ticket ticket = new Ticket(id);
+        ticket.putField("summary", summary);
+        ticket.putField("description", description);
+        return ticket;
+    }
+
+    private TrigramIndex writeAndRead(long digest) throws Exception {
+        try (OutputStream out = Files.newOutputStream(m_File)) {
+            TrigramIndex.write(out, m_Tickets, FIELDS, digest);
+        }
+        return TrigramIndex.read(m_File, digest);
+    }
+
+    @Test
+    public void testLookupFindsEveryTicketContainingTheText() throws Exception {
+        TrigramIndex index = writeAndRead(42);
+        assertNotNull(index);
+        assertEquals(bits(3, 1200), index.findTicketsThatMayContain("loader"));
+        assertEquals(bits(7), index.findTicketsThatMayContain("SEARCH"));
+        assertEquals(bits(1200), index.findTicketsThatMayContain("caf\u00E9"));
+        assertEquals(bits(1200), index.findTicketsThatMayContain("120"));
+        assertTrue(index.findTicketsThatMayContain("xyzzy").isEmpty());
+        assertNull(index.findTicketsThatMayContain("lo"));
+    }
+
+    @Test
+    public void testIndexOfOtherTicketsIsNotRead() throws Exception {
+        writeAndRead(42);
+        assertNull(TrigramIndex.read(m_File, 43));
+    }
+
+    @Test
+    public void testDigestDependsOnTheContents() {
+        long digest = TrigramIndex.digest(m_Tickets, null);
+        assertEquals(digest, TrigramIndex.digest(m_Tickets, FIELDS));
+        m_Tickets.get(1).putField("summary", "Slow Search");
+        long sameLength = TrigramIndex.digest(m_Tickets, null);
+        assertFalse(digest == sameLength);
+        m_Tickets.get(1).putField("summary", "Slower search");
+        assertFalse(sameLength == TrigramIndex.digest(m_Tickets, null));
+    }
+
+    @Test
+    public void testTicketsChangedSinceIndexingAreCandidates() throws Exception {
+        TicketTableModel model = new TicketTableModel();
+        model.mergeTickets(m_Tickets);
+        int generation = model.trackChangesForSearchIndex();
+        model.setSearchIndex(writeAndRead(42), generation);
+        model.mergeTickets(Arrays.asList(makeTicket(9, "New", "Also mentions the loader")));
+
+        assertEquals(bits(3, 9, 1200), model.findTicketsThatMayContain("loader"));
+        assertEquals(bits(9), model.findTicketsThatMayContain("xyzzy"));
+
+        model.clear();
+        assertNull(model.findTicketsThatMayContain("loader"));
+    }
+
+    @Test
+    public void testAnnotatedTicketsAreCandidates() throws Exception {
+        TicketTableModel model = new TicketTableModel();
+        model.mergeTickets(m_Tickets);
+        int generation = model.trackChangesForSearchIndex();
+        model.setSearchIndex(writeAndRead(42), generation);
+        model.setTicketField(model.findTicketByID(7), "Annotation", "Check the loader");
+
+        assertEquals(bits(3, 7, 1200), model.findTicketsThatMayContain("loader"));
+    }
+
+    private static BitSet bits(int... ids) {
+        BitSet result = new BitSet();
+        for (int id : ids) {
+            result.set(id);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.SortOrder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ViewSnapshotTest {
+
+    private Path m_File;
+
+    @Before
+    public void setUp() throws Exception {
+        m_File = Files.createTempFile("ViewSnapshotTest", ".bin");
+        m_File.toFile().deleteOnExit();
+    }
+
+    private static Ticket makeTicket(int id, String summary, String priority) {
+        Ticket ticket = new Ticket(id);
+        ticket.putField("summary", summary);
+        ticket.putField("priority", priority);
+        return ticket;
+    }
+
+    @Test
+    public void testSnapshotIsReadAsWritten() throws Exception {
+        Map<String, SortOrder> sortKeys = new LinkedHashMap<>();
+        sortKeys.put("priority", SortOrder.DESCENDING);
+        sortKeys.put("#", SortOrder.ASCENDING);
+        ViewSnapshot written = new ViewSnapshot("crash -closed", sortKeys,
+            Arrays.asList(makeTicket(9, "Crash on exit", "major"),
+                makeTicket(2, "Unicode: caf\u00E9", "")), 7);
+        try (OutputStream out = Files.newOutputStream(m_File)) {
+            written.write(out);
+        }
+
+        ViewSnapshot read = ViewSnapshot.read(m_File);
+        assertEquals("crash -closed", read.searchText);
+        assertEquals(sortKeys, read.sortKeys);
+        assertEquals(Arrays.asList("priority", "#"), Arrays.asList(
+            read.sortKeys.keySet().toArray()));
+        assertEquals(7, read.topRowOffset);
+        assertEquals(2, read.tickets.size());
+        assertEquals(9, read.tickets.get(0).getNumber());
+        assertEquals("Crash on exit", read.tickets.get(0).getValue("summary"));
+        assertEquals(2, read.tickets.get(1).getNumber());
+        assertEquals("Unicode: caf\u00E9", read.tickets.get(1).getValue("summary"));
+        assertEquals("", read.tickets.get(1).getValue("priority"));
+    }
+
+    @Test
+    public void testTruncatedSnapshotIsRejected() throws Exception {
+        ViewSnapshot written = new ViewSnapshot("", new LinkedHashMap<>(),
+            Arrays.asList(makeTicket(1, "One", "minor")), 0);
+        try (OutputStream out = Files.newOutputStream(m_File)) {
+            written.write(out);
+        }
+        byte[] bytes = Files.readAllBytes(m_File);
+        Files.write(m_File, Arrays.copyOf(bytes, bytes.length - 3));
+        try {
+            ViewSnapshot.read(m_File);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.InterruptedIOException;
+
+import javax.swing.text.html.CSS;
+import javax.swing.text.html.HTMLDocument;
+import javax.swing.text.html.HTMLEditorKit;
+
+import org.junit.Test;
+
+public class HtmlDescriptionPaneTest {
+
+    @Test
+    public void testDocumentsShareTheParsedTracStyles() throws Exception {
+        HTMLEditorKit kit = new HtmlDescriptionPane.TracEditorKit();
+        HTMLDocument first = HtmlDescriptionPane.buildDocument(kit, "<html><h1>One</h1></html>");
+        HTMLDocument second = HtmlDescriptionPane.buildDocument(kit, "<html><h1>Two</h1></html>");
+
+        assertEquals("One", first.getText(0, first.getLength()).trim());
+        assertSame(first.getStyleSheet().getStyleSheets()[0],
+            second.getStyleSheet().getStyleSheets()[0]);
+        assertNotNull(first.getStyleSheet().getRule("h1").getAttribute(CSS.Attribute.FONT_SIZE));
+    }
+
+    @Test
+    public void testInterruptedBuildStops() throws Exception {
+        Thread.currentThread().interrupt();
+        try {
+            HtmlDescriptionPane.buildDocument(new HtmlDescriptionPane.TracEditorKit(),
+                "<html><p>Stale</p></html>");
+            fail("Expected the build to stop");
+        } catch (InterruptedIOException e) {
+            // Expected
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.github.tracinstant.app.data.Ticket;
+
+public class HtmlFormatterTest {
+
+    private static final List<SearchTerm> NO_TERMS = Collections.emptyList();
+
+    private static Ticket makeTicket(int id, String description) {
+        Ticket ticket = new Ticket(id);
+        ticket.putField("description", description);
+        return ticket;
+    }
+
+    @Test
+    public void testChangedTicketIsFormattedAgain() {
+        Ticket ticket =
+            makeTicket(1, "<p>First <a class=\"closed ticket\" href=\"/t/2\">#2</a></p>");
+        String first = HtmlFormatter.buildDescription(new Ticket[] { ticket }, NO_TERMS);
+        assertTrue(first.contains("<p>First <a class=\"closed\" href"));
+        assertEquals(first, HtmlFormatter.buildDescription(new Ticket[] { ticket }, NO_TERMS));
+
+        ticket.putField("description", "<p>Second</p>");
+        String second = HtmlFormatter.buildDescription(new Ticket[] { ticket }, NO_TERMS);
+        assertTrue(second.contains("<p>Second</p>"));
+        assertFalse(second.contains("First"));
+
+        // Another instance of the same ticket (as after reloading) is formatted again
+        Ticket reloaded = makeTicket(1, "<p>Third</p>");
+        assertTrue(HtmlFormatter.buildDescription(new Ticket[] { reloaded }, NO_TERMS)
+            .contains("<p>Third</p>"));
+    }
+
+    @Test
+    public void testCachedTicketsAreHighlightedForEachSearch() {
+        Ticket ticket = makeTicket(2, "<p>Alpha beta gamma</p>");
+        String alpha = HtmlFormatter.buildDescription(new Ticket[] { ticket },
+            SearchTerm.parseSearchString(new TreeMap<>(), "alpha"));
+        String gamma = HtmlFormatter.buildDescription(new Ticket[] { ticket },
+            SearchTerm.parseSearchString(new TreeMap<>(), "gamma"));
+        assertTrue(alpha.contains("\">Alpha</font> beta gamma"));
+        assertTrue(gamma.contains("Alpha beta <font color=\"white\" bgcolor=\"#66dd88\">gamma<"));
+    }
+
+    @Test
+    public void testOnlyTextIsHighlighted() {
+        Ticket ticket = makeTicket(3, "<p class=\"para\">A para<br/>graph</p>");
+        String html = HtmlFormatter.buildDescription(new Ticket[] { ticket },
+            SearchTerm.parseSearchString(new TreeMap<>(), "para"));
+        assertTrue(html.contains("<p class=\"para\">A <font color=\"white\" "
+            + "bgcolor=\"#66dd88\">para</font><br/>graph</p>"));
+    }
+
+    @Test
+    public void testEveryMatchIsHighlighted() {
+        StringBuilder description = new StringBuilder("<p>");
+        for (int i = 0; i < 2000; i++) {
+            description.append("hit <b>hit</b> ");
+        }
+        Ticket ticket = makeTicket(4, description.append("</p>").toString());
+        String html = HtmlFormatter.buildDescription(new Ticket[] { ticket },
+            SearchTerm.parseSearchString(new TreeMap<>(), "hit"));
+        assertEquals(4000, html.split(">hit</font>", -1).length - 1);
+    }
+}
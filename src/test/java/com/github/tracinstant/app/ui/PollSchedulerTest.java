@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PollSchedulerTest {
+
+    private static final long MIN = 60_000;
+    private static final long MAX = 900_000;
+
+    private final PollScheduler m_Scheduler = new PollScheduler(() -> {}, MIN, MAX);
+
+    private long finish(boolean changed, boolean failed) {
+        m_Scheduler.slurpStarted();
+        m_Scheduler.slurpFinished(changed, failed);
+        m_Scheduler.stop();
+        return m_Scheduler.getIntervalMillis();
+    }
+
+    @Test
+    public void testGrowsWhileQuietUpToMaximum() {
+        assertEquals(90_000, finish(false, false));
+        assertEquals(135_000, finish(false, false));
+        for (int i = 0; i < 20; i++) {
+            finish(false, false);
+        }
+        assertEquals(MAX, m_Scheduler.getIntervalMillis());
+    }
+
+    @Test
+    public void testShrinksOnChangesDownToMinimum() {
+        for (int i = 0; i < 20; i++) {
+            finish(false, false);
+        }
+        assertEquals(MAX / 2, finish(true, false));
+        for (int i = 0; i < 20; i++) {
+            finish(true, false);
+        }
+        assertEquals(MIN, m_Scheduler.getIntervalMillis());
+    }
+
+    @Test
+    public void testBacksOffOnFailure() {
+        assertEquals(2 * MIN, finish(false, true));
+        assertEquals(4 * MIN, finish(false, true));
+        for (int i = 0; i < 20; i++) {
+            finish(false, true);
+        }
+        assertEquals(PollScheduler.MAX_FAILURE_INTERVAL_MILLIS, m_Scheduler.getIntervalMillis());
+    }
+
+    @Test
+    public void testSlowServerGetsLongerInterval() {
+        assertEquals(10_000 * PollScheduler.SLOW_SERVER_FACTOR,
+                m_Scheduler.nextInterval(true, false, 10_000));
+    }
+
+    @Test
+    public void testNotDueJustAfterCheck() {
+        assertTrue(m_Scheduler.isDue());
+        m_Scheduler.slurpStarted();
+        assertFalse(m_Scheduler.isDue());
+        m_Scheduler.slurpFinished(false, false);
+        m_Scheduler.stop();
+        assertFalse(m_Scheduler.isDue());
+    }
+}
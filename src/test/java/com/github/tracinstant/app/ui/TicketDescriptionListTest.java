@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Component;
+import java.awt.Point;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+import com.github.tracinstant.app.data.Ticket;
+import com.github.tracinstant.app.data.TicketTableModel;
+
+public class TicketDescriptionListTest {
+
+    private static final List<SearchTerm> NO_TERMS = Collections.emptyList();
+
+    private static Ticket[] makeTickets(int count) {
+        Ticket[] tickets = new Ticket[count];
+        for (int i = 0; i < count; i++) {
+            tickets[i] = new Ticket(i + 1);
+            tickets[i].putField("description", "<p>Description of ticket " + (i + 1) + "</p>");
+        }
+        return tickets;
+    }
+
+    private static TicketDescriptionList createList(JScrollPane[] scrollPane) {
+        TicketDescriptionList list = new TicketDescriptionList(new TicketTableModel());
+        scrollPane[0] = new JScrollPane(list);
+        scrollPane[0].setSize(400, 300);
+        scrollPane[0].doLayout();
+        return list;
+    }
+
+    /** Runs the test on the EDT, where the components are also validated and laid out. */
+    private static void onEdt(Runnable test) throws Exception {
+        try {
+            SwingUtilities.invokeAndWait(test);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Test
+    public void testOnlyCellsInViewAreCreated() throws Exception {
+        onEdt(() -> {
+            JScrollPane[] scrollPane = new JScrollPane[1];
+            TicketDescriptionList list = createList(scrollPane);
+            list.setTickets(makeTickets(5000), NO_TERMS);
+
+            int cells = list.getCellCount();
+            assertTrue("Cells: " + cells, cells > 0 && cells < 20);
+            assertTrue(list.getPreferredSize().height > 5000 * 20);
+        });
+    }
+
+    @Test
+    public void testCellsInViewStayStillWhenOthersAreMeasured() throws Exception {
+        onEdt(() -> {
+            JScrollPane[] scrollPane = new JScrollPane[1];
+            TicketDescriptionList list = createList(scrollPane);
+            list.setTickets(makeTickets(100), NO_TERMS);
+            JViewport viewport = scrollPane[0].getViewport();
+
+            // Jump into the unmeasured cells, then scroll up into others
+            viewport.setViewPosition(new Point(0, 5000));
+            Component cell = list.getComponentAt(0, viewport.getViewPosition().y);
+            int onScreen = cell.getY() - viewport.getViewPosition().y;
+
+            viewport.setViewPosition(new Point(0, viewport.getViewPosition().y - 20));
+            assertEquals(onScreen + 20, cell.getY() - viewport.getViewPosition().y);
+        });
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 2.1 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tracinstant.app.ui;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TracWikiRendererTest {
+
+    private static final String BASE = "http://trac";
+
+    private static String render(String wiki) {
+        return TracWikiRenderer.toHtml(BASE, wiki);
+    }
+
+    @Test
+    public void testParagraphs() {
+        assertEquals("<p>\nOne\ntwo\n</p>\n<p>\nThree\n</p>\n", render("One\ntwo\n\nThree"));
+    }
+
+    @Test
+    public void testEscaping() {
+        assertEquals("<p>\na &lt;b&gt; &amp; &quot;c&quot;\n</p>\n", render("a <b> & \"c\""));
+    }
+
+    @Test
+    public void testInlineStyles() {
+        assertEquals("<p>\n<strong>b</strong> <em>i</em> <tt>x &lt; y</tt> <del>s</del>\n</p>\n",
+                render("'''b''' ''i'' {{{x < y}}} ~~s~~"));
+    }
+
+    @Test
+    public void testUnclosedStylesAreClosed() {
+        assertEquals("<p>\n<strong>a <em>b</em></strong><em>c\n</em></p>\n",
+                render("'''a ''b'''c"));
+    }
+
+    @Test
+    public void testTicketLinks() {
+        String link = "<a class=\"ticket\" href=\"http://trac/ticket/12\">#12</a>";
+        assertEquals("<p>\nSee " + link + ", " + link + " and #12.\n</p>\n",
+                render("See #12, ticket:12 and !#12."));
+    }
+
+    @Test
+    public void testExternalLinks() {
+        assertEquals("<p>\n<a class=\"ext-link\" href=\"http://x.org/a?b=1&amp;c\">" +
+                "http://x.org/a?b=1&amp;c</a>. <a class=\"ext-link\" href=\"http://y.org\">" +
+                "Y site</a> [not a link]\n</p>\n",
+                render("http://x.org/a?b=1&c. [http://y.org Y site] [not a link]"));
+    }
+
+    @Test
+    public void testHeadingAndRule() {
+        assertEquals("<h2>Title <em>x</em></h2>\n<hr />\n", render("== Title ''x'' ==\n----"));
+    }
+
+    @Test
+    public void testPreformatted() {
+        assertEquals("<pre class=\"wiki\">a '''b'''\n  &lt;c&gt;\n</pre>\n<p>\nd\n</p>\n",
+                render("{{{\n#!sh\na '''b'''\n  <c>\n}}}\nd"));
+    }
+
+    @Test
+    public void testNestedLists() {
+        assertEquals("<ul>\n<li>a\n<ol>\n<li>b</li>\n<li>c</li>\n</ol>\n</li>\n<li>d</li>\n</ul>\n",
+                render(" * a\n   1. b\n   2. c\n * d"));
+    }
+
+    @Test
+    public void testTable() {
+        assertEquals("<table class=\"wiki\">\n<tr><th>h</th><td>v</td></tr>\n</table>\n",
+                render("||= h =||v||"));
+    }
+
+    @Test
+    public void testCitation() {
+        assertEquals("<blockquote class=\"citation\">\n<p>\nquoted\n</p>\n</blockquote>\n",
+                render("> quoted"));
+    }
+}